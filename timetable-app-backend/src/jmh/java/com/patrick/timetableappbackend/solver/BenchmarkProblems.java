@@ -0,0 +1,169 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.domain.constraintweight.ConstraintWeight;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.StudentGroup;
+import com.patrick.timetableappbackend.model.Teacher;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.utils.SyntheticTimetableGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Problems for the score calculation benchmarks: {@code sample} is built from {@code import-examples/timetable_data.json}
+ * (or the file named by the {@code timetable.benchmark.dataset} system property), {@code synthetic} is generated by
+ * {@link SyntheticTimetableGenerator} with its default parameters and seed.
+ */
+final class BenchmarkProblems {
+
+    static final String SAMPLE = "sample";
+    static final String SYNTHETIC = "synthetic";
+    static final String DATASET_PROPERTY = "timetable.benchmark.dataset";
+    private static final String DEFAULT_DATASET = "../import-examples/timetable_data.json";
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    // ids of the copies made by scale(), far above the ids of the sample
+    private static final long ID_STRIDE = 1_000_000L;
+
+    private BenchmarkProblems() {
+    }
+
+    /**
+     * Loads or generates the dataset, scales it, enables every constraint and assigns every movable lesson,
+     * so the benchmarks score a problem in the state local search sees it.
+     *
+     * @param dataset {@code sample} or {@code synthetic}
+     */
+    static Timetable load(String dataset, int scale, long seed) throws IOException {
+        Timetable problem = read(dataset, scale);
+        enableAllConstraints(problem);
+        problem.prepareForSolving();
+        assignRandomly(problem, new Random(seed));
+        return problem;
+    }
+
+    /**
+     * Loads or generates the dataset and scales it, with the constraint weights and assignments it comes with.
+     *
+     * @param dataset {@code sample} or {@code synthetic}
+     */
+    static Timetable read(String dataset, int scale) throws IOException {
+        return switch (dataset) {
+            case SAMPLE -> {
+                Timetable sample = OBJECT_MAPPER.readValue(new File(System.getProperty(DATASET_PROPERTY, DEFAULT_DATASET)),
+                        Timetable.class);
+                yield scale == 1 ? sample : scale(sample, scale);
+            }
+            case SYNTHETIC -> {
+                SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+                yield SyntheticTimetableGenerator.generate(SyntheticTimetableGenerator.scaledTo(spec,
+                        (int) SyntheticTimetableGenerator.lessonCount(spec) * scale));
+            }
+            default -> throw new IllegalArgumentException("The dataset (" + dataset + ") must be "
+                    + SAMPLE + " or " + SYNTHETIC + ".");
+        };
+    }
+
+    /**
+     * @return {@code scale} copies of {@code sample} sharing its timeslots, each with its own teachers, student groups
+     * and rooms, so the number of lessons grows with the scale while the density per timeslot and room stays the same
+     */
+    static Timetable scale(Timetable sample, int scale) {
+        List<Room> rooms = new ArrayList<>(sample.getRooms().size() * scale);
+        List<Lesson> lessons = new ArrayList<>(sample.getLessons().size() * scale);
+        for (int copy = 0; copy < scale; copy++) {
+            long offset = copy * ID_STRIDE;
+            String suffix = copy == 0 ? "" : " #" + copy;
+            Map<Long, Room> roomCopies = new HashMap<>();
+            Map<Long, Teacher> teacherCopies = new HashMap<>();
+            Map<Long, StudentGroup> studentGroupCopies = new HashMap<>();
+            for (Room room : sample.getRooms()) {
+                Room roomCopy = new Room(room.getId() + offset, room.getName() + suffix, room.getCapacity());
+                roomCopy.setBuilding(room.getBuilding());
+                roomCopies.put(room.getId(), roomCopy);
+                rooms.add(roomCopy);
+            }
+            for (Lesson lesson : sample.getLessons()) {
+                Teacher teacher = lesson.getTeacher() == null ? null
+                        : teacherCopies.computeIfAbsent(lesson.getTeacher().getId(), id -> copy(lesson.getTeacher(), offset, suffix));
+                StudentGroup studentGroup = lesson.getStudentGroup() == null ? null
+                        : studentGroupCopies.computeIfAbsent(lesson.getStudentGroup().getId(), id -> copy(lesson.getStudentGroup(), offset, suffix));
+                Room room = lesson.getRoom() == null ? null : roomCopies.get(lesson.getRoom().getId());
+                Lesson lessonCopy = new Lesson(lesson.getId() + offset, lesson.getSubject(), lesson.getLessonType(),
+                        teacher, studentGroup, lesson.getDuration(), lesson.getTimeslot(), room);
+                lessonCopy.setYear(lesson.getYear());
+                lessonCopy.setPinned(lesson.isPinned());
+                lessons.add(lessonCopy);
+            }
+        }
+        return new Timetable(sample.getTimeslots(), rooms, lessons, sample.getTimetableConstraintConfiguration());
+    }
+
+    /**
+     * Gives every constraint the sample switched off a soft weight of one, disabled constraints are not evaluated.
+     */
+    static void enableAllConstraints(Timetable problem) {
+        TimetableConstraintConfiguration configuration = problem.getTimetableConstraintConfiguration() == null
+                ? new TimetableConstraintConfiguration()
+                : problem.getTimetableConstraintConfiguration();
+        try {
+            for (Field field : TimetableConstraintConfiguration.class.getDeclaredFields()) {
+                if (field.isAnnotationPresent(ConstraintWeight.class)) {
+                    field.setAccessible(true);
+                    HardMediumSoftScore weight = (HardMediumSoftScore) field.get(configuration);
+                    if (weight == null || weight.isZero()) {
+                        field.set(configuration, HardMediumSoftScore.ONE_SOFT);
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        problem.setTimetableConstraintConfiguration(configuration);
+    }
+
+    /**
+     * Assigns every movable lesson a random timeslot and room from its value ranges.
+     * The problem must be prepared for solving.
+     */
+    static void assignRandomly(Timetable problem, Random random) {
+        for (Lesson lesson : problem.getLessons()) {
+            if (lesson.isPinned()) {
+                continue;
+            }
+            List<Timeslot> timeslots = lesson.getPossibleTimeslots();
+            List<Room> rooms = lesson.getPossibleRooms();
+            lesson.setTimeslot(timeslots.isEmpty() ? null : timeslots.get(random.nextInt(timeslots.size())));
+            lesson.setRoom(rooms.isEmpty() ? null : rooms.get(random.nextInt(rooms.size())));
+        }
+    }
+
+    private static Teacher copy(Teacher teacher, long offset, String suffix) {
+        return Teacher.builder()
+                .id(teacher.getId() + offset)
+                .name(teacher.getName() + suffix)
+                .preferredTimeslots(teacher.getPreferredTimeslots())
+                .build();
+    }
+
+    private static StudentGroup copy(StudentGroup studentGroup, long offset, String suffix) {
+        StudentGroup studentGroupCopy = new StudentGroup(studentGroup.getId() + offset, studentGroup.getYear(),
+                studentGroup.getName() == null ? null : studentGroup.getName() + suffix,
+                studentGroup.getStudentGroup() == null ? null : studentGroup.getStudentGroup() + suffix,
+                studentGroup.getNumberOfStudents());
+        studentGroupCopy.setSemiGroup(studentGroup.getSemiGroup());
+        return studentGroupCopy;
+    }
+}
@@ -0,0 +1,47 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Score calculation of each constraint of {@link TimetableConstraintProvider} on its own.
+ * Narrow it down or widen it with e.g. {@code -p constraint=roomConflict,teacherConflict -p dataset=synthetic -p scale=1,16}.
+ */
+@State(Scope.Benchmark)
+public class ConstraintScoreBenchmark extends ScoreCalculationBenchmark {
+
+    // the constraints enabled in TimetableConstraintProvider#defineConstraints
+    @Param({"roomConflict", "teacherConflict", "studentGroupConflictWithGroupBy", "capacityRoomConflict",
+            "courseStudentsGroupedInTheSameRoom", "seminarStudentsGroupedInTheSameRoom",
+            "labsStudentsGroupedInTheSameRoom", "roomConflictUniversity", "teacherConflictUniversity",
+            "overlappingTimeslot", "lessonDurationConflict", "maximumCoursesForStudents",
+            "maximizePreferredTimeslotAssignments", "coursesGroupedInTheSameTimeslot",
+            "seminarsGroupedInTheSameTimeslot", "maximmumCoursesTeached", "teacherRoomStability",
+            "teacherTimeEfficiency", "studentGroupSubjectVariety", "coursesInTheSameBuilding",
+            "gapsLongerThan4Hours", "labsGroupedInTheSameTimeslot"})
+    public String constraint;
+
+    @Param({"sample"})
+    public String dataset;
+
+    @Param({"1"})
+    public int scale;
+
+    @Override
+    protected Timetable problem(long seed) throws IOException {
+        return BenchmarkProblems.load(dataset, scale, seed);
+    }
+
+    @Override
+    protected ScoreDirectorFactoryConfig scoreDirectorFactoryConfig() {
+        return new ScoreDirectorFactoryConfig()
+                .withConstraintProviderClass(SingleConstraintProvider.class)
+                .withConstraintProviderCustomProperties(Map.of("constraintName", constraint));
+    }
+}
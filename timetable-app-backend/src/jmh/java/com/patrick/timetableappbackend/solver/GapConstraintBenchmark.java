@@ -0,0 +1,51 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.utils.SyntheticTimetableGenerator;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Score calculation of {@code gapsLongerThan4Hours} with the sorted per-group-day collector against the join version
+ * it replaced (see {@link GapConstraintProvider}), as the number of lessons per student group grows.
+ * <p>
+ * The problems are synthetic: one series of four groups, over a week of twelve one hour timeslots a day,
+ * so a group has about {@code lessonsPerGroup / 60} lessons on a timeslot.
+ */
+@State(Scope.Benchmark)
+public class GapConstraintBenchmark extends ScoreCalculationBenchmark {
+
+    @Param({GapConstraintProvider.COLLECTOR, GapConstraintProvider.JOINS})
+    public String variant;
+
+    @Param({"50", "200", "1000"})
+    public int lessonsPerGroup;
+
+    @Override
+    protected Timetable problem(long seed) {
+        SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+        spec.setSeries(1);
+        spec.setGroupsPerSeries(4);
+        spec.setLessonsPerGroup(lessonsPerGroup);
+        spec.setTimeslotsPerDay(12);
+        spec.setTimeslotMinutes(60);
+        Timetable problem = SyntheticTimetableGenerator.generate(spec);
+        BenchmarkProblems.enableAllConstraints(problem);
+        problem.prepareForSolving();
+        BenchmarkProblems.assignRandomly(problem, new Random(seed));
+        return problem;
+    }
+
+    @Override
+    protected ScoreDirectorFactoryConfig scoreDirectorFactoryConfig() {
+        return new ScoreDirectorFactoryConfig()
+                .withConstraintProviderClass(GapConstraintProvider.class)
+                .withConstraintProviderCustomProperties(Map.of("variant", variant));
+    }
+}
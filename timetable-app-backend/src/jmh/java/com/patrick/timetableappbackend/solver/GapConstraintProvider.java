@@ -0,0 +1,60 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.Joiners;
+import com.patrick.timetableappbackend.model.Lesson;
+
+/**
+ * Defines {@code gapsLongerThan4Hours} either as in {@link TimetableConstraintProvider} ({@code collector}) or as the
+ * join and {@code ifNotExists} it replaced ({@code joins}), chosen through the {@code variant} custom property.
+ * Only for the benchmarks, the join version is kept here so the two can be measured against each other.
+ */
+public class GapConstraintProvider implements ConstraintProvider {
+
+    static final String COLLECTOR = "collector";
+    static final String JOINS = "joins";
+
+    private final TimetableConstraintProvider timetableConstraintProvider = new TimetableConstraintProvider();
+    private String variant;
+
+    public void setVariant(String variant) {
+        this.variant = variant;
+    }
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return switch (variant) {
+            case COLLECTOR -> new Constraint[]{timetableConstraintProvider.gapsLongerThan4Hours(constraintFactory)};
+            case JOINS -> new Constraint[]{gapsLongerThan4HoursWithJoins(constraintFactory)};
+            default -> throw new IllegalArgumentException("The variant (" + variant + ") must be "
+                    + COLLECTOR + " or " + JOINS + ".");
+        };
+    }
+
+    /**
+     * gapsLongerThan4Hours before the collector: every pair of a group's lessons on a day, then a third lesson
+     * that would start in between.
+     */
+    private Constraint gapsLongerThan4HoursWithJoins(ConstraintFactory constraintFactory) {
+        int maxGapMinutes = timetableConstraintProvider.MAX_GAP_MINUTES;
+        return constraintFactory
+                .forEach(Lesson.class)
+                .join(Lesson.class,
+                        Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
+                        Joiners.equal(lesson -> lesson.getTimeslot().getDayIndex()),
+                        Joiners.lessThan(lesson -> lesson.getTimeslot().getStartMinuteOfWeek(),
+                                lesson -> lesson.getTimeslot().getStartMinuteOfWeek()))
+                // no lesson of the group starts in between
+                .ifNotExists(Lesson.class,
+                        Joiners.equal((a, b) -> a.getStudentGroup().getId(), lesson -> lesson.getStudentGroup().getId()),
+                        Joiners.equal((a, b) -> a.getTimeslot().getDayIndex(), lesson -> lesson.getTimeslot().getDayIndex()),
+                        Joiners.lessThan((a, b) -> a.getTimeslot().getEndMinuteOfWeek(), lesson -> lesson.getTimeslot().getStartMinuteOfWeek()),
+                        Joiners.greaterThan((a, b) -> b.getTimeslot().getStartMinuteOfWeek(), lesson -> lesson.getTimeslot().getStartMinuteOfWeek()))
+                .filter((lesson1, lesson2) ->
+                        lesson2.getTimeslot().getStartMinuteOfWeek() - lesson1.getTimeslot().getEndMinuteOfWeek() > maxGapMinutes)
+                .penalizeConfigurable()
+                .asConstraint("gapsLongerThan4Hours");
+    }
+}
@@ -0,0 +1,156 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmark;
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import ai.timefold.solver.benchmark.config.PlannerBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.ProblemBenchmarksConfig;
+import ai.timefold.solver.benchmark.config.SolverBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.statistic.ProblemStatisticType;
+import ai.timefold.solver.benchmark.impl.DefaultPlannerBenchmark;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicType;
+import ai.timefold.solver.core.config.heuristic.selector.entity.EntitySorterManner;
+import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.value.ValueSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.value.ValueSorterManner;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.RoomEligibility;
+import com.patrick.timetableappbackend.model.SportKeywords;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.utils.SportLessonChangeMoveFilter;
+import com.patrick.timetableappbackend.utils.SportLessonSwapMoveFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Solver benchmark of the pruned room value ranges ({@link RoomEligibility}) against the deprecated sport move
+ * filters they replaced, reported by the Timefold benchmark report instead of JMH because it compares whole solver runs.
+ * <p>
+ * The same dataset is solved as two problems: the first offers each lesson its pruned rooms, the second every room,
+ * as before the pruning. Each problem is solved with the plain move selectors and with the sport move filters on them,
+ * so the report holds the filter-based approach (second problem, filters) next to the pruned one (first problem,
+ * no filters), and the two mixed runs show the cost of the filters and of the larger value range on their own.
+ * Every run stops once its best score is feasible, so its time spent is the time to feasible; the score calculation
+ * speed is the number of moves evaluated per second.
+ * <p>
+ * Arguments, all optional: the dataset ({@code sample} or {@code synthetic}, see {@link BenchmarkProblems}),
+ * the scale and the time limit of a run in minutes, for when a run does not reach a feasible score.
+ * <pre>
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.patrick.timetableappbackend.solver.RoomValueRangeBenchmark -Dexec.args="sample 1 5"
+ * </pre>
+ */
+public final class RoomValueRangeBenchmark {
+
+    private static final File BENCHMARK_DIRECTORY = new File("target/benchmarks/room-value-range");
+
+    private RoomValueRangeBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dataset = args.length > 0 ? args[0] : BenchmarkProblems.SAMPLE;
+        int scale = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Duration spentLimit = Duration.ofMinutes(args.length > 2 ? Long.parseLong(args[2]) : 5L);
+
+        Timetable pruned = unassigned(dataset, scale);
+        pruned.prepareForSolving();
+        Timetable everyRoom = unassigned(dataset, scale);
+        everyRoom.prepareForSolving();
+        everyRoom.setRoomEligibility(RoomEligibility.unpruned(everyRoom.getRooms(), everyRoom.getLessons(),
+                SportKeywords.DEFAULT));
+
+        PlannerBenchmark plannerBenchmark = PlannerBenchmarkFactory.create(benchmarkConfig(spentLimit))
+                .buildPlannerBenchmark(pruned, everyRoom);
+        plannerBenchmark.benchmark();
+        File reportDirectory = ((DefaultPlannerBenchmark) plannerBenchmark).getPlannerBenchmarkResult()
+                .getBenchmarkReportDirectory();
+        System.out.println("Problem 0 has the pruned room value ranges, problem 1 offers every room. Report: "
+                + new File(reportDirectory, "index.html").getAbsolutePath());
+    }
+
+    static PlannerBenchmarkConfig benchmarkConfig(Duration spentLimit) {
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(Timetable.class)
+                .withEntityClasses(Lesson.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(TimetableConstraintProvider.class)
+                        .withInitializingScoreTrend("ONLY_DOWN/ONLY_DOWN/ANY"))
+                .withTerminationConfig(new TerminationConfig()
+                        .withBestScoreFeasible(true)
+                        .withSpentLimit(spentLimit))
+                .withPhases(new ConstructionHeuristicPhaseConfig()
+                        .withConstructionHeuristicType(ConstructionHeuristicType.ALLOCATE_ENTITY_FROM_QUEUE)
+                        .withEntitySorterManner(EntitySorterManner.DECREASING_DIFFICULTY_IF_AVAILABLE)
+                        .withValueSorterManner(ValueSorterManner.DECREASING_STRENGTH_IF_AVAILABLE));
+
+        ProblemBenchmarksConfig problemBenchmarksConfig = new ProblemBenchmarksConfig();
+        problemBenchmarksConfig.setProblemStatisticTypeList(List.of(ProblemStatisticType.BEST_SCORE,
+                ProblemStatisticType.SCORE_CALCULATION_SPEED));
+        SolverBenchmarkConfig inherited = new SolverBenchmarkConfig();
+        inherited.setSolverConfig(solverConfig);
+        inherited.setProblemBenchmarksConfig(problemBenchmarksConfig);
+        inherited.setSubSingleCount(1);
+
+        PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig();
+        benchmarkConfig.setBenchmarkDirectory(BENCHMARK_DIRECTORY);
+        benchmarkConfig.setWarmUpSecondsSpentLimit(30L);
+        benchmarkConfig.setInheritedSolverBenchmarkConfig(inherited);
+        benchmarkConfig.setSolverBenchmarkConfigList(List.of(
+                solverBenchmark("Value ranges only", false),
+                solverBenchmark("Sport move filters", true)));
+        return benchmarkConfig;
+    }
+
+    /**
+     * Late acceptance as configured in {@code timetableSolverConfig.xml}, with the move selectors spelled out,
+     * so the filters are the only difference between the two solvers.
+     */
+    @SuppressWarnings("deprecation")
+    private static SolverBenchmarkConfig solverBenchmark(String name, boolean sportMoveFilters) {
+        ChangeMoveSelectorConfig timeslotChange = new ChangeMoveSelectorConfig()
+                .withValueSelectorConfig(new ValueSelectorConfig("timeslot"));
+        ChangeMoveSelectorConfig roomChange = new ChangeMoveSelectorConfig()
+                .withValueSelectorConfig(new ValueSelectorConfig("room"));
+        SwapMoveSelectorConfig swap = new SwapMoveSelectorConfig();
+        if (sportMoveFilters) {
+            roomChange.setFilterClass(SportLessonChangeMoveFilter.class);
+            swap.setFilterClass(SportLessonSwapMoveFilter.class);
+        }
+        LocalSearchPhaseConfig localSearch = new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new UnionMoveSelectorConfig()
+                        .withMoveSelectors(timeslotChange, roomChange, swap))
+                .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                        .withLateAcceptanceSize(1200))
+                .withForagerConfig(new LocalSearchForagerConfig()
+                        .withAcceptedCountLimit(3));
+        SolverBenchmarkConfig solverBenchmarkConfig = new SolverBenchmarkConfig();
+        solverBenchmarkConfig.setName(name);
+        solverBenchmarkConfig.setSolverConfig(new SolverConfig().withPhases(localSearch));
+        return solverBenchmarkConfig;
+    }
+
+    /**
+     * @return the dataset with every movable lesson unassigned, so each run starts with the construction heuristic
+     */
+    private static Timetable unassigned(String dataset, int scale) throws IOException {
+        Timetable problem = BenchmarkProblems.read(dataset, scale);
+        for (Lesson lesson : problem.getLessons()) {
+            if (!lesson.isPinned()) {
+                lesson.setTimeslot(null);
+                lesson.setRoom(null);
+            }
+        }
+        return problem;
+    }
+}
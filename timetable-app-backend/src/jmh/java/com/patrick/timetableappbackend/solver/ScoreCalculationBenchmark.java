@@ -0,0 +1,130 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirectorFactory;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full and incremental score calculation on a bare score director, without the solver or the Spring context.
+ * Subclasses choose the constraints and the problem.
+ * <p>
+ * Uses Timefold's internal score director API, the public API offers no way to evaluate a single move.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class ScoreCalculationBenchmark {
+
+    private static final long SEED = 37L;
+
+    private InnerScoreDirector<Timetable, HardMediumSoftScore> scoreDirector;
+    private Lesson[] movableLessons;
+    private Random random;
+
+    /**
+     * @return the problem to score, prepared for solving, with every movable lesson assigned
+     */
+    protected abstract Timetable problem(long seed) throws IOException;
+
+    protected abstract ScoreDirectorFactoryConfig scoreDirectorFactoryConfig();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(Timetable.class)
+                .withEntityClasses(Lesson.class)
+                .withScoreDirectorFactory(scoreDirectorFactoryConfig());
+        DefaultSolverFactory<Timetable> solverFactory = (DefaultSolverFactory<Timetable>) SolverFactory.<Timetable>create(solverConfig);
+        InnerScoreDirectorFactory<Timetable, HardMediumSoftScore> scoreDirectorFactory = solverFactory.getScoreDirectorFactory();
+        scoreDirector = scoreDirectorFactory.buildScoreDirector(false, false);
+
+        Timetable problem = problem(SEED);
+        scoreDirector.setWorkingSolution(problem);
+        scoreDirector.calculateScore();
+        movableLessons = problem.getLessons().stream()
+                .filter(lesson -> !lesson.isPinned())
+                .filter(lesson -> !lesson.getPossibleTimeslots().isEmpty() && !lesson.getPossibleRooms().isEmpty())
+                .toArray(Lesson[]::new);
+        random = new Random(SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    /**
+     * Scores the whole solution from scratch, as at the start of every phase.
+     */
+    @Benchmark
+    public HardMediumSoftScore fullCalculation() {
+        // setting the working solution discards all incremental state
+        scoreDirector.setWorkingSolution(scoreDirector.getWorkingSolution());
+        return scoreDirector.calculateScore();
+    }
+
+    /**
+     * Evaluates one change move of a random lesson to a random timeslot or room, then undoes it.
+     * As in local search, the undo is scored together with the next move.
+     */
+    @Benchmark
+    public HardMediumSoftScore changeMove() {
+        Lesson lesson = movableLessons[random.nextInt(movableLessons.length)];
+        if (random.nextBoolean()) {
+            List<Timeslot> timeslots = lesson.getPossibleTimeslots();
+            Timeslot original = lesson.getTimeslot();
+            changeTimeslot(lesson, timeslots.get(random.nextInt(timeslots.size())));
+            HardMediumSoftScore score = scoreDirector.calculateScore();
+            changeTimeslot(lesson, original);
+            return score;
+        }
+        List<Room> rooms = lesson.getPossibleRooms();
+        Room original = lesson.getRoom();
+        changeRoom(lesson, rooms.get(random.nextInt(rooms.size())));
+        HardMediumSoftScore score = scoreDirector.calculateScore();
+        changeRoom(lesson, original);
+        return score;
+    }
+
+    private void changeTimeslot(Lesson lesson, Timeslot timeslot) {
+        scoreDirector.beforeVariableChanged(lesson, "timeslot");
+        lesson.setTimeslot(timeslot);
+        scoreDirector.afterVariableChanged(lesson, "timeslot");
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private void changeRoom(Lesson lesson, Room room) {
+        scoreDirector.beforeVariableChanged(lesson, "room");
+        lesson.setRoom(room);
+        scoreDirector.afterVariableChanged(lesson, "room");
+        scoreDirector.triggerVariableListeners();
+    }
+}
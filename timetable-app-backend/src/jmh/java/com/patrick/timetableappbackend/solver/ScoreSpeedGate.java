@@ -0,0 +1,142 @@
+package com.patrick.timetableappbackend.solver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the score calculation speed measured by the JMH benchmarks against a baseline stored in the repository,
+ * or records that baseline, together with the JDK and machine it was measured on, as the {@code perf-baseline} Maven
+ * profile does.
+ * <p>
+ * Arguments: the JMH JSON result file, the baseline file, the largest allowed slowdown in percent and whether to
+ * replace the baseline with the results instead. Prints one line per benchmark (per constraint, dataset and scale) and
+ * exits with status 1 if any benchmark got slower than allowed or has no baseline yet, so the gate cannot pass by
+ * comparing against nothing. Baselines of benchmarks that did not run are only reported.
+ */
+public final class ScoreSpeedGate {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+
+    private ScoreSpeedGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Expected the arguments <jmh-result.json> <baseline.json> "
+                    + "<max-regression-percent> <update-baseline>, got " + args.length + ".");
+        }
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double maxRegressionPercent = Double.parseDouble(args[2]);
+        boolean updateBaseline = Boolean.parseBoolean(args[3]);
+
+        Map<String, Double> results = readResults(resultFile);
+        if (updateBaseline) {
+            Baseline baseline = Baseline.measuredHere(results);
+            Files.createDirectories(baselineFile.toPath().toAbsolutePath().getParent());
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(baselineFile, baseline);
+            System.out.println("Wrote " + results.size() + " baselines measured on " + baseline.jdk() + ", "
+                    + baseline.machine() + " to " + baselineFile + ".");
+            return;
+        }
+        Baseline baseline = baselineFile.exists()
+                ? OBJECT_MAPPER.readValue(baselineFile, Baseline.class)
+                : new Baseline(null, null, Map.of());
+        if (baseline.jdk() != null) {
+            System.out.println("Baseline measured on " + baseline.jdk() + ", " + baseline.machine() + ".");
+        }
+        List<String> failures = compare(results, baseline.benchmarks(), maxRegressionPercent);
+        if (!failures.isEmpty()) {
+            System.out.println();
+            System.out.println(failures.size() + " benchmark(s) regressed by more than " + maxRegressionPercent
+                    + "% or have no baseline in " + baselineFile + ":");
+            failures.forEach(key -> System.out.println("  " + key));
+            System.out.println("Record the baseline on the reference machine with -Pjmh,perf-baseline.");
+            System.exit(1);
+        }
+        System.out.println();
+        System.out.println("No benchmark regressed by more than " + maxRegressionPercent + "%.");
+    }
+
+    /**
+     * Throughput of every benchmark and where it was measured: the numbers only compare on the same JDK and machine.
+     *
+     * @param jdk e.g. {@code OpenJDK 64-Bit Server VM 21.0.1+12-LTS}
+     * @param machine e.g. {@code Linux amd64, 8 cores}
+     * @param benchmarks ops/s keyed like {@link #readResults(File)}
+     */
+    record Baseline(String jdk, String machine, Map<String, Double> benchmarks) {
+
+        Baseline {
+            benchmarks = benchmarks == null ? Map.of() : new TreeMap<>(benchmarks);
+        }
+
+        static Baseline measuredHere(Map<String, Double> benchmarks) {
+            return new Baseline(System.getProperty("java.vm.name") + " " + System.getProperty("java.runtime.version"),
+                    System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+                            + Runtime.getRuntime().availableProcessors() + " cores",
+                    benchmarks);
+        }
+    }
+
+    /**
+     * Prints the comparison of every benchmark.
+     *
+     * @return the benchmarks that got slower than {@code maxRegressionPercent} or have no baseline
+     */
+    static List<String> compare(Map<String, Double> results, Map<String, Double> baselines, double maxRegressionPercent) {
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%-90s %14s %14s %9s  %s%n", "Benchmark", "Baseline ops/s", "Current ops/s", "Change", "Status");
+        results.forEach((key, current) -> {
+            Double baseline = baselines.get(key);
+            if (baseline == null || baseline <= 0.0) {
+                System.out.printf("%-90s %14s %14.1f %9s  %s%n", key, "-", current, "-", "NO BASELINE");
+                failures.add(key);
+                return;
+            }
+            double changePercent = (current - baseline) / baseline * 100.0;
+            boolean regressed = changePercent < -maxRegressionPercent;
+            if (regressed) {
+                failures.add(key);
+            }
+            System.out.printf("%-90s %14.1f %14.1f %+8.1f%%  %s%n", key, baseline, current, changePercent,
+                    regressed ? "REGRESSED" : "OK");
+        });
+        baselines.keySet().stream()
+                .filter(key -> !results.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14.1f %14s %9s  %s%n", key, baselines.get(key), "-", "-", "NOT RUN"));
+        return failures;
+    }
+
+    /**
+     * @return the throughput of every benchmark, keyed by class, method and parameters,
+     * e.g. {@code ConstraintScoreBenchmark.changeMove constraint=roomConflict dataset=sample scale=4}
+     */
+    static Map<String, Double> readResults(File resultFile) throws IOException {
+        Map<String, Double> results = new TreeMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(resultFile)) {
+            String benchmark = run.get("benchmark").asText();
+            // keep the simple class name, the package is the same for all of them
+            String[] parts = benchmark.split("\\.");
+            StringBuilder key = new StringBuilder(parts[parts.length - 2]).append('.').append(parts[parts.length - 1]);
+            JsonNode params = run.get("params");
+            if (params != null) {
+                List<String> names = new ArrayList<>();
+                params.fieldNames().forEachRemaining(names::add);
+                names.sort(null);
+                names.forEach(name -> key.append(' ').append(name).append('=').append(params.get(name).asText()));
+            }
+            results.put(key.toString(), run.get("primaryMetric").get("score").asDouble());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,102 @@
+package com.patrick.timetableappbackend.solver;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScoreSpeedGateTest {
+
+    // trimmed down output of -rf json
+    private static final String JMH_RESULT = """
+            [
+                {
+                    "jmhVersion" : "1.37",
+                    "benchmark" : "com.patrick.timetableappbackend.solver.ConstraintScoreBenchmark.changeMove",
+                    "mode" : "thrpt",
+                    "params" : {
+                        "constraint" : "roomConflict",
+                        "scale" : "4",
+                        "dataset" : "sample"
+                    },
+                    "primaryMetric" : {
+                        "score" : 81234.5,
+                        "scoreError" : 1520.3,
+                        "scoreUnit" : "ops/s"
+                    }
+                },
+                {
+                    "jmhVersion" : "1.37",
+                    "benchmark" : "com.patrick.timetableappbackend.solver.TimetableScoreBenchmark.changeMove",
+                    "mode" : "thrpt",
+                    "params" : {
+                        "dataset" : "synthetic",
+                        "scale" : "4"
+                    },
+                    "primaryMetric" : {
+                        "score" : 4210.0,
+                        "scoreError" : 95.1,
+                        "scoreUnit" : "ops/s"
+                    }
+                }
+            ]
+            """;
+
+    private static final String ROOM_CONFLICT = "ConstraintScoreBenchmark.changeMove constraint=roomConflict dataset=sample scale=4";
+    private static final String WHOLE_PROVIDER = "TimetableScoreBenchmark.changeMove dataset=synthetic scale=4";
+
+    @Test
+    void readResultsKeysByClassMethodAndSortedParams(@TempDir Path directory) throws IOException {
+        File resultFile = directory.resolve("jmh-result.json").toFile();
+        Files.writeString(resultFile.toPath(), JMH_RESULT);
+
+        Map<String, Double> results = ScoreSpeedGate.readResults(resultFile);
+
+        assertEquals(Map.of(ROOM_CONFLICT, 81234.5, WHOLE_PROVIDER, 4210.0), results);
+    }
+
+    @Test
+    void baselineKeepsTheJdkAndMachineItWasMeasuredOn(@TempDir Path directory) throws IOException {
+        File baselineFile = directory.resolve("baseline.json").toFile();
+        ScoreSpeedGate.Baseline baseline = ScoreSpeedGate.Baseline.measuredHere(Map.of(ROOM_CONFLICT, 81234.5));
+        JsonMapper.builder().build().writeValue(baselineFile, baseline);
+
+        ScoreSpeedGate.Baseline read = JsonMapper.builder().build().readValue(baselineFile, ScoreSpeedGate.Baseline.class);
+
+        assertEquals(baseline, read);
+        assertTrue(read.jdk().contains(System.getProperty("java.runtime.version")));
+    }
+
+    @Test
+    void slowdownWithinTheAllowedPercentPasses() {
+        List<String> failures = ScoreSpeedGate.compare(Map.of(ROOM_CONFLICT, 85.0, WHOLE_PROVIDER, 120.0),
+                Map.of(ROOM_CONFLICT, 100.0, WHOLE_PROVIDER, 100.0), 20.0);
+
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    void slowdownBeyondTheAllowedPercentFails() {
+        List<String> failures = ScoreSpeedGate.compare(Map.of(ROOM_CONFLICT, 79.0, WHOLE_PROVIDER, 100.0),
+                Map.of(ROOM_CONFLICT, 100.0, WHOLE_PROVIDER, 100.0), 20.0);
+
+        assertEquals(List.of(ROOM_CONFLICT), failures);
+    }
+
+    @Test
+    void benchmarkWithoutBaselineFails() {
+        List<String> failures = ScoreSpeedGate.compare(Map.of(ROOM_CONFLICT, 100.0, WHOLE_PROVIDER, 100.0),
+                Map.of(ROOM_CONFLICT, 100.0, "TimetableScoreBenchmark.changeMove dataset=sample scale=4", 100.0), 20.0);
+
+        assertEquals(List.of(WHOLE_PROVIDER), failures);
+    }
+}
@@ -0,0 +1,34 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Defines a single constraint of {@link TimetableConstraintProvider}, chosen by its method name
+ * through the {@code constraintName} custom property, so it can be measured on its own.
+ */
+public class SingleConstraintProvider implements ConstraintProvider {
+
+    private final TimetableConstraintProvider timetableConstraintProvider = new TimetableConstraintProvider();
+    private String constraintName;
+
+    public void setConstraintName(String constraintName) {
+        this.constraintName = constraintName;
+    }
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        try {
+            Method constraint = TimetableConstraintProvider.class.getDeclaredMethod(constraintName, ConstraintFactory.class);
+            return new Constraint[]{(Constraint) constraint.invoke(timetableConstraintProvider, constraintFactory)};
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("The constraintName (" + constraintName + ") is not a constraint of "
+                    + TimetableConstraintProvider.class.getSimpleName() + ".", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.patrick.timetableappbackend.solver;
+
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Lesson#getPossibleTimeslots()}, which returns the shared list of the timetable's duration index, against
+ * the filter over every timeslot it replaced, which computed a {@link Duration} per timeslot and a new list per call.
+ * Each call asks for the timeslots of the next lesson, as the solver does while selecting moves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeslotValueRangeBenchmark {
+
+    @Param({"sample", "synthetic"})
+    public String dataset;
+
+    @Param({"1"})
+    public int scale;
+
+    private Timetable timetable;
+    private Lesson[] lessons;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        timetable = BenchmarkProblems.read(dataset, scale);
+        timetable.prepareForSolving();
+        lessons = timetable.getLessons().toArray(Lesson[]::new);
+    }
+
+    @Benchmark
+    public List<Timeslot> durationIndex() {
+        return nextLesson().getPossibleTimeslots();
+    }
+
+    @Benchmark
+    public List<Timeslot> perCallFilter() {
+        Lesson lesson = nextLesson();
+        return timetable.getTimeslots().stream()
+                .filter(timeslot -> Duration.between(timeslot.getStartTime(), timeslot.getEndTime()).abs().toHours()
+                        == lesson.getDuration())
+                .toList();
+    }
+
+    private Lesson nextLesson() {
+        Lesson lesson = lessons[next];
+        next = next + 1 == lessons.length ? 0 : next + 1;
+        return lesson;
+    }
+}
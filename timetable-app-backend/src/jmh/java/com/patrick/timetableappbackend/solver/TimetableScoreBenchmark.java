@@ -0,0 +1,34 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Score calculation of the whole {@link TimetableConstraintProvider} on the sample and the synthetic data,
+ * scaled up to chart how it grows with the number of lessons.
+ */
+@State(Scope.Benchmark)
+public class TimetableScoreBenchmark extends ScoreCalculationBenchmark {
+
+    @Param({"sample", "synthetic"})
+    public String dataset;
+
+    @Param({"1", "4", "16"})
+    public int scale;
+
+    @Override
+    protected Timetable problem(long seed) throws IOException {
+        return BenchmarkProblems.load(dataset, scale, seed);
+    }
+
+    @Override
+    protected ScoreDirectorFactoryConfig scoreDirectorFactoryConfig() {
+        return new ScoreDirectorFactoryConfig()
+                .withConstraintProviderClass(TimetableConstraintProvider.class);
+    }
+}
@@ -0,0 +1,19 @@
+package com.patrick.timetableappbackend.config;
+
+import com.patrick.timetableappbackend.model.SportKeywords;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class SolverDomainConfig {
+
+    @Bean
+    public SportKeywords sportKeywords(
+            @Value("${timetable.sport.lesson-keywords:Sport,Educatie Fizica,Educație Fizică,Physical Education,PE}") List<String> lessonKeywords,
+            @Value("${timetable.sport.room-keywords:Sala de Sport,Gym,Sports Hall}") List<String> roomKeywords) {
+        return new SportKeywords(lessonKeywords, roomKeywords);
+    }
+}
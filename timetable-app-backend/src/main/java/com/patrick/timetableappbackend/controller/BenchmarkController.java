@@ -1,10 +1,14 @@
 package com.patrick.timetableappbackend.controller;
 
 import com.patrick.timetableappbackend.dto.AggregationRequest;
+import com.patrick.timetableappbackend.dto.BenchmarkJobDTO;
 import com.patrick.timetableappbackend.dto.BenchmarkRequest;
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.model.Timetable;
 import com.patrick.timetableappbackend.service.BenchmarkService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -14,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
@@ -21,11 +26,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 import java.io.File;
@@ -42,6 +51,8 @@ import java.util.Map;
 public class BenchmarkController {
 
     private final BenchmarkService benchmarkService;
+    @Value("${timetable.benchmark.run-timeout:1h}")
+    private Duration runTimeout;
 
     /**
      * Serves the generated benchmark report (index.html or related file) for a given benchmark run.
@@ -111,36 +122,133 @@ public class BenchmarkController {
 
     /**
      * Runs a benchmark on the timetable solution, either from an imported timetable or from the database.
+     * The benchmark runs as a job on the benchmark executor; the request waits for it without holding a request thread.
      *
      * @param request BenchmarkRequest containing the source of the timetable data and the timetable itself
-     * @return Response with the URL to the generated benchmark report or error message
+     * @return Response with the URL to the generated benchmark report or error message, or the job ID to poll if the
+     * benchmark takes longer than timetable.benchmark.run-timeout
      */
     @Operation(summary = "Run Benchmark", description = "Run a benchmark on the timetable solution, either from an imported timetable or from the database.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Benchmark run successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "202", description = "Benchmark still running, poll its job",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class))),
             @ApiResponse(responseCode = "400", description = "Bad request"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Too many benchmarks queued")
     })
     @PostMapping("/run")
     @PreAuthorize("hasAuthority('ADMIN')")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Map<String, String>> runBenchmark(
+    public DeferredResult<ResponseEntity<Map<String, String>>> runBenchmark(
             @Parameter(description = "Benchmark request containing the source of the timetable data and the timetable itself")
             @RequestBody BenchmarkRequest request) {
-        try {
-            String reportUrl;
-            if ("imported".equals(request.getSource())) {
-                reportUrl = benchmarkService.runBenchmarkOnImported(request.getTimetable());
-            } else {
-                reportUrl = benchmarkService.runBenchmarkOnDatabase();
-            }
-            return ResponseEntity.ok(Map.of("reportUrl", reportUrl));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", e.getMessage()));
-        }
+        BenchmarkJobDTO job = benchmarkService.submitBenchmark(request);
+        DeferredResult<ResponseEntity<Map<String, String>>> result = new DeferredResult<>(runTimeout.toMillis(),
+                () -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(Map.of("jobId", job.getJobId(), "statusUrl", "/api/v1/benchmarks/jobs/" + job.getJobId())));
+        benchmarkService.whenBenchmarkFinished(job.getJobId()).thenAccept(finished -> result.setResult(
+                switch (finished.getStatus()) {
+                    case COMPLETED -> ResponseEntity.ok(Map.of("reportUrl", finished.getReportUrl()));
+                    case CANCELLED -> ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Benchmark was cancelled."));
+                    default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", String.valueOf(finished.getError())));
+                }));
+        return result;
+    }
+
+    @Operation(summary = "Submit Benchmark Job", description = "Queue a benchmark run on the timetable solution and return its job right away.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Benchmark job queued",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BenchmarkJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Too many benchmarks queued")
+    })
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BenchmarkJobDTO> submitBenchmark(
+            @Parameter(description = "Benchmark request containing the source of the timetable data and the timetable itself")
+            @RequestBody BenchmarkRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(benchmarkService.submitBenchmark(request));
+    }
+
+    @Operation(summary = "Generate Dataset", description = "Generate a synthetic timetable problem for load and scaling tests, with the saved constraint weights. The same parameters and seed always generate the same problem.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Problem generated",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Timetable.class))),
+            @ApiResponse(responseCode = "400", description = "Parameter out of range or too many lessons"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/datasets", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public Timetable generateDataset(
+            @Parameter(description = "Shape of the problem, the defaults when missing")
+            @RequestBody(required = false) SyntheticDatasetRequest request,
+            @Parameter(description = "Scale the series, teachers and rooms to about this many lessons")
+            @RequestParam(name = "lessons", required = false) Integer lessons) {
+        return benchmarkService.generateDataset(request, lessons);
+    }
+
+    @Operation(summary = "List Benchmark Jobs", description = "List the queued, running and recently finished benchmark jobs, oldest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Benchmark jobs retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BenchmarkJobDTO.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/jobs")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public List<BenchmarkJobDTO> getBenchmarkJobs() {
+        return benchmarkService.getBenchmarkJobs();
+    }
+
+    @Operation(summary = "Get Benchmark Job", description = "Get the status, estimated progress and, once completed, the report URL of a benchmark job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Benchmark job retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BenchmarkJobDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Benchmark job not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public BenchmarkJobDTO getBenchmarkJob(
+            @Parameter(description = "ID of the benchmark job", required = true)
+            @PathVariable("jobId") String jobId) {
+        return benchmarkService.getBenchmarkJob(jobId);
+    }
+
+    @Operation(summary = "Cancel Benchmark Job", description = "Cancel a queued benchmark job, or interrupt a running one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Benchmark job cancelled",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BenchmarkJobDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Benchmark job not found"),
+            @ApiResponse(responseCode = "409", description = "Benchmark job already finished"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @DeleteMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public BenchmarkJobDTO cancelBenchmark(
+            @Parameter(description = "ID of the benchmark job", required = true)
+            @PathVariable("jobId") String jobId) {
+        return benchmarkService.cancelBenchmark(jobId);
     }
 
     /**
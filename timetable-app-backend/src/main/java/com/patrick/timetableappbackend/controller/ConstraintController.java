@@ -1,5 +1,6 @@
 package com.patrick.timetableappbackend.controller;
 
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
 import com.patrick.timetableappbackend.model.ConstraintModel;
 import com.patrick.timetableappbackend.service.ConstraintService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -119,17 +121,22 @@ public class ConstraintController {
             @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
             @ApiResponse(responseCode = "404", description = "Constraint not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The given job is not solving", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
     @PutMapping("/{id}")
     @Parameters(value = {
             @Parameter(name = "id", description = "ID of the constraint to update", required = true),
-            @Parameter(name = "updatedConstraintModel", description = "Updated constraint model", required = true)
+            @Parameter(name = "updatedConstraintModel", description = "Updated constraint model", required = true),
+            @Parameter(name = "jobId", description = "ID of a running Timetable Generation job to reweight with the saved weights (optional)")
     })
-    public ResponseEntity<ConstraintModel> updateConstraint(@PathVariable Long id, @RequestBody ConstraintModel updatedConstraintModel) {
+    public ResponseEntity<ConstraintModel> updateConstraint(@PathVariable Long id, @RequestBody ConstraintModel updatedConstraintModel,
+                                                            @RequestParam(required = false) String jobId) {
         try {
-            ConstraintModel updated = constraintService.updateConstraint(id, updatedConstraintModel);
+            ConstraintModel updated = constraintService.updateConstraint(id, updatedConstraintModel, jobId);
             return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (TimetableSolverException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
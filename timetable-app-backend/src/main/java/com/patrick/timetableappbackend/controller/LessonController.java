@@ -1,5 +1,6 @@
 package com.patrick.timetableappbackend.controller;
 
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
 import com.patrick.timetableappbackend.model.Lesson;
 import com.patrick.timetableappbackend.service.LessonService;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -157,6 +158,7 @@ public class LessonController {
             @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
             @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The given job is not solving", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     })
     @PatchMapping("/{id}/pin")
@@ -168,10 +170,14 @@ public class LessonController {
             @Parameter(description = "Timeslot ID to pin to (optional)")
             @RequestParam(required = false) Long timeslotId,
             @Parameter(description = "Room ID to pin to (optional)")
-            @RequestParam(required = false) Long roomId) {
+            @RequestParam(required = false) Long roomId,
+            @Parameter(description = "ID of a running Timetable Generation job to re-plan with the new pinning (optional)")
+            @RequestParam(required = false) String jobId) {
         try {
-            Lesson updated = lessonService.updatePinning(id, pinned, timeslotId, roomId);
+            Lesson updated = lessonService.updatePinning(id, pinned, timeslotId, roomId, jobId);
             return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (TimetableSolverException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
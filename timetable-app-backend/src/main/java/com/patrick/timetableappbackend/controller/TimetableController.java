@@ -4,8 +4,18 @@ import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
 import ai.timefold.solver.core.api.solver.SolutionUpdatePolicy;
+import com.patrick.timetableappbackend.dto.AppliedSolutionDTO;
+import com.patrick.timetableappbackend.dto.JobCheckpointDTO;
+import com.patrick.timetableappbackend.dto.QueuedJobDTO;
+import com.patrick.timetableappbackend.dto.SolutionDiffDTO;
+import com.patrick.timetableappbackend.dto.SolutionUpdateDTO;
+import com.patrick.timetableappbackend.dto.TerminationDTO;
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.SolvePriority;
 import com.patrick.timetableappbackend.model.Timetable;
 import com.patrick.timetableappbackend.service.TimetableService;
+import com.patrick.timetableappbackend.solver.LocalSearchAlgorithm;
+import com.patrick.timetableappbackend.solver.SolverOverrides;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,13 +27,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.security.access.prepost.PreAuthorize;
-import jakarta.websocket.server.PathParam;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -31,9 +42,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -87,17 +101,139 @@ public class TimetableController {
             @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
             @ApiResponse(responseCode = "404", description = "Timetable problem not found", content = @Content),
-            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Solve queue is full", content = @Content)
     })
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Map<String, String>> solve(
             @Parameter(description = "Timetable problem to be solved", required = true)
-            @RequestBody Timetable problem) {
+            @RequestBody Timetable problem,
+            @Parameter(description = "Start from the previous lesson assignments instead of from scratch; only new lessons and lessons whose previous timeslot or room no longer fits are constructed again")
+            @RequestParam(name = "warmStart", defaultValue = "false") boolean warmStart,
+            @Parameter(description = "With warmStart, the job whose best solution to start from; by default the assignments saved in the lesson table")
+            @RequestParam(name = "fromJobId", required = false) String fromJobId,
+            @Parameter(description = "Solving time of this job, e.g. 30s, 10m or PT1H; by default the problem's duration in minutes or the configured spent limit")
+            @RequestParam(name = "spentLimit", required = false) String spentLimit,
+            @Parameter(description = "Stop when the best score did not improve for this long, e.g. 2m")
+            @RequestParam(name = "unimprovedSpentLimit", required = false) String unimprovedSpentLimit,
+            @Parameter(description = "Stop once this score is reached, e.g. 0hard/0medium/-100soft")
+            @RequestParam(name = "bestScoreLimit", required = false) String bestScoreLimit,
+            @Parameter(description = "NONE, AUTO or the number of move threads of this job")
+            @RequestParam(name = "moveThreadCount", required = false) String moveThreadCount,
+            @Parameter(description = "Order in the solve queue relative to other waiting jobs")
+            @RequestParam(name = "priority", defaultValue = "NORMAL") SolvePriority priority) {
+
+        SolverOverrides overrides;
+        try {
+            overrides = new SolverOverrides(parseDuration(spentLimit), parseDuration(unimprovedSpentLimit),
+                    bestScoreLimit, moveThreadCount);
+        } catch (IllegalArgumentException e) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String jobId = timetableService.solve(problem, warmStart, fromJobId, overrides, priority);
+        Map<String, String> response = new HashMap<>();
+        response.put("jobId", jobId);
+        response.put("queuePosition", String.valueOf(timetableService.getQueuePosition(jobId)));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Solve timetable problem with a portfolio of algorithms",
+            description = "Race several local search algorithms on the same problem, each on its share of the job's cores, "
+                    + "and keep the best solution any of them finds; algorithms that fall behind are stopped early")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully submitted timetable problem",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Solve queue is full", content = @Content)
+    })
+    @PostMapping(value = "/portfolio", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, String>> solvePortfolio(
+            @Parameter(description = "Timetable problem to be solved", required = true)
+            @RequestBody Timetable problem,
+            @Parameter(description = "Algorithms to race, at least two; by default all of them")
+            @RequestParam(name = "algorithms", required = false) List<LocalSearchAlgorithm> algorithms,
+            @Parameter(description = "Solving time of this job, e.g. 30s, 10m or PT1H; by default the problem's duration in minutes or the configured spent limit")
+            @RequestParam(name = "spentLimit", required = false) String spentLimit,
+            @Parameter(description = "Stop an algorithm when its best score did not improve for this long, e.g. 2m")
+            @RequestParam(name = "unimprovedSpentLimit", required = false) String unimprovedSpentLimit,
+            @Parameter(description = "Stop an algorithm once it reaches this score, e.g. 0hard/0medium/-100soft")
+            @RequestParam(name = "bestScoreLimit", required = false) String bestScoreLimit,
+            @Parameter(description = "Order in the solve queue relative to other waiting jobs")
+            @RequestParam(name = "priority", defaultValue = "NORMAL") SolvePriority priority) {
 
-        String jobId = timetableService.solve(problem);
+        SolverOverrides overrides;
+        try {
+            overrides = new SolverOverrides(parseDuration(spentLimit), parseDuration(unimprovedSpentLimit),
+                    bestScoreLimit, null);
+        } catch (IllegalArgumentException e) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String jobId = timetableService.solvePortfolio(problem,
+                algorithms == null || algorithms.isEmpty() ? List.of(LocalSearchAlgorithm.values()) : algorithms,
+                overrides, priority);
         Map<String, String> response = new HashMap<>();
         response.put("jobId", jobId);
+        response.put("queuePosition", String.valueOf(timetableService.getQueuePosition(jobId)));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "List the solve queue", description = "Retrieve the running jobs with the cores they were given, then the waiting jobs in the order they will start")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the solve queue",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = QueuedJobDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/queue", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public List<QueuedJobDTO> listQueue() {
+        return timetableService.getQueue();
+    }
+
+    @Operation(summary = "List interrupted jobs", description = "Retrieve the checkpoints of the jobs that were still solving when the backend stopped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved interrupted jobs",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = JobCheckpointDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/interrupted", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public List<JobCheckpointDTO> listInterrupted() {
+        return timetableService.getInterruptedJobs();
+    }
+
+    @Operation(summary = "Resume an interrupted job",
+            description = "Resume solving an interrupted job under the same job ID, starting from its last checkpointed best solution "
+                    + "and spending only what is left of its solving time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully resumed the job",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No checkpoint found for the job", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is already solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/{jobId}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, String>> resume(
+            @Parameter(description = "ID of the interrupted job to resume", required = true)
+            @PathVariable("jobId") String jobId) {
+
+        Map<String, String> response = new HashMap<>();
+        response.put("jobId", timetableService.resume(jobId));
+        response.put("queuePosition", String.valueOf(timetableService.getQueuePosition(jobId)));
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -182,10 +318,212 @@ public class TimetableController {
         return timetableService.getStatus(jobId);
     }
 
+    @Operation(summary = "Stream best solution updates of a Timetable Generation job",
+            description = "Server-sent event stream that pushes the score, solver status and solution version every time the solver publishes a new best solution. "
+                    + "The first event is the current state of the job; the stream completes when solving ends.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully opened the event stream",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = SolutionUpdateDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN') OR hasAuthority('USER')")
+    public SseEmitter streamEvents(
+            @Parameter(description = "ID of the job to stream the updates of", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "Also send the lessons whose timeslot or room changed with every update")
+            @RequestParam(name = "assignments", defaultValue = "false") boolean includeAssignments) {
+        return timetableService.subscribe(jobId, includeAssignments);
+    }
+
+    @Operation(summary = "Get the changes of a Timetable Generation job since a version",
+            description = "Retrieve only the (lessonId, timeslotId, roomId) assignments that changed since the given solution version, with the current score. "
+                    + "If that version is too old, fullSnapshot is true and every assignment is returned.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the changes",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SolutionDiffDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @GetMapping(value = "/{jobId}/diff", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN') OR hasAuthority('USER')")
+    public SolutionDiffDTO getDiff(
+            @Parameter(description = "ID of the job to retrieve the changes for", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "Solution version the client already has", required = true)
+            @RequestParam(name = "since") long sinceVersion) {
+        return timetableService.getDiff(jobId, sinceVersion);
+    }
+
+    @Operation(summary = "Apply the solution of a Timetable Generation job",
+            description = "Write the timeslot and room of every lesson of the job's best solution back to the lesson table, in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully applied the solution",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AppliedSolutionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is still solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/{jobId}/apply", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public AppliedSolutionDTO applySolution(
+            @Parameter(description = "ID of the job whose solution to apply", required = true)
+            @PathVariable("jobId") String jobId) {
+        return timetableService.applySolution(jobId);
+    }
+
+    @Operation(summary = "Add a lesson to a running Timetable Generation job",
+            description = "Add a lesson saved through the lessons API to the job while it keeps solving; the solver places it without restarting")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Lesson change submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/{jobId}/lessons/{lessonId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> addLesson(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "ID of the lesson to add", required = true)
+            @PathVariable("lessonId") Long lessonId) {
+        timetableService.addLesson(jobId, lessonId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Remove a lesson from a running Timetable Generation job",
+            description = "Remove a lesson from the job while it keeps solving")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Lesson change submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @DeleteMapping(value = "/{jobId}/lessons/{lessonId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> removeLesson(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "ID of the lesson to remove", required = true)
+            @PathVariable("lessonId") Long lessonId) {
+        timetableService.removeLesson(jobId, lessonId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Pin or unpin a lesson of a running Timetable Generation job",
+            description = "Pin a lesson, optionally to a given timeslot and room, or unpin it, while the job keeps solving. "
+                    + "The lesson table is not changed, see PATCH /api/v1/lessons/{id}/pin?jobId= to do both")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Lesson change submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PatchMapping(value = "/{jobId}/lessons/{lessonId}/pin")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> pinLesson(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "ID of the lesson to pin or unpin", required = true)
+            @PathVariable("lessonId") Long lessonId,
+            @Parameter(description = "Whether to pin the lesson", required = true)
+            @RequestParam boolean pinned,
+            @Parameter(description = "Timeslot ID to pin to (optional)")
+            @RequestParam(required = false) Long timeslotId,
+            @Parameter(description = "Room ID to pin to (optional)")
+            @RequestParam(required = false) Long roomId) {
+        timetableService.pinLesson(jobId, lessonId, pinned, timeslotId, roomId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Remove a room from a running Timetable Generation job",
+            description = "Remove a room from the job while it keeps solving; its lessons are unpinned and placed in other rooms")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Room change submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @DeleteMapping(value = "/{jobId}/rooms/{roomId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> removeRoom(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "ID of the room to remove", required = true)
+            @PathVariable("roomId") Long roomId) {
+        timetableService.removeRoom(jobId, roomId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Add a timeslot to a running Timetable Generation job",
+            description = "Add a timeslot saved through the timeslots API to the job while it keeps solving")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Timeslot change submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Timeslot not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/{jobId}/timeslots/{timeslotId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> addTimeslot(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "ID of the timeslot to add", required = true)
+            @PathVariable("timeslotId") Long timeslotId) {
+        timetableService.addTimeslot(jobId, timeslotId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Reload the constraint weights of a running Timetable Generation job",
+            description = "Push the constraint weights currently saved through the constraints API into the job; "
+                    + "its solution is rescored with them and solving continues without a restart")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Constraint weights submitted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Job not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job is not solving", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    })
+    @PostMapping(value = "/{jobId}/constraints/reload")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> reloadConstraintWeights(
+            @Parameter(description = "ID of the running job", required = true)
+            @PathVariable("jobId") String jobId) {
+        timetableService.reloadConstraintWeights(jobId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
     @Operation(summary = "Terminate solving of a Timetable Generation job", description = "Terminate the solving process for a specific job by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully terminated job",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Timetable.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TerminationDTO.class))),
             @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden access", content = @Content),
@@ -194,9 +532,24 @@ public class TimetableController {
     })
     @DeleteMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
-    public Timetable terminateSolving(
+    public TerminationDTO terminateSolving(
             @Parameter(description = "ID of the job to terminate", required = true)
-            @PathParam("jobId") String jobId) {
-        return timetableService.terminateSolving(jobId);
+            @PathVariable("jobId") String jobId,
+            @Parameter(description = "How long to wait for the final best solution, e.g. 10s; by default timetable.solver.terminate-timeout")
+            @RequestParam(name = "timeout", required = false) String timeout) {
+        Duration waitAtMost;
+        try {
+            waitAtMost = parseDuration(timeout);
+        } catch (IllegalArgumentException e) {
+            throw new TimetableSolverException(jobId, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (waitAtMost != null && waitAtMost.isNegative()) {
+            throw new TimetableSolverException(jobId, HttpStatus.BAD_REQUEST, "The timeout (" + timeout + ") must not be negative.");
+        }
+        return waitAtMost == null ? timetableService.terminateSolving(jobId) : timetableService.terminateSolving(jobId, waitAtMost);
+    }
+
+    private static Duration parseDuration(String value) {
+        return value == null || value.isBlank() ? null : DurationStyle.detectAndParse(value);
     }
 }
@@ -0,0 +1,24 @@
+package com.patrick.timetableappbackend.dto;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of writing the lesson assignments of a job's best solution to the lesson table.")
+public class AppliedSolutionDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Version of the applied best solution", example = "7")
+    private long version;
+    @Schema(description = "Score of the applied best solution", example = "0hard/-3medium/-120soft")
+    private HardMediumSoftScore score;
+    @Schema(description = "Number of lessons in the solution", example = "5000")
+    private int lessons;
+    @Schema(description = "Number of lessons updated; lessons deleted since the problem was generated are skipped", example = "5000")
+    private int updatedLessons;
+}
@@ -0,0 +1,36 @@
+package com.patrick.timetableappbackend.dto;
+
+import com.patrick.timetableappbackend.model.BenchmarkStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "State of a benchmark run submitted as a job.")
+public class BenchmarkJobDTO {
+    @Schema(description = "ID of the benchmark job", example = "7c0e2d4b-91f3-4a57-b6e8-3f2a9d1c5e60")
+    private String jobId;
+    @Schema(description = "Source of the benchmarked timetable data, either 'imported' or 'database'", example = "database")
+    private String source;
+    @Schema(description = "Status of the job", example = "RUNNING")
+    private BenchmarkStatus status;
+    @Schema(description = "Estimated progress between 0 and 1, from the elapsed time and the warm-up and termination of benchmarkConfig.xml; null if the configuration has no time limit", example = "0.42")
+    private Double progress;
+    @Schema(description = "1-based position among the queued jobs, 0 once the job started", example = "0")
+    private int queuePosition;
+    @Schema(description = "When the job was submitted", example = "2024-03-18T10:15:30Z")
+    private Instant submittedAt;
+    @Schema(description = "When the benchmark started running", example = "2024-03-18T10:15:31Z")
+    private Instant startedAt;
+    @Schema(description = "When the job completed, failed or was cancelled", example = "2024-03-18T10:19:16Z")
+    private Instant finishedAt;
+    @Schema(description = "URL of the benchmark report, once the job completed", example = "http://localhost:8200/api/v1/benchmarks/report/2024-03-18_101531/index.html")
+    private String reportUrl;
+    @Schema(description = "Why the job failed", example = "No benchmark directories found in local/data")
+    private String error;
+}
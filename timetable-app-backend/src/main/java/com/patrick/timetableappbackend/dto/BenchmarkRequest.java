@@ -6,13 +6,20 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Schema(description = "Request object for benchmarking the timetable solution. It contains the source of the timetable data and the timetable itself.")
 public class BenchmarkRequest {
-    @Schema(description = "Source of the timetable data, either 'imported' or 'database'", example = "imported")
+    @Schema(description = "Source of the timetable data, either 'imported', 'database' or 'synthetic'", example = "imported")
     private String source;
     @Schema(description = "The timetable object containing the solution to be benchmarked")
     private Timetable timetable;
+    @Schema(description = "Shape of the generated problems of a synthetic benchmark, the defaults when missing")
+    private SyntheticDatasetRequest dataset;
+    @Schema(description = "Lesson counts of a synthetic benchmark, one generated problem per count, e.g. to chart how solving scales",
+            example = "[500, 5000, 50000]")
+    private List<Integer> lessonCounts;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.patrick.timetableappbackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Last checkpoint of a solving job that was interrupted, e.g. by a restart of the backend.")
+public class JobCheckpointDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Version of the checkpointed best solution", example = "42")
+    private Long solutionVersion;
+    @Schema(description = "Score of the checkpointed best solution", example = "0hard/-3medium/-120soft")
+    private String score;
+    @Schema(description = "Solving time spent before the interruption, in milliseconds", example = "5400000")
+    private Long elapsedMillis;
+    @Schema(description = "Total solving time of the job, in milliseconds", example = "36000000")
+    private Long spentLimitMillis;
+    @Schema(description = "When the checkpoint was written", example = "2024-03-18T10:15:30Z")
+    private Instant checkpointedAt;
+}
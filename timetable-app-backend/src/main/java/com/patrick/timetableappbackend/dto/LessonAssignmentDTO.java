@@ -0,0 +1,19 @@
+package com.patrick.timetableappbackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Assignment of a single lesson: the timeslot and room it is planned in (null when unassigned).")
+public class LessonAssignmentDTO {
+    @Schema(description = "Unique identifier for the lesson", example = "12")
+    private Long lessonId;
+    @Schema(description = "Identifier of the assigned timeslot", example = "3")
+    private Long timeslotId;
+    @Schema(description = "Identifier of the assigned room", example = "5")
+    private Long roomId;
+}
@@ -0,0 +1,28 @@
+package com.patrick.timetableappbackend.dto;
+
+import com.patrick.timetableappbackend.model.SolvePriority;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A solving job in the solve queue, waiting for CPU cores or already running.")
+public class QueuedJobDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Priority the job was submitted with", example = "NORMAL")
+    private SolvePriority priority;
+    @Schema(description = "1-based position among the waiting jobs, 0 once the job is running", example = "3")
+    private int position;
+    @Schema(description = "Number of lessons of the problem", example = "5000")
+    private int lessons;
+    @Schema(description = "CPU cores given to the job (its solver thread plus its move threads), 0 while waiting", example = "8")
+    private int cores;
+    @Schema(description = "When the job was submitted", example = "2024-03-18T10:15:30Z")
+    private Instant submittedAt;
+}
@@ -0,0 +1,31 @@
+package com.patrick.timetableappbackend.dto;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Lesson assignments that changed between a version of a job's best solution and its current version.")
+public class SolutionDiffDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Version the client already has", example = "5")
+    private long sinceVersion;
+    @Schema(description = "Current version of the best solution", example = "7")
+    private long version;
+    @Schema(description = "Score of the current best solution", example = "0hard/-3medium/-120soft")
+    private HardMediumSoftScore score;
+    @Schema(description = "Status of the solver", example = "SOLVING_ACTIVE")
+    private SolverStatus solverStatus;
+    @Schema(description = "True if the requested version is too old to diff against: lessons then holds every assignment of the current version", example = "false")
+    private boolean fullSnapshot;
+    @Schema(description = "Lessons whose timeslot or room changed since the requested version")
+    private List<LessonAssignmentDTO> lessons;
+}
@@ -0,0 +1,27 @@
+package com.patrick.timetableappbackend.dto;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Best solution update of a solving job, pushed as a server-sent event.")
+public class SolutionUpdateDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Version of the best solution within the job, increases with every published solution", example = "7")
+    private long version;
+    @Schema(description = "Score of the best solution", example = "0hard/-3medium/-120soft")
+    private HardMediumSoftScore score;
+    @Schema(description = "Status of the solver", example = "SOLVING_ACTIVE")
+    private SolverStatus solverStatus;
+    @Schema(description = "Lessons whose timeslot or room changed since the previous version; only sent when requested")
+    private List<LessonAssignmentDTO> changedLessons;
+}
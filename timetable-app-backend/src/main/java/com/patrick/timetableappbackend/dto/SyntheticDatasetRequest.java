@@ -0,0 +1,39 @@
+package com.patrick.timetableappbackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Shape of a generated timetable problem. The same parameters and seed always generate the same problem.")
+public class SyntheticDatasetRequest {
+    @Schema(description = "Seed of the random choices", example = "42")
+    private long seed = 42L;
+    @Schema(description = "Number of series (e.g. all students of one year and specialization), they attend the courses together", example = "4")
+    private int series = 4;
+    @Schema(description = "Number of student groups in every series, they attend seminars, laboratories and projects on their own", example = "4")
+    private int groupsPerSeries = 4;
+    @Schema(description = "Number of lessons of every student group", example = "12")
+    private int lessonsPerGroup = 12;
+    @Schema(description = "Number of teachers", example = "24")
+    private int teachers = 24;
+    @Schema(description = "Number of rooms, about a fifth of them lecture halls that fit a whole series", example = "12")
+    private int rooms = 12;
+    @Schema(description = "Number of buildings the rooms are spread over", example = "2")
+    private int buildings = 2;
+    @Schema(description = "Number of teaching days, starting on Monday", example = "5")
+    private int days = 5;
+    @Schema(description = "Number of timeslots on every day", example = "6")
+    private int timeslotsPerDay = 6;
+    @Schema(description = "Length of every timeslot and lesson in minutes, a whole number of hours", example = "120")
+    private int timeslotMinutes = 120;
+    @Schema(type = "string", description = "Start of the first timeslot of every day", example = "08:00")
+    private LocalTime dayStart = LocalTime.of(8, 0);
+    @Schema(description = "Share of the teachers with preferred timeslots, between 0 and 1", example = "0.3")
+    private double preferenceDensity = 0.3;
+}
@@ -0,0 +1,24 @@
+package com.patrick.timetableappbackend.dto;
+
+import com.patrick.timetableappbackend.model.Timetable;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of terminating a solving job.")
+public class TerminationDTO {
+    @Schema(description = "ID of the solving job", example = "2f1c7a9e-5b0d-4a8e-9c53-0d7f3b1e6a42")
+    private String jobId;
+    @Schema(description = "Version of the returned solution", example = "42")
+    private long version;
+    @Schema(description = "Whether the solver stopped within the timeout; if not, the returned solution is the latest published one and may still be improved", example = "true")
+    private boolean terminated;
+    @Schema(description = "Milliseconds between the termination request and the final best solution, or the time waited if it timed out", example = "120")
+    private long terminationMillis;
+    @Schema(description = "Final best solution of the job")
+    private Timetable timetable;
+}
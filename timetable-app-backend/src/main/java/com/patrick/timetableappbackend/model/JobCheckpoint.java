@@ -0,0 +1,69 @@
+package com.patrick.timetableappbackend.model;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Last checkpointed best solution of a solving job, so the job can be resumed after a restart.
+ * Rows of finished jobs are deleted; every row found at startup belongs to an interrupted job.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_id", nullable = false, unique = true, updatable = false)
+    private String jobId;
+    private Long solutionVersion;
+    private String score;
+    // solving time spent by the job so far, over all the runs it was resumed in
+    private Long elapsedMillis;
+    // total solving time the job is allowed
+    private Long spentLimitMillis;
+    private Instant checkpointedAt;
+    // JSON of the SolverOverrides the job was started with, null for none
+    @Column(length = 1000)
+    private String overrides;
+    @Enumerated(EnumType.STRING)
+    private SolvePriority priority;
+    // comma separated LocalSearchAlgorithm names of a portfolio job, null for a job with a single solver
+    private String portfolio;
+
+    // gzipped JSON of the Timetable
+    @Basic(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    private byte[] solution;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        JobCheckpoint that = (JobCheckpoint) o;
+        return jobId != null && Objects.equals(jobId, that.jobId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,72 @@
+package com.patrick.timetableappbackend.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps the string keys compared by the constraints (series, group, subject, building) of one problem to dense int ids,
+ * so joiners, filters and group-by keys compare ints instead of hashing strings in the score loop.
+ * <p>
+ * Instances are built by {@link Timetable#normalizeKeys()} and belong to that timetable and its planning clones only,
+ * like {@link TeacherAvailability}, so the ids go away with the problem. Within a problem ids are never reused:
+ * keys brought in by problem changes get new ones.
+ */
+public final class KeyInterner {
+
+    /** Cached id of a key that has not been resolved yet. */
+    public static final int UNRESOLVED = 0;
+    /** Id of a {@code null} key. */
+    public static final int NULL_KEY = -1;
+
+    private final Ids series = new Ids();
+    private final Ids groups = new Ids();
+    private final Ids subjects = new Ids();
+    private final Ids buildings = new Ids();
+
+    public int seriesIdOf(String series) {
+        return this.series.idOf(series);
+    }
+
+    public int groupIdOf(String group) {
+        return groups.idOf(group);
+    }
+
+    public int subjectIdOf(String subject) {
+        return subjects.idOf(subject);
+    }
+
+    public int buildingIdOf(String building) {
+        return buildings.idOf(building);
+    }
+
+    /**
+     * @return the number of distinct keys of every kind together
+     */
+    public int size() {
+        return series.ids.size() + groups.ids.size() + subjects.ids.size() + buildings.ids.size();
+    }
+
+    /**
+     * @return the error for an id read before {@link Timetable#normalizeKeys()} resolved it
+     */
+    static IllegalStateException unresolved(String key, String owner, Long ownerId) {
+        return new IllegalStateException("The " + key + " of " + owner + " (" + ownerId + ") has no id, "
+                + "normalize the keys of its timetable before scoring it.");
+    }
+
+    private static final class Ids {
+
+        // concurrent: problem changes add keys on the solver thread while clones are read elsewhere
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger lastId = new AtomicInteger(UNRESOLVED);
+
+        private int idOf(String key) {
+            if (key == null) {
+                return NULL_KEY;
+            }
+            Integer id = ids.get(key);
+            return id != null ? id : ids.computeIfAbsent(key, k -> lastId.incrementAndGet());
+        }
+    }
+}
@@ -21,7 +21,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Transient;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -29,7 +29,6 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.Hibernate;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -37,10 +36,8 @@ import java.util.Objects;
 @PlanningEntity(difficultyComparatorClass = LessonStrengthComparator.class)
 @Getter
 @Setter
-@ToString(exclude = {"timetable"})
+@ToString(exclude = {"timetable", "subjectId", "sportLesson"})
 @Entity
-@Builder
-@AllArgsConstructor
 @NoArgsConstructor
 public class Lesson {
 
@@ -52,6 +49,13 @@ public class Lesson {
 
     private String subject;
 
+    // id of the subject within its problem, set by Timetable#normalizeKeys
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int subjectId;
+
     @ManyToOne(cascade = {CascadeType.MERGE})
     @JoinColumn(name = "teacher_id")
     private Teacher teacher;
@@ -69,7 +73,6 @@ public class Lesson {
     private int duration;
 
     @PlanningPin
-    @Builder.Default
     private boolean pinned = false;
 
     @JsonIdentityReference
@@ -88,6 +91,27 @@ public class Lesson {
     @Transient
     private Timetable timetable;
 
+    // sport/non-sport classification of the subject, computed once per solve by RoomEligibility
+    @JsonIgnore
+    @Transient
+    private Boolean sportLesson;
+
+    @Builder
+    public Lesson(Long id, String subject, Teacher teacher, StudentGroup studentGroup, LessonType lessonType, Year year,
+                  int duration, boolean pinned, Timeslot timeslot, Room room, Timetable timetable) {
+        this.id = id;
+        this.subject = subject;
+        this.teacher = teacher;
+        this.studentGroup = studentGroup;
+        this.lessonType = lessonType;
+        this.year = year;
+        this.duration = duration;
+        this.pinned = pinned;
+        this.timeslot = timeslot;
+        this.room = room;
+        this.timetable = timetable;
+    }
+
     public Lesson(long id, String subject, StudentGroup studentGroup){
         this.id = id;
         this.subject = subject;
@@ -169,6 +193,48 @@ public class Lesson {
         this.room = room;
     }
 
+    /**
+     * Planning clone: copies the assignment and shares every problem fact with the original.
+     *
+     * @param original the lesson to copy
+     * @param timetable the cloned timetable the copy belongs to
+     */
+    public Lesson(Lesson original, Timetable timetable) {
+        this.id = original.id;
+        this.subject = original.subject;
+        this.subjectId = original.subjectId;
+        this.teacher = original.teacher;
+        this.studentGroup = original.studentGroup;
+        this.lessonType = original.lessonType;
+        this.year = original.year;
+        this.duration = original.duration;
+        this.pinned = original.pinned;
+        this.timeslot = original.timeslot;
+        this.room = original.room;
+        this.sportLesson = original.sportLesson;
+        this.timetable = timetable;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+        this.subjectId = KeyInterner.UNRESOLVED;
+    }
+
+    /**
+     * @return the id of the subject within the problem
+     * @throws IllegalStateException if the keys of the problem were not normalized
+     */
+    public int getSubjectId() {
+        if (subjectId == KeyInterner.UNRESOLVED) {
+            throw KeyInterner.unresolved("subject", "lesson", id);
+        }
+        return subjectId;
+    }
+
+    void resolveKeys(KeyInterner keys) {
+        subjectId = keys.subjectIdOf(subject);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -187,11 +253,34 @@ public class Lesson {
         if (this.timetable == null || this.timetable.getTimeslots() == null) {
             return new ArrayList<>(List.of());
         }
-        return this.timetable.getTimeslots().stream().filter(this::matchesTimeslot).toList();
+        // shared, precomputed list of the timeslots that match this lesson's duration
+        return this.timetable.getTimeslotsWithDuration(duration);
     }
 
-    private boolean matchesTimeslot(Timeslot timeslot) {
-        var timeslotDuration = Duration.between(timeslot.getStartTime(), timeslot.getEndTime());
-        return (timeslotDuration.abs().toHours() == duration);
+    /**
+     * @return the shared, precomputed list of rooms that fit this lesson's group size and sport classification
+     */
+    @JsonIgnore
+    @ValueRangeProvider
+    public List<Room> getPossibleRooms() {
+        if (this.timetable == null || this.timetable.getRooms() == null) {
+            return new ArrayList<>(List.of());
+        }
+        return this.timetable.getRoomEligibility().roomsFor(this);
+    }
+
+    /**
+     * @return true if the teacher has preferred timeslots and the assigned timeslot fits none of them
+     */
+    @JsonIgnore
+    public boolean isOutsidePreferredTimeslots() {
+        if (this.timetable != null && this.timetable.getTeacherAvailability() != null) {
+            return this.timetable.getTeacherAvailability().isOutsidePreferredTimeslots(teacher, timeslot);
+        }
+        // timetable not prepared for solving (e.g. constraint verification): scan the preferred windows
+        if (!teacher.hasPreferredTimeslots()) {
+            return false;
+        }
+        return !TeacherAvailability.fitsAnyPreferredTimeslot(teacher.getPreferredTimeslots(), timeslot);
     }
 }
@@ -2,13 +2,15 @@ package com.patrick.timetableappbackend.model;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,8 +25,6 @@ import java.util.Objects;
 @Setter
 @ToString
 @Entity
-@Builder
-@AllArgsConstructor
 @NoArgsConstructor
 public class Room {
 
@@ -37,6 +37,22 @@ public class Room {
     private Long capacity;
     private String building;
 
+    // id of the building within its problem, set by Timetable#normalizeKeys
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int buildingId;
+
+    @Builder
+    public Room(Long id, String name, Long capacity, String building) {
+        this.id = id;
+        this.name = name;
+        this.capacity = capacity;
+        this.building = building;
+    }
+
     public Room(long id, String name){
         this.id = id;
         this.name = name;
@@ -48,6 +64,26 @@ public class Room {
         this.capacity = capacity;
     }
 
+    public void setBuilding(String building) {
+        this.building = building;
+        this.buildingId = KeyInterner.UNRESOLVED;
+    }
+
+    /**
+     * @return the id of the building within the problem
+     * @throws IllegalStateException if the keys of the problem were not normalized
+     */
+    public int getBuildingId() {
+        if (buildingId == KeyInterner.UNRESOLVED) {
+            throw KeyInterner.unresolved("building", "room", id);
+        }
+        return buildingId;
+    }
+
+    void resolveKeys(KeyInterner keys) {
+        buildingId = keys.buildingIdOf(building);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
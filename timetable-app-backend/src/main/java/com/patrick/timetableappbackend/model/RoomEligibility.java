@@ -0,0 +1,102 @@
+package com.patrick.timetableappbackend.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-problem lookup of the rooms a lesson may be assigned to.
+ * <p>
+ * Rooms are classified once as sport or non-sport rooms. A lesson may only use rooms of its own kind
+ * whose capacity fits its student group. The lists are shared by every lesson of the same kind and group size.
+ * When no room satisfies both rules, the capacity rule is dropped first, then the sport rule,
+ * so a lesson never ends up with an empty value range; {@code capacityRoomConflict} still penalizes the result.
+ */
+public final class RoomEligibility {
+
+    private final SportKeywords sportKeywords;
+    private final List<Room> allRooms;
+    private final List<Room> sportRooms;
+    private final List<Room> otherRooms;
+    private final Map<Long, List<Room>> sportRoomsByGroupSize = new HashMap<>();
+    private final Map<Long, List<Room>> otherRoomsByGroupSize = new HashMap<>();
+    private final boolean pruned;
+
+    private RoomEligibility(SportKeywords sportKeywords, List<Room> allRooms, boolean pruned) {
+        this.sportKeywords = sportKeywords;
+        this.pruned = pruned;
+        this.allRooms = List.copyOf(allRooms);
+        this.sportRooms = allRooms.stream().filter(sportKeywords::isSportRoom).toList();
+        this.otherRooms = allRooms.stream().filter(room -> !sportKeywords.isSportRoom(room)).toList();
+    }
+
+    /**
+     * @param rooms the rooms of the problem
+     * @param lessons the lessons of the problem, whose room lists are computed up front
+     */
+    public static RoomEligibility of(List<Room> rooms, Collection<Lesson> lessons, SportKeywords sportKeywords) {
+        RoomEligibility eligibility = new RoomEligibility(sportKeywords, rooms, true);
+        for (Lesson lesson : lessons) {
+            boolean sportLesson = sportKeywords.isSportLesson(lesson);
+            lesson.setSportLesson(sportLesson);
+            eligibility.byGroupSize(sportLesson).computeIfAbsent(groupSize(lesson),
+                    size -> eligibility.computeRooms(sportLesson, size));
+        }
+        return eligibility;
+    }
+
+    /**
+     * Offers every lesson every room, as before the value ranges were pruned. Only the sport classification of the
+     * lessons is computed, for the benchmark that compares the pruned value ranges with the sport move filters.
+     */
+    public static RoomEligibility unpruned(List<Room> rooms, Collection<Lesson> lessons, SportKeywords sportKeywords) {
+        for (Lesson lesson : lessons) {
+            lesson.setSportLesson(sportKeywords.isSportLesson(lesson));
+        }
+        return new RoomEligibility(sportKeywords, rooms, false);
+    }
+
+    /**
+     * @return the immutable list of rooms the lesson may be assigned to
+     */
+    public List<Room> roomsFor(Lesson lesson) {
+        if (!pruned) {
+            return allRooms;
+        }
+        boolean sportLesson = lesson.getSportLesson() != null
+                ? lesson.getSportLesson()
+                : sportKeywords.isSportLesson(lesson);
+        List<Room> rooms = byGroupSize(sportLesson).get(groupSize(lesson));
+        // lessons added after the lookup was built (problem changes) are computed on demand
+        return rooms != null ? rooms : computeRooms(sportLesson, groupSize(lesson));
+    }
+
+    public SportKeywords getSportKeywords() {
+        return sportKeywords;
+    }
+
+    private Map<Long, List<Room>> byGroupSize(boolean sportLesson) {
+        return sportLesson ? sportRoomsByGroupSize : otherRoomsByGroupSize;
+    }
+
+    private List<Room> computeRooms(boolean sportLesson, long groupSize) {
+        List<Room> sameKind = sportLesson ? sportRooms : otherRooms;
+        List<Room> fitting = sameKind.stream().filter(room -> fits(room, groupSize)).toList();
+        if (!fitting.isEmpty()) {
+            return fitting;
+        }
+        return sameKind.isEmpty() ? allRooms : sameKind;
+    }
+
+    private static boolean fits(Room room, long groupSize) {
+        return room.getCapacity() == null || room.getCapacity() >= groupSize;
+    }
+
+    private static long groupSize(Lesson lesson) {
+        if (lesson.getStudentGroup() == null || lesson.getStudentGroup().getNumberOfStudents() == null) {
+            return 0L;
+        }
+        return lesson.getStudentGroup().getNumberOfStudents();
+    }
+}
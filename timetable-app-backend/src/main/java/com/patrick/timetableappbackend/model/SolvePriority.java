@@ -0,0 +1,5 @@
+package com.patrick.timetableappbackend.model;
+
+public enum SolvePriority {
+    LOW, NORMAL, HIGH
+}
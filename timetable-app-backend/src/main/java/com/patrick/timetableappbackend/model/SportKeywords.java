@@ -0,0 +1,49 @@
+package com.patrick.timetableappbackend.model;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keywords that classify a lesson subject as a sport lesson and a room name as a sport room.
+ * Keywords match whole words, ignoring case, so a short keyword like "PE" does not match "Operating Systems".
+ */
+public final class SportKeywords {
+
+    public static final SportKeywords DEFAULT = new SportKeywords(
+            List.of("Sport", "Educatie Fizica", "Educație Fizică", "Physical Education", "PE"),
+            List.of("Sala de Sport", "Gym", "Sports Hall"));
+
+    private final Pattern lessonPattern;
+    private final Pattern roomPattern;
+
+    public SportKeywords(List<String> lessonKeywords, List<String> roomKeywords) {
+        this.lessonPattern = compile(lessonKeywords);
+        this.roomPattern = compile(roomKeywords);
+    }
+
+    public boolean isSportLesson(Lesson lesson) {
+        return matches(lessonPattern, lesson.getSubject());
+    }
+
+    public boolean isSportRoom(Room room) {
+        return matches(roomPattern, room.getName());
+    }
+
+    private static boolean matches(Pattern pattern, String text) {
+        return pattern != null && text != null && pattern.matcher(text).find();
+    }
+
+    private static Pattern compile(List<String> keywords) {
+        List<String> nonBlank = keywords == null ? List.of() : keywords.stream()
+                .filter(keyword -> keyword != null && !keyword.isBlank())
+                .map(String::strip)
+                .toList();
+        if (nonBlank.isEmpty()) {
+            return null;
+        }
+        String alternatives = nonBlank.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        return Pattern.compile("\\b(?:" + alternatives + ")\\b",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.patrick.timetableappbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -7,7 +8,8 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,8 +23,6 @@ import java.util.Objects;
 @Setter
 @ToString
 @Entity
-@Builder
-@AllArgsConstructor
 @NoArgsConstructor
 public class StudentGroup {
 
@@ -38,6 +38,30 @@ public class StudentGroup {
     private SemiGroup semiGroup;
     private Long numberOfStudents;
 
+    // ids of the series and group within their problem, set by Timetable#normalizeKeys
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int seriesId;
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int groupId;
+
+    @Builder
+    public StudentGroup(Long id, Year year, String name, String studentGroup, SemiGroup semiGroup, Long numberOfStudents) {
+        this.id = id;
+        this.year = year;
+        this.name = name;
+        this.studentGroup = studentGroup;
+        this.semiGroup = semiGroup;
+        this.numberOfStudents = numberOfStudents;
+    }
+
     public StudentGroup(Long id, String name, Long numberOfStudents) {
         this.id = id;
         this.name = name;
@@ -52,6 +76,43 @@ public class StudentGroup {
         this.numberOfStudents = numberOfStudents;
     }
 
+    public void setName(String name) {
+        this.name = name;
+        this.seriesId = KeyInterner.UNRESOLVED;
+    }
+
+    public void setStudentGroup(String studentGroup) {
+        this.studentGroup = studentGroup;
+        this.groupId = KeyInterner.UNRESOLVED;
+    }
+
+    /**
+     * @return the id of the series ({@link #getName()}) within the problem
+     * @throws IllegalStateException if the keys of the problem were not normalized
+     */
+    public int getSeriesId() {
+        if (seriesId == KeyInterner.UNRESOLVED) {
+            throw KeyInterner.unresolved("series", "student group", id);
+        }
+        return seriesId;
+    }
+
+    /**
+     * @return the id of the group ({@link #getStudentGroup()}) within the problem
+     * @throws IllegalStateException if the keys of the problem were not normalized
+     */
+    public int getGroupId() {
+        if (groupId == KeyInterner.UNRESOLVED) {
+            throw KeyInterner.unresolved("group", "student group", id);
+        }
+        return groupId;
+    }
+
+    void resolveKeys(KeyInterner keys) {
+        seriesId = keys.seriesIdOf(name);
+        groupId = keys.groupIdOf(studentGroup);
+    }
+
     //should I add a @OneToMany/@ManyToMany relationship with Lessons and make it optional?
 
     @Override
@@ -0,0 +1,73 @@
+package com.patrick.timetableappbackend.model;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-problem lookup of the timeslots that fit inside each teacher's preferred windows.
+ * <p>
+ * For every teacher with preferences, bit {@link Timeslot#getIndex()} is set when that timeslot lies inside one of
+ * the preferred windows, so checking a lesson is a single bit test. Instances are built by
+ * {@link Timetable#prepareForSolving()} and belong to that timetable only, so concurrent jobs never see each other's
+ * (or stale) preferences.
+ */
+public final class TeacherAvailability {
+
+    private final Map<Long, BitSet> preferredTimeslotsByTeacherId;
+
+    private TeacherAvailability(Map<Long, BitSet> preferredTimeslotsByTeacherId) {
+        this.preferredTimeslotsByTeacherId = preferredTimeslotsByTeacherId;
+    }
+
+    /**
+     * @param timeslots the timeslots of the problem, already indexed by their position
+     * @param teachers the teachers of the problem; the first teacher seen with a given id wins
+     */
+    public static TeacherAvailability of(List<Timeslot> timeslots, Collection<Teacher> teachers) {
+        Map<Long, BitSet> preferredTimeslotsByTeacherId = new HashMap<>();
+        for (Teacher teacher : teachers) {
+            if (teacher == null || !teacher.hasPreferredTimeslots()
+                    || preferredTimeslotsByTeacherId.containsKey(teacher.getId())) {
+                continue;
+            }
+            BitSet preferred = new BitSet(timeslots.size());
+            for (Timeslot timeslot : timeslots) {
+                if (fitsAnyPreferredTimeslot(teacher.getPreferredTimeslots(), timeslot)) {
+                    preferred.set(timeslot.getIndex());
+                }
+            }
+            preferredTimeslotsByTeacherId.put(teacher.getId(), preferred);
+        }
+        return new TeacherAvailability(Collections.unmodifiableMap(preferredTimeslotsByTeacherId));
+    }
+
+    /**
+     * @return true if the teacher has preferences and the timeslot is outside all of them
+     */
+    public boolean isOutsidePreferredTimeslots(Teacher teacher, Timeslot timeslot) {
+        BitSet preferred = preferredTimeslotsByTeacherId.get(teacher.getId());
+        if (preferred == null) {
+            return false; // No preferences - no penalty
+        }
+        return !preferred.get(timeslot.getIndex());
+    }
+
+    /**
+     * Linear scan over the preferred windows, used to build the bitsets and for timetables that were never prepared.
+     */
+    public static boolean fitsAnyPreferredTimeslot(Set<TeacherTimeslot> preferredTimeslots, Timeslot timeslot) {
+        for (TeacherTimeslot preferred : preferredTimeslots) {
+            if (preferred.getDayOfWeek().equals(timeslot.getDayOfWeek()) &&
+                    timeslot.getStartTime().compareTo(preferred.getStartTime()) >= 0 &&
+                    timeslot.getEndTime().compareTo(preferred.getEndTime()) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
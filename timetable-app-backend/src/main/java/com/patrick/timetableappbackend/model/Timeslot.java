@@ -2,13 +2,16 @@ package com.patrick.timetableappbackend.model;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,11 +28,11 @@ import java.util.Objects;
 @Setter
 @ToString
 @Entity
-@Builder
-@AllArgsConstructor
 @NoArgsConstructor
 public class Timeslot{
 
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false, updatable = false)
@@ -39,10 +42,87 @@ public class Timeslot{
     private LocalTime startTime;
     private LocalTime endTime;
 
+    // Primitive timeline of the timeslot (minutes since Monday 00:00), derived from dayOfWeek/startTime/endTime.
+    // The constraints join and filter on these instead of allocating Duration objects in the score loop.
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private int dayIndex;
+
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private int startMinuteOfWeek;
+
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private int endMinuteOfWeek;
+
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private int durationInMinutes;
+
+    // Position of the timeslot in its timetable, assigned by Timetable#rebuildTimeslotIndex()
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private int index;
+
+    @Builder
+    public Timeslot(Long id, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.id = id;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        updateTimeline();
+    }
+
     public Timeslot(long id, DayOfWeek dayOfWeek, LocalTime startTime) {
         this(id, dayOfWeek, startTime, startTime.plusMinutes(120));
     }
 
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+        updateTimeline();
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+        updateTimeline();
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+        updateTimeline();
+    }
+
+    /**
+     * Whole hours between the start and the end of the timeslot (same truncation as {@code Duration.toHours()}).
+     */
+    @JsonIgnore
+    public int getDurationInHours() {
+        return durationInMinutes / 60;
+    }
+
+    // JPA uses field access, so the derived fields must also be computed after loading
+    @PostLoad
+    void updateTimeline() {
+        if (dayOfWeek == null || startTime == null || endTime == null) {
+            return;
+        }
+        int dayStart = (dayOfWeek.getValue() - 1) * MINUTES_PER_DAY;
+        this.dayIndex = dayOfWeek.getValue() - 1;
+        this.startMinuteOfWeek = dayStart + startTime.getHour() * 60 + startTime.getMinute();
+        this.endMinuteOfWeek = dayStart + endTime.getHour() * 60 + endTime.getMinute();
+        this.durationInMinutes = endMinuteOfWeek - startMinuteOfWeek;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
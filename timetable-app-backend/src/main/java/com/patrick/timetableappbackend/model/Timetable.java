@@ -5,17 +5,22 @@ import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionPrope
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
 import ai.timefold.solver.core.api.domain.solution.PlanningSolution;
 import ai.timefold.solver.core.api.domain.solution.ProblemFactCollectionProperty;
-import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.solver.SolverStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+import com.patrick.timetableappbackend.solver.TimetableSolutionCloner;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-@PlanningSolution
+@PlanningSolution(solutionCloner = TimetableSolutionCloner.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +32,7 @@ public class Timetable {
     // @ValueRangeProvider
     private List<Timeslot> timeslots;
     @ProblemFactCollectionProperty
-    @ValueRangeProvider
+    // rooms are offered per lesson, see Lesson#getPossibleRooms
     private List<Room> rooms;
     @PlanningEntityCollectionProperty
     private List<Lesson> lessons;
@@ -43,6 +48,39 @@ public class Timetable {
 
     private Long duration;
 
+    // Version of this best solution within its solving job, increases with every published solution
+    private Long solutionVersion;
+
+    // Timeslots grouped by their duration in hours, shared by every lesson with the same duration.
+    // Built once per solve, rebuilt when timeslots are added or removed.
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<Integer, List<Timeslot>> timeslotsByDuration;
+
+    // Preferred timeslots of every teacher as bitsets over the timeslot indexes, scoped to this problem
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TeacherAvailability teacherAvailability;
+
+    // Rooms each lesson may use, pruned by capacity and sport classification, scoped to this problem
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private RoomEligibility roomEligibility;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SportKeywords sportKeywords = SportKeywords.DEFAULT;
+
+    // Ids of the series, group, subject and building keys, scoped to this problem and shared with its clones
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private KeyInterner keyInterner;
+
     public Timetable(HardMediumSoftScore score) {
         this.score = score;
     }
@@ -73,4 +111,148 @@ public class Timetable {
         this.timetableConstraintConfiguration = timetableConstraintConfiguration;
         this.duration = duration;
     }
+
+    public void setTimeslots(List<Timeslot> timeslots) {
+        this.timeslots = timeslots;
+        this.timeslotsByDuration = null;
+        this.teacherAvailability = null;
+    }
+
+    public void setRooms(List<Room> rooms) {
+        this.rooms = rooms;
+        this.roomEligibility = null;
+    }
+
+    public void setSportKeywords(SportKeywords sportKeywords) {
+        this.sportKeywords = sportKeywords;
+        this.roomEligibility = null;
+    }
+
+    /**
+     * Same as {@link #prepareForSolving()}, classifying sport lessons and rooms with the given keywords.
+     */
+    public void prepareForSolving(SportKeywords sportKeywords) {
+        this.sportKeywords = sportKeywords;
+        prepareForSolving();
+    }
+
+    /**
+     * Links every lesson back to this timetable and builds the lookup structures used by the value range providers.
+     * Must be called before the timetable is handed over to the solver.
+     */
+    public void prepareForSolving() {
+        if (lessons != null) {
+            lessons.forEach(lesson -> lesson.setTimetable(this));
+        }
+        normalizeKeys();
+        rebuildTimeslotIndex();
+        rebuildRoomEligibility();
+    }
+
+    /**
+     * Gives the series, group, subject and building keys of every room and lesson their id within this problem,
+     * so the score calculation only reads cached ints. Must run again after those keys were renamed.
+     */
+    public void normalizeKeys() {
+        if (rooms != null) {
+            for (Room room : rooms) {
+                room.resolveKeys(getKeyInterner());
+            }
+        }
+        if (lessons != null) {
+            lessons.forEach(this::normalizeKeys);
+        }
+    }
+
+    /**
+     * Gives the keys of a lesson, its student group and its room their id within this problem,
+     * e.g. for a lesson a problem change adds.
+     */
+    public void normalizeKeys(Lesson lesson) {
+        KeyInterner keys = getKeyInterner();
+        lesson.resolveKeys(keys);
+        if (lesson.getStudentGroup() != null) {
+            lesson.getStudentGroup().resolveKeys(keys);
+        }
+        if (lesson.getRoom() != null) {
+            lesson.getRoom().resolveKeys(keys);
+        }
+    }
+
+    public KeyInterner getKeyInterner() {
+        KeyInterner keys = keyInterner;
+        if (keys == null) {
+            keys = new KeyInterner();
+            keyInterner = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Re-indexes the timeslots and rebuilds the duration index and the teacher availability,
+     * e.g. after a problem change added or removed timeslots.
+     */
+    public void rebuildTimeslotIndex() {
+        if (timeslots == null) {
+            this.timeslotsByDuration = Map.of();
+            this.teacherAvailability = null;
+            return;
+        }
+        for (int i = 0; i < timeslots.size(); i++) {
+            timeslots.get(i).setIndex(i);
+        }
+        this.timeslotsByDuration = timeslots.stream()
+                .collect(Collectors.collectingAndThen(
+                        Collectors.groupingBy(Timetable::durationInHours,
+                                Collectors.collectingAndThen(Collectors.toList(), List::copyOf)),
+                        Map::copyOf));
+        rebuildTeacherAvailability();
+    }
+
+    /**
+     * Rebuilds the teacher availability bitsets, e.g. after lessons with new teachers were added.
+     */
+    public void rebuildTeacherAvailability() {
+        if (timeslots == null || lessons == null) {
+            this.teacherAvailability = null;
+            return;
+        }
+        this.teacherAvailability = TeacherAvailability.of(timeslots, lessons.stream().map(Lesson::getTeacher).toList());
+    }
+
+    /**
+     * Reclassifies the rooms and lessons and recomputes the rooms each lesson may use,
+     * e.g. after rooms were added or removed.
+     */
+    public void rebuildRoomEligibility() {
+        this.roomEligibility = RoomEligibility.of(rooms == null ? List.of() : rooms,
+                lessons == null ? List.of() : lessons,
+                sportKeywords == null ? SportKeywords.DEFAULT : sportKeywords);
+    }
+
+    public RoomEligibility getRoomEligibility() {
+        RoomEligibility eligibility = roomEligibility;
+        if (eligibility == null) {
+            rebuildRoomEligibility();
+            eligibility = roomEligibility;
+        }
+        return eligibility;
+    }
+
+    /**
+     * @param hours the duration of a lesson
+     * @return the immutable list of timeslots that last exactly {@code hours}
+     */
+    public List<Timeslot> getTimeslotsWithDuration(int hours) {
+        Map<Integer, List<Timeslot>> index = timeslotsByDuration;
+        if (index == null) {
+            rebuildTimeslotIndex();
+            index = timeslotsByDuration;
+        }
+        return index.getOrDefault(hours, List.of());
+    }
+
+    private static int durationInHours(Timeslot timeslot) {
+        return Math.abs(timeslot.getDurationInMinutes()) / 60;
+    }
 }
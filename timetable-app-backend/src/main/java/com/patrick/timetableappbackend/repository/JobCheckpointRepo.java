@@ -0,0 +1,18 @@
+package com.patrick.timetableappbackend.repository;
+
+import com.patrick.timetableappbackend.dto.JobCheckpointDTO;
+import com.patrick.timetableappbackend.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface JobCheckpointRepo extends JpaRepository<JobCheckpoint, String> {
+
+    // without the solution payload
+    @Query("SELECT new com.patrick.timetableappbackend.dto.JobCheckpointDTO(" +
+            "c.jobId, c.solutionVersion, c.score, c.elapsedMillis, c.spentLimitMillis, c.checkpointedAt) " +
+            "FROM JobCheckpoint c " +
+            "ORDER BY c.checkpointedAt")
+    List<JobCheckpointDTO> findAllSummaries();
+}
@@ -0,0 +1,18 @@
+package com.patrick.timetableappbackend.repository;
+
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+
+import java.util.Collection;
+
+/**
+ * Bulk writes of lesson assignments, bypassing the entity lifecycle. Mixed into {@link LessonRepo}.
+ */
+public interface LessonAssignmentRepo {
+
+    /**
+     * Sets the timeslot and room of every given lesson with batched JDBC updates.
+     *
+     * @return how many lessons were updated; lessons that no longer exist are skipped
+     */
+    int updateAssignments(Collection<LessonAssignmentDTO> assignments);
+}
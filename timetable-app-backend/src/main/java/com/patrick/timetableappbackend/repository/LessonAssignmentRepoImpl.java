@@ -0,0 +1,42 @@
+package com.patrick.timetableappbackend.repository;
+
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collection;
+
+public class LessonAssignmentRepoImpl implements LessonAssignmentRepo {
+
+    private static final String UPDATE_ASSIGNMENT_SQL = "UPDATE lesson SET timeslot_id = ?, room_id = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public LessonAssignmentRepoImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int updateAssignments(Collection<LessonAssignmentDTO> assignments) {
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_ASSIGNMENT_SQL, assignments, batchSize, (ps, assignment) -> {
+            ps.setObject(1, assignment.getTimeslotId(), Types.BIGINT);
+            ps.setObject(2, assignment.getRoomId(), Types.BIGINT);
+            ps.setLong(3, assignment.getLessonId());
+        });
+        int updated = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                // drivers may report SUCCESS_NO_INFO (-2) instead of the row count; EXECUTE_FAILED (-3) is no update
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+}
@@ -1,5 +1,6 @@
 package com.patrick.timetableappbackend.repository;
 
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
 import com.patrick.timetableappbackend.model.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,7 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.util.Optional;
 
-public interface LessonRepo extends JpaRepository<Lesson,Long> {
+public interface LessonRepo extends JpaRepository<Lesson,Long>, LessonAssignmentRepo {
     public List<Lesson> findAllByOrderByIdAsc();
     @Query("SELECT DISTINCT l FROM Lesson l " +
             "LEFT JOIN FETCH l.teacher t " +
@@ -26,4 +27,9 @@ public interface LessonRepo extends JpaRepository<Lesson,Long> {
             "LEFT JOIN FETCH l.room " +
             "WHERE l.id = :id")
     Optional<Lesson> findLessonsById(Long id);
+
+    @Query("SELECT new com.patrick.timetableappbackend.dto.LessonAssignmentDTO(l.id, t.id, r.id) FROM Lesson l " +
+            "LEFT JOIN l.timeslot t " +
+            "LEFT JOIN l.room r")
+    List<LessonAssignmentDTO> findAllAssignments();
 }
@@ -2,10 +2,15 @@ package com.patrick.timetableappbackend.repository;
 
 import com.patrick.timetableappbackend.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Set;
 
 public interface RoomRepo extends JpaRepository<Room, Long> {
 
     public List<Room> findAllByOrderByIdAsc();
+
+    @Query("SELECT r.id FROM Room r")
+    public Set<Long> findAllIds();
 }
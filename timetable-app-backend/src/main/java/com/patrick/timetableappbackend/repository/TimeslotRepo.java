@@ -2,10 +2,15 @@ package com.patrick.timetableappbackend.repository;
 
 import com.patrick.timetableappbackend.model.Timeslot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Set;
 
 public interface TimeslotRepo extends JpaRepository<com.patrick.timetableappbackend.model.Timeslot, Long> {
     public List<Timeslot> findAllByOrderByIdAsc();
 
+    @Query("SELECT t.id FROM Timeslot t")
+    public Set<Long> findAllIds();
+
 }
@@ -0,0 +1,129 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lesson assignments of the published best solutions of one job, as flat id arrays, plus the deltas of the
+ * most recent versions, so clients can catch up with only the lessons that moved.
+ */
+class AssignmentHistory {
+
+    // timeslot or room id of an unassigned lesson
+    static final long UNASSIGNED = Long.MIN_VALUE;
+
+    private final int maxDeltas;
+    private final Deque<Delta> deltas = new ArrayDeque<>();
+    private long version = -1L;
+    private HardMediumSoftScore score;
+    private long[] lessonIds = new long[0];
+    private long[] timeslotIds = new long[0];
+    private long[] roomIds = new long[0];
+
+    AssignmentHistory(int maxDeltas) {
+        this.maxDeltas = maxDeltas;
+    }
+
+    /**
+     * Records a newly published solution.
+     *
+     * @return the lessons whose timeslot or room changed since the previously recorded version
+     */
+    synchronized List<LessonAssignmentDTO> record(long newVersion, Timetable solution) {
+        List<Lesson> lessons = solution.getLessons() == null ? List.of() : solution.getLessons();
+        long[] newLessonIds = new long[lessons.size()];
+        long[] newTimeslotIds = new long[lessons.size()];
+        long[] newRoomIds = new long[lessons.size()];
+        for (int i = 0; i < lessons.size(); i++) {
+            Lesson lesson = lessons.get(i);
+            newLessonIds[i] = lesson.getId();
+            newTimeslotIds[i] = lesson.getTimeslot() == null ? UNASSIGNED : lesson.getTimeslot().getId();
+            newRoomIds[i] = lesson.getRoom() == null ? UNASSIGNED : lesson.getRoom().getId();
+        }
+
+        boolean sameLessons = Arrays.equals(lessonIds, newLessonIds);
+        List<LessonAssignmentDTO> changed = new ArrayList<>();
+        for (int i = 0; i < newLessonIds.length; i++) {
+            if (!sameLessons || timeslotIds[i] != newTimeslotIds[i] || roomIds[i] != newRoomIds[i]) {
+                changed.add(assignment(newLessonIds[i], newTimeslotIds[i], newRoomIds[i]));
+            }
+        }
+        if (sameLessons && version >= 0) {
+            deltas.addLast(new Delta(newVersion, changed));
+            while (deltas.size() > maxDeltas) {
+                deltas.removeFirst();
+            }
+        } else {
+            // first version, or lessons were added or removed: older versions can only catch up with a full snapshot
+            deltas.clear();
+        }
+        this.version = newVersion;
+        this.score = solution.getScore();
+        this.lessonIds = newLessonIds;
+        this.timeslotIds = newTimeslotIds;
+        this.roomIds = newRoomIds;
+        return changed;
+    }
+
+    /**
+     * @return the lessons that changed after {@code sinceVersion}, or a full snapshot if that version is no longer
+     * (or was never) covered by the retained deltas
+     */
+    synchronized Diff since(long sinceVersion) {
+        if (sinceVersion == version) {
+            return new Diff(version, score, false, List.of());
+        }
+        Delta oldest = deltas.peekFirst();
+        if (sinceVersion > version || oldest == null || sinceVersion < oldest.version() - 1) {
+            List<LessonAssignmentDTO> all = new ArrayList<>(lessonIds.length);
+            for (int i = 0; i < lessonIds.length; i++) {
+                all.add(assignment(lessonIds[i], timeslotIds[i], roomIds[i]));
+            }
+            return new Diff(version, score, true, all);
+        }
+        Map<Long, LessonAssignmentDTO> merged = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            if (delta.version() > sinceVersion) {
+                delta.changed().forEach(assignment -> merged.put(assignment.getLessonId(), assignment));
+            }
+        }
+        return new Diff(version, score, false, new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * @return the assignment of the last recorded version, as the flat arrays kept here; the arrays are replaced and
+     * never changed by later versions, so they stay valid
+     */
+    synchronized Snapshot snapshot() {
+        return new Snapshot(version, score, lessonIds, timeslotIds, roomIds);
+    }
+
+    private static LessonAssignmentDTO assignment(long lessonId, long timeslotId, long roomId) {
+        return new LessonAssignmentDTO(lessonId,
+                timeslotId == UNASSIGNED ? null : timeslotId,
+                roomId == UNASSIGNED ? null : roomId);
+    }
+
+    record Diff(long version, HardMediumSoftScore score, boolean fullSnapshot, List<LessonAssignmentDTO> lessons) {
+    }
+
+    /**
+     * @param timeslotIds {@link #UNASSIGNED} for a lesson without a timeslot
+     * @param roomIds {@link #UNASSIGNED} for a lesson without a room
+     */
+    record Snapshot(long version, HardMediumSoftScore score, long[] lessonIds, long[] timeslotIds, long[] roomIds) {
+    }
+
+    private record Delta(long version, List<LessonAssignmentDTO> changed) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.BenchmarkJobDTO;
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.BenchmarkStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs benchmarks as jobs on a dedicated executor, so a benchmark never holds a request thread.
+ * <p>
+ * At most {@code timetable.benchmark.concurrency} benchmarks run at once and at most
+ * {@code timetable.benchmark.queue-capacity} wait for their turn; beyond that, submissions are rejected.
+ * The last {@code timetable.benchmark.history-size} finished jobs are kept for their status and report URL.
+ */
+@Component
+@Slf4j
+public class BenchmarkJobs implements DisposableBean {
+
+    private final int historySize;
+    private final ThreadPoolExecutor executor;
+    // insertion-ordered, the eldest finished jobs are dropped first
+    private final Map<String, BenchmarkJob> jobs = new LinkedHashMap<>();
+
+    public BenchmarkJobs(@Value("${timetable.benchmark.concurrency:1}") int concurrency,
+                         @Value("${timetable.benchmark.queue-capacity:10}") int queueCapacity,
+                         @Value("${timetable.benchmark.history-size:50}") int historySize) {
+        this.historySize = historySize;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "benchmark-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a benchmark.
+     *
+     * @param expectedDuration how long the benchmark should take once it runs, for the progress estimate; null if unknown
+     * @param benchmark runs the benchmark and returns the URL of its report
+     * @throws TimetableSolverException 503 if the queue is full
+     */
+    public synchronized BenchmarkJobDTO submit(String source, Duration expectedDuration, Supplier<String> benchmark) {
+        BenchmarkJob job = new BenchmarkJob(UUID.randomUUID().toString(), source, expectedDuration);
+        try {
+            job.future = executor.submit(() -> run(job, benchmark));
+        } catch (RejectedExecutionException e) {
+            throw new TimetableSolverException(job.jobId, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many benchmarks queued (" + executor.getQueue().size() + "), try again later.");
+        }
+        jobs.put(job.jobId, job);
+        return toDTO(job);
+    }
+
+    /**
+     * @return the state of a job
+     * @throws TimetableSolverException 404 if the job is unknown
+     */
+    public synchronized BenchmarkJobDTO get(String jobId) {
+        return toDTO(find(jobId));
+    }
+
+    /**
+     * @return every known job, oldest first
+     */
+    public synchronized List<BenchmarkJobDTO> getAll() {
+        return jobs.values().stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * @return completes with the final state of the job once it completed, failed or was cancelled
+     */
+    public synchronized CompletableFuture<BenchmarkJobDTO> whenFinished(String jobId) {
+        BenchmarkJob job = find(jobId);
+        return job.finished.thenApply(ignored -> {
+            synchronized (this) {
+                return toDTO(job);
+            }
+        });
+    }
+
+    /**
+     * Cancels a queued job, or interrupts a running one. The benchmarker stops at its next interruption check,
+     * the solver benchmark that is running may still finish first.
+     *
+     * @throws TimetableSolverException 409 if the job already finished
+     */
+    public synchronized BenchmarkJobDTO cancel(String jobId) {
+        BenchmarkJob job = find(jobId);
+        if (job.finished.isDone()) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Benchmark already " + job.status + ".");
+        }
+        job.cancelled = true;
+        if (job.status == BenchmarkStatus.QUEUED) {
+            job.future.cancel(false);
+            executor.purge();
+            finish(job, BenchmarkStatus.CANCELLED, null, null);
+        } else {
+            job.future.cancel(true);
+        }
+        return toDTO(job);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(BenchmarkJob job, Supplier<String> benchmark) {
+        synchronized (this) {
+            if (job.cancelled) {
+                return;
+            }
+            job.status = BenchmarkStatus.RUNNING;
+            job.startedAt = Instant.now();
+        }
+        log.info("Running benchmark job ({}) on {} data.", job.jobId, job.source);
+        try {
+            String reportUrl = benchmark.get();
+            synchronized (this) {
+                finish(job, job.cancelled ? BenchmarkStatus.CANCELLED : BenchmarkStatus.COMPLETED, reportUrl, null);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (job.cancelled) {
+                    finish(job, BenchmarkStatus.CANCELLED, null, null);
+                } else {
+                    log.error("Benchmark job ({}) failed.", job.jobId, e);
+                    finish(job, BenchmarkStatus.FAILED, null, String.valueOf(e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void finish(BenchmarkJob job, BenchmarkStatus status, String reportUrl, String error) {
+        job.status = status;
+        job.reportUrl = reportUrl;
+        job.error = error;
+        job.finishedAt = Instant.now();
+        log.info("Benchmark job ({}) {}.", job.jobId, status);
+        dropOldFinishedJobs();
+        job.finished.complete(null);
+    }
+
+    private void dropOldFinishedJobs() {
+        long finishedCount = jobs.values().stream().filter(job -> job.finishedAt != null).count();
+        Iterator<BenchmarkJob> iterator = jobs.values().iterator();
+        while (finishedCount > historySize && iterator.hasNext()) {
+            if (iterator.next().finishedAt != null) {
+                iterator.remove();
+                finishedCount--;
+            }
+        }
+    }
+
+    private BenchmarkJob find(String jobId) {
+        BenchmarkJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No benchmark job found.");
+        }
+        return job;
+    }
+
+    private BenchmarkJobDTO toDTO(BenchmarkJob job) {
+        return new BenchmarkJobDTO(job.jobId, job.source, job.status, progress(job), queuePosition(job),
+                job.submittedAt, job.startedAt, job.finishedAt, job.reportUrl, job.error);
+    }
+
+    private Double progress(BenchmarkJob job) {
+        return switch (job.status) {
+            case QUEUED -> 0.0;
+            case COMPLETED -> 1.0;
+            case FAILED, CANCELLED -> null;
+            case RUNNING -> job.expectedDuration == null || job.expectedDuration.isZero() ? null
+                    // an estimate, it never claims to be done before the report exists
+                    : Math.min(0.99, (double) Duration.between(job.startedAt, Instant.now()).toMillis()
+                    / job.expectedDuration.toMillis());
+        };
+    }
+
+    private int queuePosition(BenchmarkJob job) {
+        if (job.status != BenchmarkStatus.QUEUED) {
+            return 0;
+        }
+        List<BenchmarkJob> queued = new ArrayList<>();
+        for (BenchmarkJob other : jobs.values()) {
+            if (other.status == BenchmarkStatus.QUEUED) {
+                queued.add(other);
+            }
+        }
+        return queued.indexOf(job) + 1;
+    }
+
+    private static final class BenchmarkJob {
+
+        private final String jobId;
+        private final String source;
+        private final Duration expectedDuration;
+        private final Instant submittedAt = Instant.now();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private Future<?> future;
+        private BenchmarkStatus status = BenchmarkStatus.QUEUED;
+        private boolean cancelled;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String reportUrl;
+        private String error;
+
+        private BenchmarkJob(String jobId, String source, Duration expectedDuration) {
+            this.jobId = jobId;
+            this.source = source;
+            this.expectedDuration = expectedDuration;
+        }
+    }
+}
@@ -3,23 +3,37 @@ package com.patrick.timetableappbackend.service;
 import ai.timefold.solver.benchmark.api.PlannerBenchmark;
 import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
 import ai.timefold.solver.benchmark.config.PlannerBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.SolverBenchmarkConfig;
+import ai.timefold.solver.benchmark.impl.DefaultPlannerBenchmark;
 import ai.timefold.solver.benchmark.impl.aggregator.BenchmarkAggregator;
 import ai.timefold.solver.benchmark.impl.aggregator.swingui.BenchmarkAggregatorFrame;
 import ai.timefold.solver.benchmark.impl.result.BenchmarkResultIO;
 import ai.timefold.solver.benchmark.impl.result.PlannerBenchmarkResult;
 import ai.timefold.solver.benchmark.impl.result.SingleBenchmarkResult;
 import ai.timefold.solver.benchmark.impl.result.SolverBenchmarkResult;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.patrick.timetableappbackend.dto.BenchmarkJobDTO;
+import com.patrick.timetableappbackend.dto.BenchmarkRequest;
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.SportKeywords;
 import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+import com.patrick.timetableappbackend.utils.SyntheticTimetableGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -27,32 +41,76 @@ import java.util.Map;
 public class BenchmarkService {
 
     private final TimetableService timetableService;
+    private final SportKeywords sportKeywords;
+    private final BenchmarkJobs benchmarkJobs;
     private final BenchmarkResultIO benchmarkResultIO = new BenchmarkResultIO();
 
+    @Value("${timetable.dataset.max-lessons:100000}")
+    private long maxDatasetLessons;
+
+    /**
+     * Queues a benchmark run on the benchmark executor and returns right away.
+     * Database data is read now, so the benchmark runs on the data as it was when it was submitted.
+     *
+     * @param request where the timetable comes from, {@code imported} uses the timetable of the request,
+     *                {@code synthetic} generates one problem per lesson count of the request
+     */
+    public BenchmarkJobDTO submitBenchmark(BenchmarkRequest request) {
+        Duration expectedDuration = expectedDuration(PlannerBenchmarkConfig.createFromXmlResource("benchmarkConfig.xml"));
+        if ("synthetic".equals(request.getSource())) {
+            List<SyntheticDatasetRequest> specs = request.getLessonCounts() == null || request.getLessonCounts().isEmpty()
+                    ? List.of(datasetSpec(request.getDataset(), null))
+                    : request.getLessonCounts().stream().map(lessons -> datasetSpec(request.getDataset(), lessons)).toList();
+            TimetableConstraintConfiguration weights = timetableService.getConstraintWeights();
+            // generated when the job runs, the seed makes them the same as now
+            return benchmarkJobs.submit("synthetic",
+                    expectedDuration == null ? null : expectedDuration.multipliedBy(specs.size()),
+                    () -> runBenchmark(specs.stream().map(spec -> generate(spec, weights)).toArray(Timetable[]::new)));
+        }
+        if ("imported".equals(request.getSource())) {
+            if (request.getTimetable() == null) {
+                throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, "An imported benchmark needs a timetable.");
+            }
+            Timetable timetable = request.getTimetable();
+            return benchmarkJobs.submit("imported", expectedDuration, () -> runBenchmark(timetable));
+        }
+        Timetable timetable = timetableService.getTimetableData();
+        return benchmarkJobs.submit("database", expectedDuration, () -> runBenchmark(timetable));
+    }
+
+    /**
+     * Generates a synthetic problem with the constraint weights saved through the constraints API.
+     *
+     * @param lessons scales the problem to about this many lessons, null keeps the size of {@code request}
+     */
+    public Timetable generateDataset(SyntheticDatasetRequest request, Integer lessons) {
+        return generate(datasetSpec(request, lessons), timetableService.getConstraintWeights());
+    }
+
+    public BenchmarkJobDTO getBenchmarkJob(String jobId) {
+        return benchmarkJobs.get(jobId);
+    }
+
+    public List<BenchmarkJobDTO> getBenchmarkJobs() {
+        return benchmarkJobs.getAll();
+    }
+
+    public CompletableFuture<BenchmarkJobDTO> whenBenchmarkFinished(String jobId) {
+        return benchmarkJobs.whenFinished(jobId);
+    }
+
+    public BenchmarkJobDTO cancelBenchmark(String jobId) {
+        return benchmarkJobs.cancel(jobId);
+    }
+
     /**
      * Runs a benchmark on the timetable data fetched from the database.
      *
      * @return URL to access the benchmark report
      */
     public String runBenchmarkOnDatabase() {
-//        PlannerBenchmarkConfig benchmarkConfig = PlannerBenchmarkConfig.createFromXmlResource("benchmarkConfig.xml");
-        //         PlannerBenchmarkResult benchmarkResult = new PlannerBenchmarkResult();
         log.info("Starting benchmark on database timetable data...");
-        Timetable timetableSolution = timetableService.getTimetableData();
-        timetableSolution.getLessons().forEach(lesson -> lesson.setTimetable(timetableSolution));
-        PlannerBenchmarkFactory benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource("benchmarkConfig.xml");
-        log.info("PlannerBenchmarkFactory created from XML resource.");
-        PlannerBenchmark plannerBenchmark = benchmarkFactory.buildPlannerBenchmark(timetableSolution);
-        File file = plannerBenchmark.benchmark();
-
-        // Find the actual benchmark result directory (with timestamp)
-        File actualBenchmarkDir = findMostRecentBenchmarkDirectory(file);
-        log.info("Benchmark completed. Results stored in directory: {}", actualBenchmarkDir.getAbsolutePath());
-//        String indexPath = actualBenchmarkDir.getAbsolutePath() + "/index.html";
-        String directoryName = actualBenchmarkDir.getName();
-
-//        return "http://localhost:8200/api/v1/benchmarks/report?path=" + URLEncoder.encode(indexPath, StandardCharsets.UTF_8);
-        return "http://localhost:8200/api/v1/benchmarks/report/" + directoryName + "/index.html";
+        return runBenchmark(timetableService.getTimetableData());
     }
 
     /**
@@ -63,18 +121,25 @@ public class BenchmarkService {
      */
     public String runBenchmarkOnImported(Timetable solution) {
         log.info("Starting benchmark on imported timetable data...");
-        solution.getLessons().forEach(lesson -> lesson.setTimetable(solution));
+        return runBenchmark(solution);
+    }
+
+    private String runBenchmark(Timetable... solutions) {
+        for (Timetable solution : solutions) {
+            solution.prepareForSolving(sportKeywords);
+        }
         PlannerBenchmarkFactory benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource("benchmarkConfig.xml");
         log.info("PlannerBenchmarkFactory created from XML resource.");
-        PlannerBenchmark plannerBenchmark = benchmarkFactory.buildPlannerBenchmark(solution);
-        File file = plannerBenchmark.benchmark();
-        
-        // Find the actual benchmark result directory (with timestamp)
-        File actualBenchmarkDir = findMostRecentBenchmarkDirectory(file);
+        PlannerBenchmark plannerBenchmark = benchmarkFactory.buildPlannerBenchmark(solutions);
+        plannerBenchmark.benchmark();
+
+        // The report directory (with timestamp) of this run; benchmark() only returns their parent, and with
+        // concurrent benchmark jobs the most recent directory in it may belong to another job
+        File actualBenchmarkDir = ((DefaultPlannerBenchmark) plannerBenchmark).getPlannerBenchmarkResult()
+                .getBenchmarkReportDirectory();
         log.info("Benchmark completed. Results stored in directory: {}", actualBenchmarkDir.getAbsolutePath());
         String directoryName = actualBenchmarkDir.getName();
 
-//        return actualBenchmarkDir.getAbsolutePath() + "/index.html";
         return "http://localhost:8200/api/v1/benchmarks/report/" + directoryName + "/index.html";
     }
 
@@ -220,15 +285,47 @@ public class BenchmarkService {
         return directories;
     }
 
-    private File findMostRecentBenchmarkDirectory(File parentDir) {
-        File[] directories = parentDir.listFiles(File::isDirectory);
-        if (directories == null || directories.length == 0) {
-            throw new RuntimeException("No benchmark directories found in " + parentDir.getAbsolutePath());
+    /**
+     * @return the warm-up plus every solver benchmark run one after the other, or null if a run has no time limit
+     */
+    static Duration expectedDuration(PlannerBenchmarkConfig benchmarkConfig) {
+        SolverBenchmarkConfig inherited = benchmarkConfig.getInheritedSolverBenchmarkConfig();
+        TerminationConfig termination = inherited == null || inherited.getSolverConfig() == null
+                ? null : inherited.getSolverConfig().getTerminationConfig();
+        Long runMillis = termination == null ? null : termination.calculateTimeMillisSpentLimit();
+        if (runMillis == null) {
+            return null;
         }
+        int solverBenchmarks = benchmarkConfig.getSolverBenchmarkConfigList() == null ? 1
+                : benchmarkConfig.getSolverBenchmarkConfigList().size();
+        int subSingleCount = inherited.getSubSingleCount() == null ? 1 : inherited.getSubSingleCount();
+        long warmUpMillis = Objects.requireNonNullElse(benchmarkConfig.getWarmUpMillisecondsSpentLimit(), 0L)
+                + Objects.requireNonNullElse(benchmarkConfig.getWarmUpSecondsSpentLimit(), 0L) * 1000L
+                + Objects.requireNonNullElse(benchmarkConfig.getWarmUpMinutesSpentLimit(), 0L) * 60_000L;
+        return Duration.ofMillis(warmUpMillis + runMillis * solverBenchmarks * subSingleCount);
+    }
 
-        // Sort directories by last modified time (most recent first)
-        Arrays.sort(directories, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+    private SyntheticDatasetRequest datasetSpec(SyntheticDatasetRequest request, Integer lessons) {
+        SyntheticDatasetRequest spec = request == null ? new SyntheticDatasetRequest() : request;
+        try {
+            if (lessons != null) {
+                spec = SyntheticTimetableGenerator.scaledTo(spec, lessons);
+            }
+            SyntheticTimetableGenerator.validate(spec);
+        } catch (IllegalArgumentException e) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        long lessonCount = SyntheticTimetableGenerator.lessonCount(spec);
+        if (lessonCount > maxDatasetLessons) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, "The dataset would have " + lessonCount
+                    + " lessons, more than timetable.dataset.max-lessons (" + maxDatasetLessons + ").");
+        }
+        return spec;
+    }
 
-        return directories[0]; // Return the most recent directory
+    private static Timetable generate(SyntheticDatasetRequest spec, TimetableConstraintConfiguration weights) {
+        Timetable timetable = SyntheticTimetableGenerator.generate(spec);
+        timetable.setTimetableConstraintConfiguration(weights);
+        return timetable;
     }
 }
@@ -0,0 +1,215 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.model.Timetable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sits between the solver's best solution callbacks and whoever stores or streams the solutions.
+ * <p>
+ * Bursts of best solutions are coalesced: at most {@code timetable.solver.max-publishes-per-second} solutions are
+ * published per job, a solution that arrives too early replaces the one still waiting, and the waiting solution is
+ * flushed as soon as the interval has passed. The final best solution is always published. Every published solution
+ * gets the next version number of its job, so clients can tell whether they have seen it.
+ */
+@Component
+@Slf4j
+public class BestSolutionPublisher implements DisposableBean {
+
+    private final long minIntervalNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "best-solution-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BestSolutionPublisher(@Value("${timetable.solver.max-publishes-per-second:2}") double maxPublishesPerSecond) {
+        this.minIntervalNanos = maxPublishesPerSecond <= 0 ? 0L : (long) (TimeUnit.SECONDS.toNanos(1) / maxPublishesPerSecond);
+    }
+
+    /**
+     * Opens the channel of a new solving job.
+     *
+     * @param jobId the job the solutions belong to, used for logging
+     * @param sink receives every published solution with its version, one at a time in increasing version order,
+     *             without the channel's lock held
+     */
+    public Channel open(String jobId, SolutionSink sink) {
+        return open(jobId, 0L, sink);
+    }
+
+    /**
+     * Opens the channel of a job that already published solutions before, e.g. when it is resumed.
+     *
+     * @param startVersion the last version published for the job, the next solution gets {@code startVersion + 1}
+     */
+    public Channel open(String jobId, long startVersion, SolutionSink sink) {
+        return new Channel(jobId, startVersion, sink);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface SolutionSink {
+
+        void publish(Timetable solution, long version);
+    }
+
+    /**
+     * Publishing state of one job. Version 0 is the submitted problem, the first published solution is version 1.
+     */
+    public final class Channel {
+
+        private final String jobId;
+        private final SolutionSink sink;
+        private final Object lock = new Object();
+        private Timetable pending;
+        private ScheduledFuture<?> scheduledFlush;
+        private long lastPublishNanos;
+        private long version;
+        private boolean closed;
+        // a thread is handing solutions to the sink, outside the lock
+        private boolean publishing;
+
+        private Channel(String jobId, long startVersion, SolutionSink sink) {
+            this.jobId = jobId;
+            this.sink = sink;
+            this.version = startVersion;
+            this.lastPublishNanos = System.nanoTime() - minIntervalNanos;
+        }
+
+        /**
+         * Publishes the solution now if the rate allows it, otherwise keeps it until the next flush,
+         * replacing any solution that was still waiting.
+         */
+        public void offer(Timetable solution) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                pending = solution;
+                if (publishing) {
+                    // the publishing thread picks it up once the sink returns
+                    return;
+                }
+                long waitNanos = lastPublishNanos + minIntervalNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    if (scheduledFlush == null) {
+                        scheduledFlush = scheduler.schedule(this::flush, waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                    return;
+                }
+                publishing = true;
+            }
+            drain();
+        }
+
+        /**
+         * Publishes the final best solution immediately and closes the channel.
+         * Returns once the sink received it, after any solution that was being published.
+         */
+        public void complete(Timetable finalSolution) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                cancelFlush();
+                pending = finalSolution;
+                closed = true;
+                try {
+                    // the publishing thread may publish the final solution itself before it returns
+                    while (publishing) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    // the publishing thread still publishes the final solution
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (pending == null) {
+                    return;
+                }
+                publishing = true;
+            }
+            drain();
+        }
+
+        /**
+         * Drops any waiting solution and closes the channel, e.g. when solving failed.
+         */
+        public void cancel() {
+            synchronized (lock) {
+                cancelFlush();
+                pending = null;
+                closed = true;
+            }
+        }
+
+        public long getVersion() {
+            synchronized (lock) {
+                return version;
+            }
+        }
+
+        private void flush() {
+            synchronized (lock) {
+                scheduledFlush = null;
+                if (closed || pending == null || publishing) {
+                    return;
+                }
+                publishing = true;
+            }
+            drain();
+        }
+
+        /**
+         * Hands the pending solutions to the sink until none is due, without holding the lock: the sink stores,
+         * checkpoints and streams the solution, and a slow subscriber must not hold up offers or the completion.
+         * Only the thread that set {@code publishing} runs it, so the versions reach the sink in order.
+         */
+        private void drain() {
+            while (true) {
+                Timetable solution;
+                long solutionVersion;
+                synchronized (lock) {
+                    long waitNanos = lastPublishNanos + minIntervalNanos - System.nanoTime();
+                    // once closed, the pending solution is the final one, which is not rate limited
+                    if (pending == null || (!closed && waitNanos > 0)) {
+                        if (pending != null && scheduledFlush == null) {
+                            scheduledFlush = scheduler.schedule(this::flush, waitNanos, TimeUnit.NANOSECONDS);
+                        }
+                        publishing = false;
+                        lock.notifyAll();
+                        return;
+                    }
+                    solution = pending;
+                    pending = null;
+                    lastPublishNanos = System.nanoTime();
+                    solutionVersion = ++version;
+                }
+                try {
+                    sink.publish(solution, solutionVersion);
+                } catch (RuntimeException e) {
+                    log.error("Failed publishing version {} of jobId ({}).", solutionVersion, jobId, e);
+                }
+            }
+        }
+
+        private void cancelFlush() {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+    }
+}
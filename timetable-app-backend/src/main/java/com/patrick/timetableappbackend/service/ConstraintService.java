@@ -16,6 +16,7 @@ import java.util.Optional;
 public class ConstraintService {
 
     private final ConstraintRepo constraintRepo;
+    private final TimetableService timetableService;
 
     @Transactional(readOnly = true)
     public List<ConstraintModel> getAllConstraints() {
@@ -38,13 +39,25 @@ public class ConstraintService {
 
     @Transactional
     public ConstraintModel updateConstraint(Long id, ConstraintModel updatedConstraintModel) {
-        return constraintRepo.findById(id)
+        return updateConstraint(id, updatedConstraintModel, null);
+    }
+
+    /**
+     * @param jobId a running solving job to reweight right away with the saved weights, or null
+     */
+    @Transactional
+    public ConstraintModel updateConstraint(Long id, ConstraintModel updatedConstraintModel, String jobId) {
+        ConstraintModel updated = constraintRepo.findById(id)
                 .map(existingConstraint -> {
                     existingConstraint.setDescription(updatedConstraintModel.getDescription());
                     existingConstraint.setWeight(updatedConstraintModel.getWeight());
                     return constraintRepo.save(existingConstraint);
                 })
                 .orElseThrow(() -> new RuntimeException("No constraint found with id " + id));
+        if (jobId != null) {
+            timetableService.reloadConstraintWeights(jobId);
+        }
+        return updated;
     }
 
     @Transactional
@@ -0,0 +1,17 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.model.Timetable;
+
+/**
+ * State of a solving job as seen by the REST API: its latest published solution or the exception it failed with.
+ */
+record Job(Timetable timetable, long version, AssignmentHistory history, Throwable exception) {
+
+    static Job ofTimetable(Timetable timetable, long version, AssignmentHistory history) {
+        return new Job(timetable, version, history, null);
+    }
+
+    static Job ofException(Throwable error) {
+        return new Job(null, 0L, null, error);
+    }
+}
@@ -0,0 +1,202 @@
+package com.patrick.timetableappbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patrick.timetableappbackend.dto.JobCheckpointDTO;
+import com.patrick.timetableappbackend.model.JobCheckpoint;
+import com.patrick.timetableappbackend.model.SolvePriority;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.repository.JobCheckpointRepo;
+import com.patrick.timetableappbackend.solver.LocalSearchAlgorithm;
+import com.patrick.timetableappbackend.solver.SolverOverrides;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Periodically writes the latest best solution of every solving job to the database,
+ * so jobs interrupted by a restart can be resumed from where they were.
+ * <p>
+ * Solutions are only handed over on the solver side; serializing and writing happens on a background thread
+ * every {@code timetable.checkpoint.interval}, keeping at most one pending checkpoint per job.
+ * Jobs still solving when the application shuts down keep their checkpoint, even though the solver
+ * terminates them on its way down.
+ */
+@Component
+@Slf4j
+public class JobCheckpointer implements DisposableBean {
+
+    private final JobCheckpointRepo jobCheckpointRepo;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ConcurrentMap<String, Checkpoint> pending = new ConcurrentHashMap<>();
+    private volatile boolean closing;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-checkpointer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobCheckpointer(JobCheckpointRepo jobCheckpointRepo,
+                           ObjectMapper objectMapper,
+                           @Value("${timetable.checkpoint.interval:5m}") Duration interval) {
+        this.jobCheckpointRepo = jobCheckpointRepo;
+        this.objectMapper = objectMapper;
+        this.enabled = !interval.isZero() && !interval.isNegative();
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Remembers the latest best solution of a job, it is written with the next flush.
+     *
+     * @param elapsedMillis solving time spent by the job so far, including the runs before a resume
+     * @param settings how the job was started, it is resumed the same way
+     */
+    public void offer(String jobId, Timetable solution, long version, long elapsedMillis, long spentLimitMillis,
+                      Settings settings) {
+        if (enabled) {
+            pending.put(jobId, new Checkpoint(solution, version, elapsedMillis, spentLimitMillis, settings));
+        }
+    }
+
+    /**
+     * Drops the checkpoint of a job that finished (or failed), it no longer needs resuming.
+     */
+    public synchronized void remove(String jobId) {
+        if (closing) {
+            // terminated by the shutdown, not finished: keep it resumable
+            return;
+        }
+        pending.remove(jobId);
+        if (enabled && jobCheckpointRepo.existsById(jobId)) {
+            jobCheckpointRepo.deleteById(jobId);
+        }
+    }
+
+    /**
+     * @return the checkpoints left by jobs that did not finish, oldest first
+     */
+    public List<JobCheckpointDTO> findAll() {
+        return jobCheckpointRepo.findAllSummaries();
+    }
+
+    /**
+     * @return the checkpointed state of a job, or null if it has none
+     */
+    public Checkpoint load(String jobId) {
+        return jobCheckpointRepo.findById(jobId).map(this::decode).orElse(null);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        closing = true;
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdownNow();
+        if (enabled && closing) {
+            // best solutions published while the solvers were terminated
+            flush();
+        }
+    }
+
+    synchronized void flush() {
+        for (String jobId : pending.keySet()) {
+            Checkpoint checkpoint = pending.remove(jobId);
+            if (checkpoint == null) {
+                continue;
+            }
+            try {
+                jobCheckpointRepo.save(encode(jobId, checkpoint));
+            } catch (RuntimeException e) {
+                // keep solving, the next best solution gets another chance
+                log.error("Failed checkpointing jobId ({}).", jobId, e);
+            }
+        }
+    }
+
+    JobCheckpoint encode(String jobId, Checkpoint checkpoint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, checkpoint.solution());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Settings settings = checkpoint.settings();
+        String overrides;
+        try {
+            overrides = settings.overrides().isEmpty() ? null : objectMapper.writeValueAsString(settings.overrides());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return JobCheckpoint.builder()
+                .jobId(jobId)
+                .solutionVersion(checkpoint.version())
+                .score(checkpoint.solution().getScore() == null ? null : checkpoint.solution().getScore().toString())
+                .elapsedMillis(checkpoint.elapsedMillis())
+                .spentLimitMillis(checkpoint.spentLimitMillis())
+                .checkpointedAt(Instant.now())
+                .overrides(overrides)
+                .priority(settings.priority())
+                .portfolio(settings.portfolio() == null ? null
+                        : String.join(",", settings.portfolio().stream().map(Enum::name).toList()))
+                .solution(bytes.toByteArray())
+                .build();
+    }
+
+    Checkpoint decode(JobCheckpoint jobCheckpoint) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(jobCheckpoint.getSolution()))) {
+            Timetable solution = objectMapper.readValue(in, Timetable.class);
+            // checkpoints written before the settings were kept resume with the defaults
+            Settings settings = new Settings(
+                    jobCheckpoint.getOverrides() == null ? SolverOverrides.NONE
+                            : objectMapper.readValue(jobCheckpoint.getOverrides(), SolverOverrides.class),
+                    jobCheckpoint.getPriority() == null ? SolvePriority.NORMAL : jobCheckpoint.getPriority(),
+                    jobCheckpoint.getPortfolio() == null ? null
+                            : Arrays.stream(jobCheckpoint.getPortfolio().split(",")).map(LocalSearchAlgorithm::valueOf).toList());
+            return new Checkpoint(solution, jobCheckpoint.getSolutionVersion(),
+                    jobCheckpoint.getElapsedMillis(), jobCheckpoint.getSpentLimitMillis(), settings);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Checkpoint(Timetable solution, long version, long elapsedMillis, long spentLimitMillis,
+                             Settings settings) {
+    }
+
+    /**
+     * How a job was started, so it resumes the same way.
+     *
+     * @param overrides the solver settings of the job, before the solve queue picked its move thread count
+     * @param portfolio the algorithms a portfolio job races, or null for a job with a single solver
+     */
+    public record Settings(SolverOverrides overrides, SolvePriority priority, List<LocalSearchAlgorithm> portfolio) {
+    }
+}
@@ -0,0 +1,531 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded registry of solving jobs.
+ * <p>
+ * Jobs that are still solving always stay in memory. Once finished, at most {@code timetable.jobs.max-resident} jobs
+ * are kept in memory; the least recently used ones beyond that are spilled to disk under
+ * {@code timetable.jobs.spill-directory} and reloaded transparently when they are requested again.
+ * Finished jobs that have not been accessed for {@code timetable.jobs.time-to-live} are removed for good.
+ * <p>
+ * A spilled job is only its lesson assignment as the flat id arrays of its {@link AssignmentHistory}. The problem
+ * it was solved on is written once, without assignments, to a file named by its content hash and shared by every
+ * spilled job of the same problem. Serializing and disk I/O happen outside the registry's lock, so spilling or
+ * reloading one job does not hold up the other jobs.
+ */
+@Component
+@Slf4j
+public class JobRegistry implements DisposableBean {
+
+    private static final String SPILL_FILE_SUFFIX = ".json.gz";
+    private static final String PROBLEM_DIRECTORY = "problems";
+
+    private final ObjectMapper objectMapper;
+    private final int maxResident;
+    private final long timeToLiveMillis;
+    private final int diffHistorySize;
+    private final Path spillDirectory;
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-registry-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // access-ordered, the eldest entry is the least recently used one
+    private final LinkedHashMap<String, ResidentJob> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // finished jobs being written to disk, served from memory until their file is complete
+    private final Map<String, Job> spilling = new HashMap<>();
+    // job id -> spill file of the jobs spilled to disk
+    private final Map<String, SpilledEntry> spilled = new HashMap<>();
+    // job id -> reload in progress, so concurrent requests for a spilled job read its file once
+    private final Map<String, CompletableFuture<Job>> loading = new HashMap<>();
+    // problem content hash -> number of spilled jobs sharing its file, guarded by itself instead of the registry
+    private final Map<String, Integer> problemReferences = new HashMap<>();
+    // a job spilled again gets a new file, so deleting its previous one cannot race with writing the next
+    private final AtomicLong spillSequence = new AtomicLong(System.currentTimeMillis());
+
+    public JobRegistry(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${timetable.jobs.max-resident:20}") int maxResident,
+                       @Value("${timetable.jobs.time-to-live:24h}") Duration timeToLive,
+                       @Value("${timetable.jobs.spill-directory:${java.io.tmpdir}/timetable-jobs}") Path spillDirectory,
+                       @Value("${timetable.diff.history-size:50}") int diffHistorySize) {
+        this.objectMapper = objectMapper;
+        this.maxResident = maxResident;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.spillDirectory = spillDirectory;
+        this.diffHistorySize = diffHistorySize;
+        indexSpilledJobs();
+        Gauge.builder("timetable.jobs.resident", this, JobRegistry::getResidentCount)
+                .description("Solving jobs held in memory")
+                .register(meterRegistry);
+        Gauge.builder("timetable.jobs.spilled", this, JobRegistry::getSpilledCount)
+                .description("Finished solving jobs spilled to disk")
+                .register(meterRegistry);
+        long cleanupPeriodMillis = Math.max(1000L, Math.min(timeToLiveMillis, TimeUnit.MINUTES.toMillis(1)));
+        cleaner.scheduleWithFixedDelay(this::removeExpired, cleanupPeriodMillis, cleanupPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stores the latest state of a job. A job that is not known yet is registered as solving.
+     */
+    public void put(String jobId, Job job) {
+        SpilledEntry replaced;
+        synchronized (this) {
+            ResidentJob residentJob = resident.get(jobId);
+            if (residentJob != null) {
+                residentJob.job = job;
+                residentJob.lastAccessMillis = System.currentTimeMillis();
+                return;
+            }
+            replaced = forget(jobId);
+            resident.put(jobId, new ResidentJob(job, false, System.currentTimeMillis()));
+        }
+        deleteSpilled(replaced);
+    }
+
+    /**
+     * @return the job, reloaded from disk if it was spilled, or null if the job is unknown or expired
+     */
+    public Job get(String jobId) {
+        CompletableFuture<Job> reload;
+        SpilledEntry entry = null;
+        synchronized (this) {
+            ResidentJob residentJob = resident.get(jobId);
+            if (residentJob != null) {
+                residentJob.lastAccessMillis = System.currentTimeMillis();
+                return residentJob.job;
+            }
+            Job beingSpilled = spilling.get(jobId);
+            if (beingSpilled != null) {
+                return beingSpilled;
+            }
+            reload = loading.get(jobId);
+            if (reload == null) {
+                entry = spilled.get(jobId);
+                if (entry == null) {
+                    return null;
+                }
+                reload = new CompletableFuture<>();
+                loading.put(jobId, reload);
+            }
+        }
+        if (entry == null) {
+            // another request is reloading it
+            return reload.join();
+        }
+
+        Job job = readSpilled(jobId, entry);
+        Job result;
+        boolean current;
+        List<Victim> victims = List.of();
+        synchronized (this) {
+            // false if the job was put again or removed while it was read
+            current = loading.remove(jobId, reload);
+            if (current) {
+                spilled.remove(jobId);
+                if (job != null) {
+                    resident.put(jobId, new ResidentJob(job, true, System.currentTimeMillis()));
+                    victims = pickVictims();
+                }
+                result = job;
+            } else {
+                ResidentJob residentJob = resident.get(jobId);
+                result = residentJob == null ? null : residentJob.job;
+            }
+        }
+        if (current) {
+            deleteSpilled(entry);
+        }
+        reload.complete(result);
+        spill(victims);
+        return result;
+    }
+
+    /**
+     * Marks a job as done solving, which makes it eligible for spilling and expiry.
+     */
+    public void finish(String jobId) {
+        List<Victim> victims;
+        synchronized (this) {
+            ResidentJob residentJob = resident.get(jobId);
+            if (residentJob == null) {
+                return;
+            }
+            residentJob.finished = true;
+            victims = pickVictims();
+        }
+        spill(victims);
+    }
+
+    /**
+     * Forgets a job, e.g. one the solve queue rejected.
+     */
+    public void remove(String jobId) {
+        SpilledEntry removed;
+        synchronized (this) {
+            resident.remove(jobId);
+            removed = forget(jobId);
+        }
+        deleteSpilled(removed);
+    }
+
+    public synchronized Collection<String> getJobIds() {
+        List<String> jobIds = new ArrayList<>(resident.keySet());
+        jobIds.addAll(spilling.keySet());
+        jobIds.addAll(spilled.keySet());
+        return jobIds;
+    }
+
+    public synchronized int getResidentCount() {
+        return resident.size() + spilling.size();
+    }
+
+    public synchronized int getSpilledCount() {
+        return spilled.size();
+    }
+
+    @Override
+    public void destroy() {
+        cleaner.shutdownNow();
+    }
+
+    void removeExpired() {
+        long expiredBefore = System.currentTimeMillis() - timeToLiveMillis;
+        List<SpilledEntry> expired = new ArrayList<>();
+        synchronized (this) {
+            resident.entrySet().removeIf(entry -> entry.getValue().finished && entry.getValue().lastAccessMillis < expiredBefore);
+            spilled.entrySet().removeIf(entry -> {
+                if (loading.containsKey(entry.getKey()) || entry.getValue().lastAccessMillis() >= expiredBefore) {
+                    return false;
+                }
+                expired.add(entry.getValue());
+                return true;
+            });
+        }
+        expired.forEach(this::deleteSpilled);
+    }
+
+    /**
+     * Drops the spilled state of a job that is put again or removed; a spill or reload in progress then leaves it be.
+     * Must hold the registry's lock.
+     *
+     * @return the spill file to delete, if any
+     */
+    private SpilledEntry forget(String jobId) {
+        spilling.remove(jobId);
+        loading.remove(jobId);
+        return spilled.remove(jobId);
+    }
+
+    /**
+     * Moves the least recently used finished jobs beyond {@code maxResident} out of the resident ones.
+     * Must hold the registry's lock; the victims are written by {@link #spill(List)} after releasing it.
+     */
+    private List<Victim> pickVictims() {
+        int finishedCount = (int) resident.values().stream().filter(residentJob -> residentJob.finished).count();
+        List<Victim> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, ResidentJob>> iterator = resident.entrySet().iterator();
+        while (finishedCount > maxResident && iterator.hasNext()) {
+            Map.Entry<String, ResidentJob> entry = iterator.next();
+            ResidentJob residentJob = entry.getValue();
+            if (!residentJob.finished) {
+                continue;
+            }
+            spilling.put(entry.getKey(), residentJob.job);
+            victims.add(new Victim(entry.getKey(), residentJob.job, residentJob.lastAccessMillis));
+            iterator.remove();
+            finishedCount--;
+        }
+        return victims;
+    }
+
+    private void spill(List<Victim> victims) {
+        for (Victim victim : victims) {
+            SpilledEntry entry = writeSpilled(victim);
+            boolean current;
+            synchronized (this) {
+                // false if the job was put again or removed while it was written
+                current = spilling.get(victim.jobId()) == victim.job();
+                if (current) {
+                    spilling.remove(victim.jobId());
+                }
+                if (current && entry != null) {
+                    spilled.put(victim.jobId(), entry);
+                }
+            }
+            if (!current) {
+                deleteSpilled(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the written spill file, or null if the job could not be written and is dropped
+     */
+    private SpilledEntry writeSpilled(Victim victim) {
+        Job job = victim.job();
+        String problemKey = null;
+        try {
+            SpilledJob spilledJob;
+            if (job.exception() != null) {
+                spilledJob = new SpilledJob(job.version(), null, null, null, null, null,
+                        String.valueOf(job.exception().getMessage()));
+            } else {
+                problemKey = writeProblem(job.timetable());
+                AssignmentHistory.Snapshot assignment = job.history().snapshot();
+                spilledJob = new SpilledJob(job.version(),
+                        assignment.score() == null ? null : assignment.score().toString(), problemKey,
+                        assignment.lessonIds(), assignment.timeslotIds(), assignment.roomIds(), null);
+            }
+            Path file = spillDirectory.resolve(victim.jobId() + "." + spillSequence.incrementAndGet() + SPILL_FILE_SUFFIX);
+            Files.createDirectories(spillDirectory);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                objectMapper.writeValue(out, spilledJob);
+            }
+            return new SpilledEntry(file, problemKey, victim.lastAccessMillis());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed spilling jobId ({}) to {}, dropping it.", victim.jobId(), spillDirectory, e);
+            releaseProblem(problemKey);
+            return null;
+        }
+    }
+
+    private Job readSpilled(String jobId, SpilledEntry entry) {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(entry.file()))) {
+            SpilledJob spilledJob = objectMapper.readValue(in, SpilledJob.class);
+            if (spilledJob.errorMessage() != null) {
+                return Job.ofException(new IllegalStateException(spilledJob.errorMessage()));
+            }
+            Timetable timetable = readProblem(spilledJob.problemKey());
+            assign(timetable, spilledJob);
+            timetable.setScore(spilledJob.score() == null ? null : HardMediumSoftScore.parseScore(spilledJob.score()));
+            timetable.setSolutionVersion(spilledJob.version());
+            // the diff history is not spilled: older versions get a full snapshot
+            AssignmentHistory history = new AssignmentHistory(diffHistorySize);
+            history.record(spilledJob.version(), timetable);
+            return Job.ofTimetable(timetable, spilledJob.version(), history);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed reloading spilled jobId ({}).", jobId, e);
+            return null;
+        }
+    }
+
+    private static void assign(Timetable timetable, SpilledJob spilledJob) {
+        Map<Long, Timeslot> timeslotsById = timetable.getTimeslots().stream()
+                .collect(Collectors.toMap(Timeslot::getId, Function.identity()));
+        Map<Long, Room> roomsById = timetable.getRooms().stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        Map<Long, Lesson> lessonsById = timetable.getLessons().stream()
+                .collect(Collectors.toMap(Lesson::getId, Function.identity()));
+        for (int i = 0; i < spilledJob.lessonIds().length; i++) {
+            Lesson lesson = lessonsById.get(spilledJob.lessonIds()[i]);
+            long timeslotId = spilledJob.timeslotIds()[i];
+            long roomId = spilledJob.roomIds()[i];
+            lesson.setTimeslot(timeslotId == AssignmentHistory.UNASSIGNED ? null : timeslotsById.get(timeslotId));
+            lesson.setRoom(roomId == AssignmentHistory.UNASSIGNED ? null : roomsById.get(roomId));
+        }
+    }
+
+    /**
+     * Writes the problem of a solution without its assignment, unless a spilled job of the same problem did already,
+     * and takes a reference on it.
+     *
+     * @return the content hash naming the problem file
+     */
+    private String writeProblem(Timetable solution) throws IOException {
+        ObjectNode problem = objectMapper.valueToTree(solution);
+        problem.remove(List.of("score", "solverStatus", "solutionVersion"));
+        for (JsonNode lesson : problem.path("lessons")) {
+            ((ObjectNode) lesson).putNull("timeslot");
+            ((ObjectNode) lesson).putNull("room");
+        }
+        byte[] json = objectMapper.writeValueAsBytes(problem);
+        String problemKey;
+        try {
+            problemKey = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java platform supports SHA-256.", e);
+        }
+        synchronized (problemReferences) {
+            Path file = problemFile(problemKey);
+            if (!Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                Path partial = file.resolveSibling(problemKey + ".partial");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                    out.write(json);
+                }
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            problemReferences.merge(problemKey, 1, Integer::sum);
+        }
+        return problemKey;
+    }
+
+    private Timetable readProblem(String problemKey) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(problemFile(problemKey)))) {
+            return objectMapper.readValue(in, Timetable.class);
+        }
+    }
+
+    /**
+     * Drops a reference on a problem file, deleting the file with the last one.
+     */
+    private void releaseProblem(String problemKey) {
+        if (problemKey == null) {
+            return;
+        }
+        synchronized (problemReferences) {
+            Integer references = problemReferences.get(problemKey);
+            if (references != null && references > 1) {
+                problemReferences.put(problemKey, references - 1);
+                return;
+            }
+            problemReferences.remove(problemKey);
+            try {
+                Files.deleteIfExists(problemFile(problemKey));
+            } catch (IOException e) {
+                log.warn("Failed deleting spilled problem ({}).", problemKey, e);
+            }
+        }
+    }
+
+    private void deleteSpilled(SpilledEntry entry) {
+        if (entry == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(entry.file());
+        } catch (IOException e) {
+            log.warn("Failed deleting spilled job file {}.", entry.file(), e);
+        }
+        releaseProblem(entry.problemKey());
+    }
+
+    private void indexSpilledJobs() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SPILL_FILE_SUFFIX)).forEach(this::indexSpilledJob);
+        } catch (IOException e) {
+            log.warn("Failed indexing spilled jobs in {}.", spillDirectory, e);
+        }
+        // problems no spilled job refers to anymore, e.g. left by a crash
+        Path problemDirectory = spillDirectory.resolve(PROBLEM_DIRECTORY);
+        if (!Files.isDirectory(problemDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(problemDirectory)) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(SPILL_FILE_SUFFIX)
+                        || !problemReferences.containsKey(fileName.substring(0, fileName.length() - SPILL_FILE_SUFFIX.length()))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed cleaning up spilled problems in {}.", problemDirectory, e);
+        }
+    }
+
+    private void indexSpilledJob(Path file) {
+        String fileName = file.getFileName().toString();
+        String jobId = fileName.substring(0, fileName.indexOf('.'));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            SpilledJob spilledJob = objectMapper.readValue(in, SpilledJob.class);
+            if (spilledJob.problemKey() == null && spilledJob.errorMessage() == null) {
+                throw new IOException("It is not a spilled job.");
+            }
+            if (spilledJob.problemKey() != null && !Files.exists(problemFile(spilledJob.problemKey()))) {
+                throw new IOException("Its problem (" + spilledJob.problemKey() + ") is missing.");
+            }
+            SpilledEntry entry = new SpilledEntry(file, spilledJob.problemKey(), Files.getLastModifiedTime(file).toMillis());
+            if (spilledJob.problemKey() != null) {
+                problemReferences.merge(spilledJob.problemKey(), 1, Integer::sum);
+            }
+            deleteSpilled(spilled.put(jobId, entry));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Dropping unreadable spilled job file {}.", file, e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException deleteException) {
+                log.warn("Failed deleting spilled job file {}.", file, deleteException);
+            }
+        }
+    }
+
+    private Path problemFile(String problemKey) {
+        return spillDirectory.resolve(PROBLEM_DIRECTORY).resolve(problemKey + SPILL_FILE_SUFFIX);
+    }
+
+    private static final class ResidentJob {
+
+        private Job job;
+        private boolean finished;
+        private long lastAccessMillis;
+
+        private ResidentJob(Job job, boolean finished, long lastAccessMillis) {
+            this.job = job;
+            this.finished = finished;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+
+    private record Victim(String jobId, Job job, long lastAccessMillis) {
+    }
+
+    private record SpilledEntry(Path file, String problemKey, long lastAccessMillis) {
+    }
+
+    /**
+     * On-disk form of a finished job: its assignment as parallel id arrays over the lessons of its problem file, see
+     * {@link AssignmentHistory.Snapshot}, or the message of the exception it failed with.
+     */
+    record SpilledJob(long version, String score, String problemKey, long[] lessonIds, long[] timeslotIds,
+                      long[] roomIds, String errorMessage) {
+    }
+}
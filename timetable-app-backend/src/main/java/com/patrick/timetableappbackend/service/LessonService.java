@@ -24,6 +24,7 @@ public class LessonService {
     private final StudentGroupRepo studentGroupRepo;
     private final TimeslotRepo timeslotRepo;
     private final RoomRepo roomRepo;
+    private final TimetableService timetableService;
 
     @Transactional(readOnly = true)
     public List<Lesson> getAllLessons() {
@@ -79,7 +80,15 @@ public class LessonService {
 
     @Transactional
     public Lesson updatePinning(Long id, boolean pinned, Long timeslotId, Long roomId) {
-        return lessonRepo.findById(id)
+        return updatePinning(id, pinned, timeslotId, roomId, null);
+    }
+
+    /**
+     * @param jobId a running solving job to re-plan right away with the new pinning, or null
+     */
+    @Transactional
+    public Lesson updatePinning(Long id, boolean pinned, Long timeslotId, Long roomId, String jobId) {
+        Lesson updated = lessonRepo.findById(id)
                 .map(lesson -> {
                     lesson.setPinned(pinned);
                     if (pinned) {
@@ -93,6 +102,10 @@ public class LessonService {
                     return lessonRepo.save(lesson);
                 })
                 .orElseThrow(() -> new RuntimeException("Lesson not found with id " + id));
+        if (jobId != null) {
+            timetableService.pinLesson(jobId, id, pinned, timeslotId, roomId);
+        }
+        return updated;
     }
 
     @Transactional
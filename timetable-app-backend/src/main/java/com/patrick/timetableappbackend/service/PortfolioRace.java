@@ -0,0 +1,98 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.LocalSearchAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scoreboard of a portfolio job, whose members solve the same problem with different local search algorithms.
+ * <p>
+ * The best solution of any member is the job's best solution. Once the grace period has passed, a member whose best
+ * score trails the leader's by more than the margin is given up on and stopped, freeing its cores.
+ */
+final class PortfolioRace {
+
+    private final HardMediumSoftScore margin;
+    private final long gracePeriodEndMillis;
+    private final Map<LocalSearchAlgorithm, HardMediumSoftScore> bestScores = new EnumMap<>(LocalSearchAlgorithm.class);
+    // members still solving and not given up on yet
+    private final Set<LocalSearchAlgorithm> contending;
+    private final Set<LocalSearchAlgorithm> solving;
+    private Timetable best;
+    private LocalSearchAlgorithm leader;
+
+    PortfolioRace(Collection<LocalSearchAlgorithm> members, HardMediumSoftScore margin, long gracePeriodEndMillis) {
+        this.margin = margin;
+        this.gracePeriodEndMillis = gracePeriodEndMillis;
+        this.contending = EnumSet.copyOf(members);
+        this.solving = EnumSet.copyOf(members);
+    }
+
+    /**
+     * Records a new best solution of a member.
+     *
+     * @return true if it is the best solution of the whole job so far
+     */
+    synchronized boolean offer(LocalSearchAlgorithm member, Timetable solution) {
+        bestScores.put(member, solution.getScore());
+        if (best != null && solution.getScore().compareTo(best.getScore()) <= 0) {
+            return false;
+        }
+        best = solution;
+        leader = member;
+        return true;
+    }
+
+    /**
+     * @return the members that fell behind the leader by more than the margin; each one is returned only once
+     */
+    synchronized List<LocalSearchAlgorithm> fallenBehind(long nowMillis) {
+        List<LocalSearchAlgorithm> fallenBehind = new ArrayList<>();
+        if (best == null || nowMillis < gracePeriodEndMillis) {
+            return fallenBehind;
+        }
+        for (LocalSearchAlgorithm member : contending) {
+            HardMediumSoftScore score = bestScores.get(member);
+            // members without a best solution yet are still constructing, nothing to compare
+            if (member != leader && score != null && score.add(margin).compareTo(best.getScore()) < 0) {
+                fallenBehind.add(member);
+            }
+        }
+        fallenBehind.forEach(contending::remove);
+        return fallenBehind;
+    }
+
+    /**
+     * Records that a member stopped solving.
+     *
+     * @param finalSolution its final best solution, null if it failed
+     * @return true if it was the last member solving
+     */
+    synchronized boolean finish(LocalSearchAlgorithm member, Timetable finalSolution) {
+        if (finalSolution != null) {
+            offer(member, finalSolution);
+        }
+        contending.remove(member);
+        solving.remove(member);
+        return solving.isEmpty();
+    }
+
+    /**
+     * @return the best solution of any member, null if none published one yet
+     */
+    synchronized Timetable getBest() {
+        return best;
+    }
+
+    synchronized LocalSearchAlgorithm getLeader() {
+        return leader;
+    }
+}
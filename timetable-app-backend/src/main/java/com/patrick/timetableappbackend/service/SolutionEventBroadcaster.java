@@ -0,0 +1,164 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.SolutionUpdateDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the server-sent event subscribers of every solving job and pushes best solution updates to them.
+ */
+@Component
+@Slf4j
+public class SolutionEventBroadcaster {
+
+    static final String UPDATE_EVENT = "solution";
+    static final String ERROR_EVENT = "error";
+
+    private final long emitterTimeoutMillis;
+    private final ConcurrentMap<String, List<Subscriber>> subscribersByJobId = new ConcurrentHashMap<>();
+    // the last event of every recently finished job, for subscribers that read its status before it finished
+    private final ConcurrentMap<String, LastEvent> lastEventByJobId = new ConcurrentHashMap<>();
+
+    public SolutionEventBroadcaster(@Value("${timetable.events.timeout-millis:900000}") long emitterTimeoutMillis) {
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * @param current the current state of the job, sent right away so the subscriber starts in sync
+     * @param includeAssignments whether the subscriber wants the changed lesson assignments of every update
+     * @param solving false if the job already finished; the emitter is then completed after the current state
+     */
+    public SseEmitter subscribe(String jobId, SolutionUpdateDTO current, boolean includeAssignments, boolean solving) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, includeAssignments);
+        LastEvent[] lastEvent = new LastEvent[1];
+        if (solving) {
+            // register before sending the current state so no update is lost in between;
+            // clients skip updates whose version they have already seen
+            List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+            // atomic with the removal in complete(): either complete() sees this subscriber,
+            // or this sees the last event complete() left behind
+            List<Subscriber> registered = subscribersByJobId.compute(jobId, (id, existing) -> {
+                LastEvent finished = lastEventByJobId.get(id);
+                if (existing == null && finished != null) {
+                    // the job finished after the caller read its status
+                    lastEvent[0] = finished;
+                    return null;
+                }
+                List<Subscriber> list = existing == null ? subscribers : existing;
+                list.add(subscriber);
+                return list;
+            });
+            if (registered != null) {
+                emitter.onCompletion(() -> registered.remove(subscriber));
+                emitter.onTimeout(() -> registered.remove(subscriber));
+                emitter.onError(e -> registered.remove(subscriber));
+            }
+        }
+        if (!send(subscriber, UPDATE_EVENT, current)) {
+            return emitter;
+        }
+        if (lastEvent[0] != null) {
+            if (send(subscriber, lastEvent[0].name(), lastEvent[0].data())) {
+                emitter.complete();
+            }
+        } else if (!solving) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Forgets the last event of an earlier run of the job, call before a job starts solving under an id that may have
+     * finished before, as a resumed job does.
+     */
+    public void open(String jobId) {
+        lastEventByJobId.remove(jobId);
+    }
+
+    public boolean hasSubscribers(String jobId) {
+        List<Subscriber> subscribers = subscribersByJobId.get(jobId);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    public void publish(String jobId, SolutionUpdateDTO update) {
+        List<Subscriber> subscribers = subscribersByJobId.get(jobId);
+        if (subscribers == null) {
+            return;
+        }
+        SolutionUpdateDTO withoutAssignments = withoutAssignments(update);
+        for (Subscriber subscriber : subscribers) {
+            if (!send(subscriber, UPDATE_EVENT, subscriber.includeAssignments ? update : withoutAssignments)) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Sends the last update of a finished job and closes its streams.
+     */
+    public void complete(String jobId, SolutionUpdateDTO lastUpdate) {
+        complete(jobId, new LastEvent(UPDATE_EVENT, withoutAssignments(lastUpdate), System.nanoTime()));
+    }
+
+    public void completeWithError(String jobId, Throwable exception) {
+        complete(jobId, new LastEvent(ERROR_EVENT, String.valueOf(exception.getMessage()), System.nanoTime()));
+    }
+
+    private void complete(String jobId, LastEvent lastEvent) {
+        // left behind before the subscribers are removed, so a subscriber registering after the removal finds it
+        lastEventByJobId.put(jobId, lastEvent);
+        forgetLastEventsOlderThan(lastEvent.nanoTime() - TimeUnit.MILLISECONDS.toNanos(emitterTimeoutMillis));
+        List<Subscriber> subscribers = subscribersByJobId.remove(jobId);
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (send(subscriber, lastEvent.name(), lastEvent.data())) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * A subscriber only misses the completion while it registers, and an emitter would have timed out by then anyway.
+     */
+    private void forgetLastEventsOlderThan(long nanoTime) {
+        lastEventByJobId.values().removeIf(lastEvent -> lastEvent.nanoTime() - nanoTime < 0L);
+    }
+
+    private boolean send(Subscriber subscriber, String eventName, Object data) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the servlet container reports it through onError/onCompletion as well
+            log.debug("Dropping event subscriber: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static SolutionUpdateDTO withoutAssignments(SolutionUpdateDTO update) {
+        if (update.getChangedLessons() == null) {
+            return update;
+        }
+        return new SolutionUpdateDTO(update.getJobId(), update.getVersion(), update.getScore(),
+                update.getSolverStatus(), null);
+    }
+
+    private record Subscriber(SseEmitter emitter, boolean includeAssignments) {
+    }
+
+    private record LastEvent(String name, Object data, long nanoTime) {
+    }
+}
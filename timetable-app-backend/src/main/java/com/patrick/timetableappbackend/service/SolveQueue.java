@@ -0,0 +1,203 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.QueuedJobDTO;
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.SolvePriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * Admission control in front of the solver managers.
+ * <p>
+ * At most {@code timetable.queue.max-running} jobs solve at once and together they use at most
+ * {@code timetable.queue.cores} CPU cores. A job is given one core per {@code timetable.queue.lessons-per-core} lessons,
+ * capped by a fair share of the free cores but never below the cores it needs, and runs with that many cores minus one
+ * as move threads. Jobs that do not fit wait here, highest priority first and first come first served within a priority, instead of queueing invisibly
+ * inside a solver manager. Beyond {@code timetable.queue.capacity} waiting jobs, new ones are rejected.
+ */
+@Component
+@Slf4j
+public class SolveQueue {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::priority).reversed()
+            .thenComparingLong(Entry::sequence);
+
+    private final int maxRunning;
+    private final int capacity;
+    private final int totalCores;
+    private final int lessonsPerCore;
+
+    private final PriorityQueue<Entry> waiting = new PriorityQueue<>(ORDER);
+    private final Map<String, Running> running = new LinkedHashMap<>();
+    private int coresInUse;
+    private long sequence;
+
+    public SolveQueue(MeterRegistry meterRegistry,
+                      @Value("${timetable.queue.max-running:4}") int maxRunning,
+                      @Value("${timetable.queue.capacity:50}") int capacity,
+                      @Value("${timetable.queue.cores:0}") int cores,
+                      @Value("${timetable.queue.lessons-per-core:250}") int lessonsPerCore) {
+        this.maxRunning = Math.max(1, maxRunning);
+        this.capacity = capacity;
+        this.totalCores = cores > 0 ? cores : Runtime.getRuntime().availableProcessors();
+        this.lessonsPerCore = Math.max(1, lessonsPerCore);
+        Gauge.builder("timetable.queue.waiting", this, SolveQueue::getWaitingCount)
+                .description("Solving jobs waiting for CPU cores")
+                .register(meterRegistry);
+        Gauge.builder("timetable.queue.cores-in-use", this, SolveQueue::getCoresInUse)
+                .description("CPU cores given to running solving jobs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a job, or starts it right away if there is room.
+     *
+     * @param lessons size of the problem, it decides how many cores the job gets
+     * @param minCores cores the job needs even if its problem is small, e.g. one per member of a portfolio
+     * @param start   starts solving the job with the given number of cores; called outside the queue's lock,
+     *                the job must {@link #release(String)} its cores once it stops solving
+     * @return the 1-based position of the job among the waiting jobs, 0 if it started
+     * @throws TimetableSolverException 400 if the job needs more cores than the queue has, 503 if the queue is full
+     */
+    public int submit(String jobId, SolvePriority priority, int lessons, int minCores, IntConsumer start) {
+        if (minCores > totalCores) {
+            throw new TimetableSolverException(jobId, HttpStatus.BAD_REQUEST,
+                    "The job needs " + minCores + " cores, the solve queue has only " + totalCores + ".");
+        }
+        synchronized (this) {
+            if (waiting.size() >= capacity) {
+                throw new TimetableSolverException(jobId, HttpStatus.SERVICE_UNAVAILABLE,
+                        "The solve queue is full (" + waiting.size() + " jobs waiting), try again later.");
+            }
+            waiting.add(new Entry(jobId, priority, lessons, minCores, sequence++, Instant.now(), start));
+        }
+        startWaiting();
+        return getPosition(jobId);
+    }
+
+    /**
+     * Drops a job that is still waiting.
+     *
+     * @return true if the job was waiting, false if it is running or unknown
+     */
+    public synchronized boolean remove(String jobId) {
+        return waiting.removeIf(entry -> entry.jobId().equals(jobId));
+    }
+
+    /**
+     * Frees the cores of a job that stopped solving and starts the waiting jobs that fit now.
+     */
+    public void release(String jobId) {
+        synchronized (this) {
+            Running released = running.remove(jobId);
+            if (released == null) {
+                return;
+            }
+            coresInUse -= released.cores();
+        }
+        startWaiting();
+    }
+
+    public synchronized boolean isWaiting(String jobId) {
+        return waiting.stream().anyMatch(entry -> entry.jobId().equals(jobId));
+    }
+
+    /**
+     * @return the 1-based position of a job among the waiting jobs, 0 if it is not waiting
+     */
+    public synchronized int getPosition(String jobId) {
+        List<Entry> ordered = orderedWaiting();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).jobId().equals(jobId)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the running jobs, then the waiting jobs in the order they will start
+     */
+    public synchronized List<QueuedJobDTO> getJobs() {
+        List<QueuedJobDTO> jobs = new ArrayList<>(running.size() + waiting.size());
+        running.forEach((jobId, job) -> jobs.add(new QueuedJobDTO(jobId, job.entry().priority(), 0,
+                job.entry().lessons(), job.cores(), job.entry().submittedAt())));
+        List<Entry> ordered = orderedWaiting();
+        for (int i = 0; i < ordered.size(); i++) {
+            Entry entry = ordered.get(i);
+            jobs.add(new QueuedJobDTO(entry.jobId(), entry.priority(), i + 1, entry.lessons(), 0, entry.submittedAt()));
+        }
+        return jobs;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized int getCoresInUse() {
+        return coresInUse;
+    }
+
+    /**
+     * How many cores a job of this size gets if it starts now: one per {@code lessonsPerCore} lessons, but no more than
+     * an even split of the free cores between it and the waiting jobs that could start along with it. Never less than
+     * {@code minCores}, the job only starts once that many cores are free.
+     */
+    synchronized int allocateCores(int lessons, int minCores) {
+        int freeCores = totalCores - coresInUse;
+        int startingTogether = Math.max(1, Math.min(waiting.size() + 1, maxRunning - running.size()));
+        int fairShare = Math.max(1, freeCores / startingTogether);
+        int wanted = Math.max(1, (lessons + lessonsPerCore - 1) / lessonsPerCore);
+        return Math.max(Math.max(1, minCores), Math.min(wanted, fairShare));
+    }
+
+    /**
+     * Whether the next job can start now. The next job keeps waiting until its minimum cores are free, also when a
+     * smaller job behind it would fit, so it cannot be starved.
+     */
+    private boolean hasRoom(Entry next) {
+        return running.size() < maxRunning && totalCores - coresInUse >= Math.max(1, next.minCores());
+    }
+
+    private void startWaiting() {
+        List<Runnable> starts = new ArrayList<>();
+        synchronized (this) {
+            while (!waiting.isEmpty() && hasRoom(waiting.peek())) {
+                Entry entry = waiting.poll();
+                int cores = allocateCores(entry.lessons(), entry.minCores());
+                running.put(entry.jobId(), new Running(entry, cores));
+                coresInUse += cores;
+                log.info("Starting jobId ({}) with {} of {} cores, {} job(s) still waiting.",
+                        entry.jobId(), cores, totalCores, waiting.size());
+                starts.add(() -> entry.start().accept(cores));
+            }
+        }
+        starts.forEach(Runnable::run);
+    }
+
+    private List<Entry> orderedWaiting() {
+        List<Entry> ordered = new ArrayList<>(waiting);
+        ordered.sort(ORDER);
+        return ordered;
+    }
+
+    private record Entry(String jobId, SolvePriority priority, int lessons, int minCores, long sequence,
+                         Instant submittedAt, IntConsumer start) {
+    }
+
+    private record Running(Entry entry, int cores) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.SolverOverrides;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The solver managers jobs run on: the configured one, plus one per distinct set of {@link SolverOverrides}.
+ * <p>
+ * Building a solver factory parses the configuration and the constraint provider, so the managers of overrides are
+ * built lazily and cached. At most {@code timetable.solver.max-cached-configs} of them are kept; beyond that, the least
+ * recently used manager without running jobs is closed.
+ */
+@Component
+@Slf4j
+public class SolverManagers implements DisposableBean {
+
+    private final SolverConfig solverConfig;
+    private final SolverManager<Timetable, String> defaultSolverManager;
+    private final String parallelSolverCount;
+    private final int maxCachedConfigs;
+
+    // access-ordered, the eldest entry is the least recently used one
+    private final Map<SolverOverrides, SolverManager<Timetable, String>> solverManagersByOverrides = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, SolverManager<Timetable, String>> solverManagersByJobId = new ConcurrentHashMap<>();
+
+    public SolverManagers(SolverConfig solverConfig,
+                          SolverManager<Timetable, String> defaultSolverManager,
+                          @Value("${timefold.solver-manager.parallel-solver-count:AUTO}") String parallelSolverCount,
+                          @Value("${timetable.solver.max-cached-configs:8}") int maxCachedConfigs) {
+        this.solverConfig = solverConfig;
+        this.defaultSolverManager = defaultSolverManager;
+        this.parallelSolverCount = parallelSolverCount;
+        this.maxCachedConfigs = maxCachedConfigs;
+    }
+
+    /**
+     * Picks the solver manager a new job runs on. It stays assigned until {@link #release(String)}.
+     */
+    public synchronized SolverManager<Timetable, String> assign(String jobId, SolverOverrides overrides) {
+        SolverManager<Timetable, String> solverManager = overrides.isEmpty()
+                ? defaultSolverManager
+                : solverManagersByOverrides.computeIfAbsent(overrides, this::build);
+        solverManagersByJobId.put(jobId, solverManager);
+        evictIdle();
+        return solverManager;
+    }
+
+    /**
+     * @return the solver manager the job runs on; the configured one if the job is not running
+     */
+    public SolverManager<Timetable, String> forJob(String jobId) {
+        return solverManagersByJobId.getOrDefault(jobId, defaultSolverManager);
+    }
+
+    /**
+     * Forgets the solver manager of a job that stopped solving.
+     */
+    public void release(String jobId) {
+        solverManagersByJobId.remove(jobId);
+    }
+
+    public synchronized int getCachedCount() {
+        return solverManagersByOverrides.size();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        solverManagersByOverrides.values().forEach(SolverManager::close);
+        solverManagersByOverrides.clear();
+    }
+
+    private SolverManager<Timetable, String> build(SolverOverrides overrides) {
+        log.info("Building a solver for {}.", overrides);
+        SolverFactory<Timetable> solverFactory = SolverFactory.create(overrides.applyTo(solverConfig));
+        return SolverManager.create(solverFactory, new SolverManagerConfig().withParallelSolverCount(parallelSolverCount));
+    }
+
+    private void evictIdle() {
+        Iterator<SolverManager<Timetable, String>> iterator = solverManagersByOverrides.values().iterator();
+        int excess = solverManagersByOverrides.size() - maxCachedConfigs;
+        while (excess > 0 && iterator.hasNext()) {
+            SolverManager<Timetable, String> solverManager = iterator.next();
+            if (!solverManagersByJobId.containsValue(solverManager)) {
+                iterator.remove();
+                solverManager.close();
+                excess--;
+            }
+        }
+    }
+}
@@ -3,37 +3,70 @@ package com.patrick.timetableappbackend.service;
 
 import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
-// import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
 import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
 import ai.timefold.solver.core.api.solver.SolutionManager;
 import ai.timefold.solver.core.api.solver.SolutionUpdatePolicy;
 import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.api.solver.SolverStatus;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import com.patrick.timetableappbackend.dto.AppliedSolutionDTO;
+import com.patrick.timetableappbackend.dto.JobCheckpointDTO;
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import com.patrick.timetableappbackend.dto.QueuedJobDTO;
+import com.patrick.timetableappbackend.dto.SolutionDiffDTO;
+import com.patrick.timetableappbackend.dto.SolutionUpdateDTO;
+import com.patrick.timetableappbackend.dto.TerminationDTO;
 import com.patrick.timetableappbackend.exception.TimetableSolverException;
 import com.patrick.timetableappbackend.model.ConstraintModel;
 import com.patrick.timetableappbackend.model.Lesson;
 import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.SolvePriority;
+import com.patrick.timetableappbackend.model.SportKeywords;
 import com.patrick.timetableappbackend.model.Timeslot;
 import com.patrick.timetableappbackend.model.Timetable;
 import com.patrick.timetableappbackend.repository.ConstraintRepo;
 import com.patrick.timetableappbackend.repository.LessonRepo;
 import com.patrick.timetableappbackend.repository.RoomRepo;
 import com.patrick.timetableappbackend.repository.TimeslotRepo;
+import com.patrick.timetableappbackend.solver.LocalSearchAlgorithm;
+import com.patrick.timetableappbackend.solver.SolverOverrides;
 import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+import com.patrick.timetableappbackend.solver.TimetableSolutionCloner;
+import com.patrick.timetableappbackend.solver.changes.AddLessonProblemChange;
+import com.patrick.timetableappbackend.solver.changes.AddTimeslotProblemChange;
+import com.patrick.timetableappbackend.solver.changes.PinLessonProblemChange;
+import com.patrick.timetableappbackend.solver.changes.RemoveLessonProblemChange;
+import com.patrick.timetableappbackend.solver.changes.RemoveRoomProblemChange;
+import com.patrick.timetableappbackend.solver.changes.UpdateConstraintWeightsProblemChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -45,16 +78,47 @@ public class TimetableService {
     private final TimeslotRepo timeslotRepo;
     private final LessonRepo lessonRepo;
     private final ConstraintRepo constraintRepo;
-    private final SolverManager<Timetable, String> solverManager;
+    private final SolverManagers solverManagers;
+    private final SolveQueue solveQueue;
     private final SolutionManager<Timetable, HardMediumSoftScore> solutionManager;
+    private final SportKeywords sportKeywords;
+    private final BestSolutionPublisher bestSolutionPublisher;
+    private final SolutionEventBroadcaster solutionEvents;
     @Value("${timefold.solver.termination.spent-limit}")
     private String duration;
+    @Value("${timefold.solver.termination.spent-limit}")
+    private Duration spentLimit;
+    @Value("${timefold.solver.move-thread-count:NONE}")
+    private String defaultMoveThreadCount;
+    @Value("${timetable.diff.history-size:50}")
+    private int diffHistorySize;
+    @Value("${timetable.checkpoint.auto-resume:false}")
+    private boolean autoResume;
+    @Value("${timetable.solver.terminate-timeout:30s}")
+    private Duration terminateTimeout;
+    @Value("${timetable.portfolio.margin:0hard/0medium/500soft}")
+    private String portfolioMargin;
+    @Value("${timetable.portfolio.grace-period:2m}")
+    private Duration portfolioGracePeriod;
 
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final JobRegistry jobRegistry;
+    private final JobCheckpointer jobCheckpointer;
+    // completed once the final best solution of a solving job is published (or it failed)
+    private final ConcurrentMap<String, CompletableFuture<Void>> solvingDone = new ConcurrentHashMap<>();
+    // stops a started job whose solver thread did not pick it up yet, Timefold then publishes no final best solution
+    private final ConcurrentMap<String, Runnable> stopsBeforeSolving = new ConcurrentHashMap<>();
+    // portfolio job id -> the job ids its members solve under
+    private final ConcurrentMap<String, List<String>> portfolios = new ConcurrentHashMap<>();
+    private final TimetableSolutionCloner solutionCloner = new TimetableSolutionCloner();
+    // terminates resumed jobs once they used up what was left of their spent limit
+    private final ScheduledExecutorService resumeDeadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resume-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public Collection<String> getJobIds() {
-        return jobIdToJob.keySet();
+        return jobRegistry.getJobIds();
     }
 
     @Transactional(readOnly = true)
@@ -68,80 +132,611 @@ public class TimetableService {
         final TimetableConstraintConfiguration timetableConstraintConfiguration = new TimetableConstraintConfiguration(constraintModels);
         final List<Lesson> lessons = lessonRepo.findAll();
 
-        return new Timetable(timeslots, rooms, lessons, timetableConstraintConfiguration, problemDuration);
+        Timetable timetable = new Timetable(timeslots, rooms, lessons, timetableConstraintConfiguration, problemDuration);
+        timetable.normalizeKeys();
+        return timetable;
 
     }
 
     // How to integrate with Spring JPA to persist the Timetable solution
     // How to get the best solution
     public String solve(Timetable problem) {
-        problem.getLessons().forEach(lesson -> lesson.setTimetable(problem));
-        final ConcurrentMap<String, Timetable> timetableSolution = new ConcurrentHashMap<>();
+        return solve(problem, false, null, SolverOverrides.NONE, SolvePriority.NORMAL);
+    }
+
+    /**
+     * @param warmStart start from a previous assignment instead of from scratch: only new lessons and lessons whose
+     *                  previous timeslot or room no longer fits go through the construction heuristic. Without it,
+     *                  the timeslot and room of every non-pinned lesson of {@code problem} are cleared first
+     * @param fromJobId with {@code warmStart}, the job whose best solution to start from;
+     *                  null to start from the assignment persisted in the lesson table
+     * @param overrides termination and move thread settings of this job only; without a spent limit,
+     *                  the problem's duration (in minutes) is used if it has one
+     * @param priority  order in the solve queue relative to other waiting jobs
+     */
+    public String solve(Timetable problem, boolean warmStart, String fromJobId, SolverOverrides overrides,
+                        SolvePriority priority) {
+        Collection<LessonAssignmentDTO> previous = null;
+        if (warmStart) {
+            previous = fromJobId == null ? lessonRepo.findAllAssignments() : assignmentsOf(getTimetableAndCheckForExceptions(fromJobId));
+        } else {
+            WarmStart.clear(problem);
+        }
         String jobId = UUID.randomUUID().toString();
-        jobIdToJob.put(jobId, Job.ofTimetable(problem));
-        solverManager.solveBuilder()
-                .withProblemId(jobId)
-                //todo: to see how to implement this termination Config properly on a new version of Timefold
-                //no need to add duration because we take it from application.properties
-//                .withConfigOverride(new SolverConfigOverride<Timetable>()
-//                        .withTerminationConfig(new TerminationConfig().withMinutesSpentLimit(problem.getDuration())))
-                .withProblemFinder(jobId_ -> jobIdToJob.get(jobId).timetable)
-                .withBestSolutionConsumer(solution -> jobIdToJob.put(jobId, Job.ofTimetable(solution)))
-                //.withFinalBestSolutionConsumer(solution -> jobIdToJob/timetableSolution.put(jobId, solution))
-                .withExceptionHandler((jobId_, exception) -> {
-                    jobIdToJob.put(jobId, Job.ofException(exception));
-                    LOGGER.error("Failed solving jobId ({}).", jobId, exception);
-                })
-                .run();
+        startSolving(jobId, problem, 0L, 0L, previous, withProblemDuration(overrides, problem), priority, null);
+        return jobId;
+    }
+
+    /**
+     * Races several local search algorithms on copies of the same problem, each on its share of the job's cores.
+     * The best solution any of them finds is the job's best solution, and members that fall behind the leader by
+     * more than {@code timetable.portfolio.margin} after {@code timetable.portfolio.grace-period} are terminated.
+     *
+     * @param algorithms the members of the portfolio, at least two
+     */
+    public String solvePortfolio(Timetable problem, Collection<LocalSearchAlgorithm> algorithms, SolverOverrides overrides,
+                                 SolvePriority priority) {
+        List<LocalSearchAlgorithm> members = algorithms.stream().distinct().toList();
+        if (members.size() < 2) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, "A portfolio needs at least two algorithms.");
+        }
+        if (overrides.localSearch() != null) {
+            throw new TimetableSolverException(null, HttpStatus.BAD_REQUEST, "The portfolio decides the local search of its members.");
+        }
+        String jobId = UUID.randomUUID().toString();
+        startSolving(jobId, problem, 0L, 0L, null, withProblemDuration(overrides, problem), priority, members);
+        return jobId;
+    }
+
+    private SolverOverrides withProblemDuration(SolverOverrides overrides, Timetable problem) {
+        if (overrides.spentLimit() == null && problem.getDuration() != null) {
+            overrides = new SolverOverrides(Duration.ofMinutes(problem.getDuration()), overrides.unimprovedSpentLimit(),
+                    overrides.bestScoreLimit(), overrides.moveThreadCount(), overrides.localSearch());
+        }
+        return overrides.withoutDefaultSpentLimit(spentLimit);
+    }
+
+    /**
+     * @return the jobs that were still solving when the backend stopped, and are not solving again yet
+     */
+    public List<JobCheckpointDTO> getInterruptedJobs() {
+        return jobCheckpointer.findAll().stream()
+                .filter(checkpoint -> getSolverStatus(checkpoint.getJobId()) == SolverStatus.NOT_SOLVING)
+                .toList();
+    }
+
+    /**
+     * Resumes an interrupted job under the same job id, starting from its checkpointed best solution.
+     * Only the part of the spent limit the job did not use yet is spent.
+     */
+    public String resume(String jobId) {
+        if (getSolverStatus(jobId) != SolverStatus.NOT_SOLVING) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Job is already solving.");
+        }
+        JobCheckpointer.Checkpoint checkpoint = jobCheckpointer.load(jobId);
+        if (checkpoint == null) {
+            throw new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No checkpoint found.");
+        }
+        Timetable solution = checkpoint.solution();
+        if (checkpoint.elapsedMillis() >= checkpoint.spentLimitMillis()) {
+            // it only missed its final publish, serve the checkpoint as the result
+            solution.prepareForSolving(sportKeywords);
+            solution.setSolutionVersion(checkpoint.version());
+            AssignmentHistory history = new AssignmentHistory(diffHistorySize);
+            history.record(checkpoint.version(), solution);
+            jobRegistry.put(jobId, Job.ofTimetable(solution, checkpoint.version(), history));
+            jobRegistry.finish(jobId);
+            jobCheckpointer.remove(jobId);
+            return jobId;
+        }
+        // started the way it was checkpointed, the deadline stops it at the job's own spent limit
+        JobCheckpointer.Settings settings = checkpoint.settings();
+        SolverOverrides overrides = settings.overrides().withSpentLimit(Duration.ofMillis(checkpoint.spentLimitMillis()));
+        startSolving(jobId, solution, checkpoint.version(), checkpoint.elapsedMillis(), null,
+                overrides.withoutDefaultSpentLimit(spentLimit), settings.priority(), settings.portfolio());
         return jobId;
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<JobCheckpointDTO> interrupted = jobCheckpointer.findAll();
+        if (interrupted.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Found {} interrupted solving job(s): {}.", interrupted.size(),
+                interrupted.stream().map(JobCheckpointDTO::getJobId).toList());
+        if (autoResume) {
+            for (JobCheckpointDTO checkpoint : interrupted) {
+                try {
+                    resume(checkpoint.getJobId());
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed resuming jobId ({}).", checkpoint.getJobId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prepares a job and hands it to the solve queue, which starts it once there are cores for it.
+     *
+     * @param startVersion the version of {@code problem}, 0 for a new job
+     * @param elapsedBeforeMillis solving time the job already spent before this run
+     * @param warmStartAssignments previous assignment to seed the problem with, or null to solve it as it is
+     * @param overrides solver settings that differ from the configured ones
+     * @param portfolio the algorithms to race, or null to solve with the configured one
+     */
+    private void startSolving(String jobId, Timetable problem, long startVersion, long elapsedBeforeMillis,
+                              Collection<LessonAssignmentDTO> warmStartAssignments, SolverOverrides overrides,
+                              SolvePriority priority, List<LocalSearchAlgorithm> portfolio) {
+        problem.prepareForSolving(sportKeywords);
+        if (warmStartAssignments != null) {
+            int warmStarted = WarmStart.apply(problem, warmStartAssignments);
+            LOGGER.info("Warm starting jobId ({}): {} of {} lessons keep their previous assignment.",
+                    jobId, warmStarted, problem.getLessons().size());
+        }
+        problem.setSolutionVersion(startVersion);
+        AssignmentHistory history = new AssignmentHistory(diffHistorySize);
+        history.record(startVersion, problem);
+        solutionEvents.open(jobId);
+        jobRegistry.put(jobId, Job.ofTimetable(problem, startVersion, history));
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        solvingDone.put(jobId, done);
+        int lessons = problem.getLessons() == null ? 0 : problem.getLessons().size();
+        JobCheckpointer.Settings settings = new JobCheckpointer.Settings(overrides, priority, portfolio);
+        try {
+            if (portfolio == null) {
+                solveQueue.submit(jobId, priority, lessons, 1,
+                        cores -> run(jobId, startVersion, elapsedBeforeMillis, overrides, history, done, cores, settings));
+            } else {
+                solveQueue.submit(jobId, priority, lessons, portfolio.size(),
+                        cores -> runPortfolio(jobId, startVersion, elapsedBeforeMillis, overrides, history, done, cores,
+                                portfolio, settings));
+            }
+        } catch (TimetableSolverException e) {
+            // rejected, the job never existed
+            solvingDone.remove(jobId, done);
+            jobRegistry.remove(jobId);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts solving a job the solve queue admitted.
+     *
+     * @param cores CPU cores the job may use: unless the overrides set a move thread count, all but one of them
+     *              become move threads, rounded down to a power of two
+     * @param settings how the job was started, checkpointed with its solutions
+     */
+    private void run(String jobId, long startVersion, long elapsedBeforeMillis, SolverOverrides overrides,
+                     AssignmentHistory history, CompletableFuture<Void> done, int cores, JobCheckpointer.Settings settings) {
+        overrides = overrides.withMoveThreadCountFor(cores, defaultMoveThreadCount);
+        long spentLimitMillis = (overrides.spentLimit() == null ? spentLimit : overrides.spentLimit()).toMillis();
+        long startMillis = System.currentTimeMillis();
+        BestSolutionPublisher.Channel channel = null;
+        ScheduledFuture<?> deadline = null;
+        try {
+            SolverManager<Timetable, String> solverManager = solverManagers.assign(jobId, overrides);
+            channel = bestSolutionPublisher.open(jobId, startVersion, publishing(jobId, history, settings,
+                    elapsedBeforeMillis, startMillis, spentLimitMillis, () -> solverManager.getSolverStatus(jobId)));
+            deadline = elapsedBeforeMillis <= 0L ? null
+                    : resumeDeadlines.schedule(() -> solverManager.terminateEarly(jobId),
+                            spentLimitMillis - elapsedBeforeMillis, TimeUnit.MILLISECONDS);
+            BestSolutionPublisher.Channel jobChannel = channel;
+            ScheduledFuture<?> jobDeadline = deadline;
+            stopsBeforeSolving.put(jobId, () -> stopBeforeSolving(jobId, jobChannel, jobDeadline, done));
+            solverManager.solveBuilder()
+                    .withProblemId(jobId)
+                    .withProblemFinder(jobId_ -> jobRegistry.get(jobId).timetable())
+                    .withBestSolutionConsumer(jobChannel::offer)
+                    .withFinalBestSolutionConsumer(solution -> complete(jobId, jobChannel, jobDeadline, done, solution))
+                    .withExceptionHandler((jobId_, exception) -> fail(jobId, jobChannel, jobDeadline, done, exception))
+                    .run();
+        } catch (RuntimeException e) {
+            // e.g. the solver could not be built for these overrides
+            fail(jobId, channel, deadline, done, e);
+        }
+    }
+
+    /**
+     * Starts the members of a portfolio job the solve queue admitted, each on an even share of the job's cores and on
+     * its own copy of the problem. Only the best solutions that beat every member's so far are published.
+     * A resumed job terminates all its members once it used up what was left of its spent limit.
+     */
+    private void runPortfolio(String jobId, long startVersion, long elapsedBeforeMillis, SolverOverrides overrides,
+                              AssignmentHistory history, CompletableFuture<Void> done, int cores,
+                              List<LocalSearchAlgorithm> members, JobCheckpointer.Settings settings) {
+        overrides = overrides.withMoveThreadCountFor(Math.max(1, cores / members.size()), defaultMoveThreadCount);
+        long spentLimitMillis = (overrides.spentLimit() == null ? spentLimit : overrides.spentLimit()).toMillis();
+        long startMillis = System.currentTimeMillis();
+        Timetable problem = jobRegistry.get(jobId).timetable();
+        PortfolioRace race = new PortfolioRace(members, HardMediumSoftScore.parseScore(portfolioMargin),
+                startMillis + portfolioGracePeriod.toMillis());
+        Map<LocalSearchAlgorithm, String> memberJobIds = new EnumMap<>(LocalSearchAlgorithm.class);
+        members.forEach(member -> memberJobIds.put(member, jobId + "/" + member.name()));
+        portfolios.put(jobId, List.copyOf(memberJobIds.values()));
+        BestSolutionPublisher.Channel channel = bestSolutionPublisher.open(jobId, startVersion, publishing(jobId, history,
+                settings, elapsedBeforeMillis, startMillis, spentLimitMillis, () -> SolverStatus.SOLVING_ACTIVE));
+        ScheduledFuture<?> deadline = elapsedBeforeMillis <= 0L ? null
+                : resumeDeadlines.schedule(() -> memberJobIds.values()
+                                .forEach(memberJobId -> solverManagers.forJob(memberJobId).terminateEarly(memberJobId)),
+                        spentLimitMillis - elapsedBeforeMillis, TimeUnit.MILLISECONDS);
+        for (LocalSearchAlgorithm member : members) {
+            String memberJobId = memberJobIds.get(member);
+            try {
+                solverManagers.assign(memberJobId, overrides.withLocalSearch(member)).solveBuilder()
+                        .withProblemId(memberJobId)
+                        // the solver works on the problem in place, every member needs its own lessons
+                        .withProblem(solutionCloner.cloneSolution(problem))
+                        .withBestSolutionConsumer(solution -> {
+                            if (race.offer(member, solution)) {
+                                channel.offer(solution);
+                            }
+                            for (LocalSearchAlgorithm behind : race.fallenBehind(System.currentTimeMillis())) {
+                                LOGGER.info("Portfolio jobId ({}): {} fell behind {}, terminating it.",
+                                        jobId, behind, race.getLeader());
+                                String behindJobId = memberJobIds.get(behind);
+                                solverManagers.forJob(behindJobId).terminateEarly(behindJobId);
+                            }
+                        })
+                        .withFinalBestSolutionConsumer(solution ->
+                                finishMember(jobId, member, race, channel, deadline, done, solution, null))
+                        .withExceptionHandler((memberJobId_, exception) ->
+                                finishMember(jobId, member, race, channel, deadline, done, null, exception))
+                        .run();
+            } catch (RuntimeException e) {
+                finishMember(jobId, member, race, channel, deadline, done, null, e);
+            }
+        }
+    }
+
+    private void finishMember(String jobId, LocalSearchAlgorithm member, PortfolioRace race,
+                              BestSolutionPublisher.Channel channel, ScheduledFuture<?> deadline,
+                              CompletableFuture<Void> done, Timetable finalSolution, Throwable exception) {
+        solverManagers.release(jobId + "/" + member.name());
+        if (exception != null) {
+            LOGGER.error("Portfolio jobId ({}): {} failed.", jobId, member, exception);
+        }
+        if (!race.finish(member, finalSolution)) {
+            return;
+        }
+        portfolios.remove(jobId);
+        Timetable best = race.getBest();
+        if (best == null) {
+            fail(jobId, channel, deadline, done, exception != null ? exception
+                    : new IllegalStateException("No algorithm of the portfolio found a solution."));
+            return;
+        }
+        LOGGER.info("Portfolio jobId ({}) finished, {} won with score {}.", jobId, race.getLeader(), best.getScore());
+        complete(jobId, channel, deadline, done, best);
+    }
+
+    /**
+     * @param settings how the job was started, checkpointed so it resumes the same way
+     * @param solverStatus status reported with the published solutions
+     * @return the sink storing, checkpointing and streaming the published solutions of a job
+     */
+    private BestSolutionPublisher.SolutionSink publishing(String jobId, AssignmentHistory history,
+                                                          JobCheckpointer.Settings settings, long elapsedBeforeMillis,
+                                                          long startMillis, long spentLimitMillis,
+                                                          Supplier<SolverStatus> solverStatus) {
+        return (solution, version) -> {
+            solution.setSolutionVersion(version);
+            List<LessonAssignmentDTO> changed = history.record(version, solution);
+            jobRegistry.put(jobId, Job.ofTimetable(solution, version, history));
+            jobCheckpointer.offer(jobId, solution, version,
+                    elapsedBeforeMillis + System.currentTimeMillis() - startMillis, spentLimitMillis, settings);
+            if (solutionEvents.hasSubscribers(jobId)) {
+                solutionEvents.publish(jobId, new SolutionUpdateDTO(jobId, version, solution.getScore(),
+                        solverStatus.get(), changed));
+            }
+        };
+    }
+
+    private void complete(String jobId, BestSolutionPublisher.Channel channel, ScheduledFuture<?> deadline,
+                          CompletableFuture<Void> done, Timetable finalSolution) {
+        if (!solvingDone.remove(jobId, done)) {
+            // already stopped before its solver thread picked it up
+            return;
+        }
+        channel.complete(finalSolution);
+        finish(jobId, deadline, done);
+        solutionEvents.complete(jobId, new SolutionUpdateDTO(jobId, channel.getVersion(),
+                finalSolution.getScore(), SolverStatus.NOT_SOLVING, null));
+    }
+
+    /**
+     * Ends a job that was terminated before its solver thread picked it up, with the last solution it published.
+     */
+    private void stopBeforeSolving(String jobId, BestSolutionPublisher.Channel channel, ScheduledFuture<?> deadline,
+                                   CompletableFuture<Void> done) {
+        if (!solvingDone.remove(jobId, done)) {
+            return;
+        }
+        channel.cancel();
+        Timetable lastPublished = jobRegistry.get(jobId).timetable();
+        finish(jobId, deadline, done);
+        LOGGER.info("JobId ({}) was terminated before it started solving.", jobId);
+        solutionEvents.complete(jobId, new SolutionUpdateDTO(jobId, channel.getVersion(),
+                lastPublished.getScore(), SolverStatus.NOT_SOLVING, null));
+    }
+
+    private void fail(String jobId, BestSolutionPublisher.Channel channel, ScheduledFuture<?> deadline,
+                      CompletableFuture<Void> done, Throwable exception) {
+        if (!solvingDone.remove(jobId, done)) {
+            return;
+        }
+        if (channel != null) {
+            channel.cancel();
+        }
+        jobRegistry.put(jobId, Job.ofException(exception));
+        finish(jobId, deadline, done);
+        solutionEvents.completeWithError(jobId, exception);
+        LOGGER.error("Failed solving jobId ({}).", jobId, exception);
+    }
+
+    private void finish(String jobId, ScheduledFuture<?> deadline, CompletableFuture<Void> done) {
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+        stopsBeforeSolving.remove(jobId);
+        jobRegistry.finish(jobId);
+        solverManagers.release(jobId);
+        solveQueue.release(jobId);
+        done.complete(null);
+        jobCheckpointer.remove(jobId);
+    }
+
     public ScoreAnalysis<HardMediumSoftScore> analyze(Timetable problem, ScoreAnalysisFetchPolicy fetchPolicy) {
+        problem.normalizeKeys();
         return fetchPolicy == null ? solutionManager.analyze(problem) : solutionManager.analyze(problem, fetchPolicy);
     }
 
     public HardMediumSoftScore update(Timetable problem, SolutionUpdatePolicy fetchPolicy) {
+        problem.normalizeKeys();
         return fetchPolicy == null ? solutionManager.update(problem) : solutionManager.update(problem, fetchPolicy);
     }
 
     public Timetable getTimetable(String jobId) {
         Timetable timetable = getTimetableAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
+        SolverStatus solverStatus = getSolverStatus(jobId);
         timetable.setSolverStatus(solverStatus);
         return timetable;
     }
 
     public Timetable getStatus(String jobId) {
         Timetable timetable = getTimetableAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
-        return new Timetable(timetable.getScore(), solverStatus);
+        SolverStatus solverStatus = getSolverStatus(jobId);
+        Timetable status = new Timetable(timetable.getScore(), solverStatus);
+        status.setSolutionVersion(getSolutionVersion(jobId));
+        return status;
     }
 
-    public Timetable terminateSolving(String jobId) {
-        // TODO: Replace with .terminateEarlyAndWait(... [, timeout]); see https://github.com/TimefoldAI/timefold-solver/issues/77
-        solverManager.terminateEarly(jobId);
-        return getTimetable(jobId);
+    /**
+     * Opens a server-sent event stream of the best solution updates of a job, starting with its current state.
+     *
+     * @param includeAssignments also send the lessons whose timeslot or room changed with every update
+     */
+    public SseEmitter subscribe(String jobId, boolean includeAssignments) {
+        Job job = jobRegistry.get(jobId);
+        Timetable timetable = getTimetableAndCheckForExceptions(jobId);
+        SolverStatus solverStatus = getSolverStatus(jobId);
+        SolutionUpdateDTO current = new SolutionUpdateDTO(jobId, job.version(), timetable.getScore(), solverStatus, null);
+        return solutionEvents.subscribe(jobId, current, includeAssignments, solverStatus != SolverStatus.NOT_SOLVING);
     }
 
-    private Timetable getTimetableAndCheckForExceptions(String jobId) {
-        Job job = jobIdToJob.get(jobId);
-        if (job == null) {
-            throw new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No timetable found.");
+    /**
+     * @param sinceVersion the solution version the client already has
+     * @return the lessons that moved since that version, or every assignment if the version is too old
+     */
+    public SolutionDiffDTO getDiff(String jobId, long sinceVersion) {
+        getTimetableAndCheckForExceptions(jobId);
+        Job job = jobRegistry.get(jobId);
+        AssignmentHistory.Diff diff = job.history().since(sinceVersion);
+        return new SolutionDiffDTO(jobId, sinceVersion, diff.version(), diff.score(),
+                getSolverStatus(jobId), diff.fullSnapshot(), diff.lessons());
+    }
+
+    /**
+     * Writes the timeslot and room of every lesson of a job's best solution back to the lesson table,
+     * in one transaction of batched updates. Fails without writing anything if a lesson is assigned to a timeslot or room
+     * that was deleted since the job started.
+     */
+    @Transactional
+    public AppliedSolutionDTO applySolution(String jobId) {
+        Timetable timetable = getTimetableAndCheckForExceptions(jobId);
+        if (getSolverStatus(jobId) != SolverStatus.NOT_SOLVING) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Job is still solving, terminate it first.");
         }
-        if (job.exception != null) {
-            throw new TimetableSolverException(jobId, job.exception);
+        List<LessonAssignmentDTO> assignments = assignmentsOf(timetable);
+        Set<Long> timeslotIds = timeslotRepo.findAllIds();
+        Set<Long> roomIds = roomRepo.findAllIds();
+        List<Long> staleLessonIds = assignments.stream()
+                .filter(assignment -> (assignment.getTimeslotId() != null && !timeslotIds.contains(assignment.getTimeslotId()))
+                        || (assignment.getRoomId() != null && !roomIds.contains(assignment.getRoomId())))
+                .map(LessonAssignmentDTO::getLessonId)
+                .toList();
+        if (!staleLessonIds.isEmpty()) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Lessons " + staleLessonIds
+                    + " are assigned to timeslots or rooms that no longer exist, solve again before applying.");
         }
-        return job.timetable;
+        int updated = lessonRepo.updateAssignments(assignments);
+        LOGGER.info("Applied {} of {} lesson assignments of jobId ({}).", updated, assignments.size(), jobId);
+        return new AppliedSolutionDTO(jobId, getSolutionVersion(jobId), timetable.getScore(), assignments.size(), updated);
+    }
+
+    /**
+     * Adds a lesson saved through the lessons API to a running job, without restarting it.
+     */
+    public void addLesson(String jobId, Long lessonId) {
+        Lesson lesson = lessonRepo.findLessonsById(lessonId)
+                .orElseThrow(() -> new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No lesson found with id " + lessonId));
+        submitProblemChange(jobId, new AddLessonProblemChange(lesson));
     }
 
-    private record Job(Timetable timetable, Throwable exception) {
+    public void removeLesson(String jobId, Long lessonId) {
+        submitProblemChange(jobId, new RemoveLessonProblemChange(lessonId));
+    }
+
+    /**
+     * @param timeslotId with {@code pinned}, the timeslot to move the lesson to first; null keeps its current one
+     * @param roomId with {@code pinned}, the room to move the lesson to first; null keeps its current one
+     */
+    public void pinLesson(String jobId, Long lessonId, boolean pinned, Long timeslotId, Long roomId) {
+        submitProblemChange(jobId, new PinLessonProblemChange(lessonId, pinned, timeslotId, roomId));
+    }
+
+    public void removeRoom(String jobId, Long roomId) {
+        submitProblemChange(jobId, new RemoveRoomProblemChange(roomId));
+    }
+
+    /**
+     * Adds a timeslot saved through the timeslots API to a running job, without restarting it.
+     */
+    public void addTimeslot(String jobId, Long timeslotId) {
+        Timeslot timeslot = timeslotRepo.findById(timeslotId)
+                .orElseThrow(() -> new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No timeslot found with id " + timeslotId));
+        submitProblemChange(jobId, new AddTimeslotProblemChange(timeslot));
+    }
 
-        static Job ofTimetable(Timetable timetable) {
-            return new Job(timetable, null);
+    public TerminationDTO terminateSolving(String jobId) {
+        return terminateSolving(jobId, terminateTimeout);
+    }
+
+    /**
+     * Terminates a job and waits until its solver published the final best solution, so the returned solution is the
+     * one the job ends with and the solver thread is free again.
+     *
+     * @param timeout how long to wait at most; if the solver did not stop by then, the latest published solution
+     *                is returned and the job keeps terminating in the background
+     */
+    public TerminationDTO terminateSolving(String jobId, Duration timeout) {
+        getTimetableAndCheckForExceptions(jobId);
+        long startNanos = System.nanoTime();
+        if (solveQueue.remove(jobId)) {
+            // never started, it ends with its problem
+            jobRegistry.finish(jobId);
+            CompletableFuture<Void> done = solvingDone.remove(jobId);
+            if (done != null) {
+                done.complete(null);
+            }
+            Timetable timetable = getTimetable(jobId);
+            solutionEvents.complete(jobId, new SolutionUpdateDTO(jobId, getSolutionVersion(jobId),
+                    timetable.getScore(), SolverStatus.NOT_SOLVING, null));
+            return new TerminationDTO(jobId, getSolutionVersion(jobId), true,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), timetable);
+        }
+        CompletableFuture<Void> done = solvingDone.get(jobId);
+        List<String> memberJobIds = portfolios.get(jobId);
+        boolean started;
+        if (memberJobIds != null) {
+            started = true;
+            memberJobIds.forEach(memberJobId -> solverManagers.forJob(memberJobId).terminateEarly(memberJobId));
+        } else {
+            SolverManager<Timetable, String> solverManager = solverManagers.forJob(jobId);
+            // a job still waiting for a solver thread stops right away, without a final best solution to wait for
+            started = solverManager.getSolverStatus(jobId) == SolverStatus.SOLVING_ACTIVE;
+            solverManager.terminateEarly(jobId);
+            Runnable stopBeforeSolving = stopsBeforeSolving.get(jobId);
+            if (!started && stopBeforeSolving != null) {
+                stopBeforeSolving.run();
+            }
         }
+        boolean terminated = true;
+        if (started && done != null) {
+            try {
+                done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                terminated = false;
+                LOGGER.warn("JobId ({}) did not terminate within {}.", jobId, timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimetableSolverException(jobId, e);
+            } catch (ExecutionException e) {
+                // not completed exceptionally, the failure is kept in the job
+            }
+        }
+        long terminationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new TerminationDTO(jobId, getSolutionVersion(jobId), terminated, terminationMillis, getTimetable(jobId));
+    }
 
-        static Job ofException(Throwable error) {
-            return new Job(null, error);
+    /**
+     * Pushes the constraint weights currently saved through the constraints API into a running job,
+     * which rescores its solution with them and keeps solving.
+     */
+    @Transactional(readOnly = true)
+    public void reloadConstraintWeights(String jobId) {
+        submitProblemChange(jobId, new UpdateConstraintWeightsProblemChange(getConstraintWeights()));
+    }
+
+    /**
+     * @return the constraint weights currently saved through the constraints API
+     */
+    @Transactional(readOnly = true)
+    public TimetableConstraintConfiguration getConstraintWeights() {
+        return new TimetableConstraintConfiguration(constraintRepo.findAll());
+    }
+
+    /**
+     * Hands a change over to the running solver, which applies it between two moves and keeps its incremental score
+     * state. Jobs that are not solving have nothing to change: edit the data and solve again instead.
+     */
+    private void submitProblemChange(String jobId, ProblemChange<Timetable> problemChange) {
+        if (solveQueue.isWaiting(jobId)) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Job is still queued, it solves the latest data once it starts.");
+        }
+        if (portfolios.containsKey(jobId)) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Portfolio jobs do not take problem changes.");
+        }
+        if (getSolverStatus(jobId) == SolverStatus.NOT_SOLVING) {
+            throw new TimetableSolverException(jobId, HttpStatus.CONFLICT, "Job is not solving.");
+        }
+        solverManagers.forJob(jobId).addProblemChange(jobId, problemChange);
+    }
+
+    private static List<LessonAssignmentDTO> assignmentsOf(Timetable timetable) {
+        return timetable.getLessons().stream()
+                .map(lesson -> new LessonAssignmentDTO(lesson.getId(),
+                        lesson.getTimeslot() == null ? null : lesson.getTimeslot().getId(),
+                        lesson.getRoom() == null ? null : lesson.getRoom().getId()))
+                .toList();
+    }
+
+    /**
+     * @return the queued jobs first in line and the running ones
+     */
+    public List<QueuedJobDTO> getQueue() {
+        return solveQueue.getJobs();
+    }
+
+    /**
+     * @return the 1-based position of a job in the solve queue, 0 if it is not waiting
+     */
+    public int getQueuePosition(String jobId) {
+        return solveQueue.getPosition(jobId);
+    }
+
+    private SolverStatus getSolverStatus(String jobId) {
+        if (solveQueue.isWaiting(jobId)) {
+            return SolverStatus.SOLVING_SCHEDULED;
+        }
+        return portfolios.containsKey(jobId)
+                ? SolverStatus.SOLVING_ACTIVE
+                : solverManagers.forJob(jobId).getSolverStatus(jobId);
+    }
+
+    private long getSolutionVersion(String jobId) {
+        Job job = jobRegistry.get(jobId);
+        return job == null ? 0L : job.version();
+    }
+
+    private Timetable getTimetableAndCheckForExceptions(String jobId) {
+        Job job = jobRegistry.get(jobId);
+        if (job == null) {
+            throw new TimetableSolverException(jobId, HttpStatus.NOT_FOUND, "No timetable found.");
+        }
+        if (job.exception() != null) {
+            throw new TimetableSolverException(jobId, job.exception());
         }
+        return job.timetable();
     }
 }
@@ -0,0 +1,83 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds a problem with a previous assignment, so the construction heuristic only has to place the lessons that are
+ * new or whose previous timeslot or room no longer fits, and local search starts from the previous schedule.
+ * A solve from scratch clears the assignment instead.
+ */
+final class WarmStart {
+
+    private WarmStart() {
+    }
+
+    /**
+     * Copies the timeslot and room of every non-pinned lesson from {@code previous}, matched by lesson id and
+     * resolved to the problem's own timeslot and room instances. A previous value that is unknown or outside the
+     * lesson's value range (e.g. its duration changed) is cleared instead. Lessons without a previous assignment keep
+     * whatever the problem has. The problem must be prepared for solving.
+     *
+     * @return how many lessons start fully assigned from the previous assignment
+     */
+    static int apply(Timetable problem, Collection<LessonAssignmentDTO> previous) {
+        if (problem.getLessons() == null) {
+            return 0;
+        }
+        Map<Long, LessonAssignmentDTO> previousByLessonId = new HashMap<>(previous.size() * 2);
+        previous.forEach(assignment -> previousByLessonId.put(assignment.getLessonId(), assignment));
+        Map<Long, Timeslot> timeslotsById = problem.getTimeslots().stream()
+                .collect(Collectors.toMap(Timeslot::getId, Function.identity()));
+        Map<Long, Room> roomsById = problem.getRooms().stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        int warmStarted = 0;
+        for (Lesson lesson : problem.getLessons()) {
+            LessonAssignmentDTO assignment = previousByLessonId.get(lesson.getId());
+            if (lesson.isPinned() || assignment == null) {
+                continue;
+            }
+            Timeslot timeslot = assignment.getTimeslotId() == null ? null : timeslotsById.get(assignment.getTimeslotId());
+            Room room = assignment.getRoomId() == null ? null : roomsById.get(assignment.getRoomId());
+            lesson.setTimeslot(timeslot != null && lesson.getPossibleTimeslots().contains(timeslot) ? timeslot : null);
+            lesson.setRoom(room != null && lesson.getPossibleRooms().contains(room) ? room : null);
+            if (lesson.getTimeslot() != null && lesson.getRoom() != null) {
+                warmStarted++;
+            }
+        }
+        return warmStarted;
+    }
+
+    /**
+     * Clears the timeslot and room of every non-pinned lesson, so assignments that came with the problem (e.g. the
+     * ones applied to the lesson table) do not survive a solve from scratch: the construction heuristic skips lessons
+     * that already have both.
+     *
+     * @return how many lessons had a timeslot or room
+     */
+    static int clear(Timetable problem) {
+        if (problem.getLessons() == null) {
+            return 0;
+        }
+        int cleared = 0;
+        for (Lesson lesson : problem.getLessons()) {
+            if (lesson.isPinned() || (lesson.getTimeslot() == null && lesson.getRoom() == null)) {
+                continue;
+            }
+            lesson.setTimeslot(null);
+            lesson.setRoom(null);
+            cleared++;
+        }
+        return cleared;
+    }
+}
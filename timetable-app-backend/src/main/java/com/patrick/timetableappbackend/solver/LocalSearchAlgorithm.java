@@ -0,0 +1,47 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+
+/**
+ * Local search variants a portfolio job races against each other, tuned as in {@code benchmarkConfig.xml}.
+ */
+public enum LocalSearchAlgorithm {
+    TABU_SEARCH {
+        @Override
+        void configure(LocalSearchAcceptorConfig acceptor, LocalSearchForagerConfig forager) {
+            acceptor.setEntityTabuSize(50);
+            forager.setAcceptedCountLimit(1000);
+        }
+    },
+    SIMULATED_ANNEALING {
+        @Override
+        void configure(LocalSearchAcceptorConfig acceptor, LocalSearchForagerConfig forager) {
+            acceptor.setSimulatedAnnealingStartingTemperature("2hard/200medium/200soft");
+            forager.setAcceptedCountLimit(4);
+        }
+    },
+    LATE_ACCEPTANCE {
+        @Override
+        void configure(LocalSearchAcceptorConfig acceptor, LocalSearchForagerConfig forager) {
+            acceptor.setLateAcceptanceSize(1000);
+            forager.setAcceptedCountLimit(2);
+        }
+    };
+
+    /**
+     * @return a local search phase running this variant until the solver terminates
+     */
+    public LocalSearchPhaseConfig toPhaseConfig() {
+        LocalSearchAcceptorConfig acceptor = new LocalSearchAcceptorConfig();
+        LocalSearchForagerConfig forager = new LocalSearchForagerConfig();
+        configure(acceptor, forager);
+        LocalSearchPhaseConfig phaseConfig = new LocalSearchPhaseConfig();
+        phaseConfig.setAcceptorConfig(acceptor);
+        phaseConfig.setForagerConfig(forager);
+        return phaseConfig;
+    }
+
+    abstract void configure(LocalSearchAcceptorConfig acceptor, LocalSearchForagerConfig forager);
+}
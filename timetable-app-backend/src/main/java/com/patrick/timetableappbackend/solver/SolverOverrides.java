@@ -0,0 +1,152 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-job deviations from the configured solver. A null component keeps the configured value.
+ * Equal overrides share one solver factory, so the record doubles as the cache key.
+ *
+ * @param spentLimit total solving time
+ * @param unimprovedSpentLimit stop when the best score did not improve for this long
+ * @param bestScoreLimit stop once this score is reached, e.g. {@code 0hard/0medium/-100soft}
+ * @param moveThreadCount {@code NONE}, {@code AUTO} or a number of move threads
+ * @param localSearch replaces the configured local search phases, e.g. for one member of a portfolio job
+ */
+public record SolverOverrides(Duration spentLimit, Duration unimprovedSpentLimit, String bestScoreLimit,
+                              String moveThreadCount, LocalSearchAlgorithm localSearch) {
+
+    public static final SolverOverrides NONE = new SolverOverrides(null, null, null, null);
+
+    public SolverOverrides {
+        if (spentLimit != null && (spentLimit.isNegative() || spentLimit.isZero())) {
+            throw new IllegalArgumentException("The spentLimit (" + spentLimit + ") must be positive.");
+        }
+        if (unimprovedSpentLimit != null && (unimprovedSpentLimit.isNegative() || unimprovedSpentLimit.isZero())) {
+            throw new IllegalArgumentException("The unimprovedSpentLimit (" + unimprovedSpentLimit + ") must be positive.");
+        }
+        if (bestScoreLimit != null) {
+            // fails fast on a malformed score instead of when the solver is built
+            HardMediumSoftScore.parseScore(bestScoreLimit);
+        }
+        if (moveThreadCount != null && !moveThreadCount.equals(SolverConfig.MOVE_THREAD_COUNT_NONE)
+                && !moveThreadCount.equals(SolverConfig.MOVE_THREAD_COUNT_AUTO)) {
+            try {
+                if (Integer.parseInt(moveThreadCount) < 1) {
+                    throw new IllegalArgumentException("The moveThreadCount (" + moveThreadCount + ") must be at least 1.");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The moveThreadCount (" + moveThreadCount + ") must be NONE, AUTO or a number.", e);
+            }
+        }
+    }
+
+    public SolverOverrides(Duration spentLimit, Duration unimprovedSpentLimit, String bestScoreLimit,
+                           String moveThreadCount) {
+        this(spentLimit, unimprovedSpentLimit, bestScoreLimit, moveThreadCount, null);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+
+    /**
+     * @return these overrides without the spent limit if it equals {@code defaultSpentLimit}
+     */
+    public SolverOverrides withoutDefaultSpentLimit(Duration defaultSpentLimit) {
+        return defaultSpentLimit.equals(spentLimit)
+                ? new SolverOverrides(null, unimprovedSpentLimit, bestScoreLimit, moveThreadCount, localSearch)
+                : this;
+    }
+
+    public SolverOverrides withSpentLimit(Duration spentLimit) {
+        return new SolverOverrides(spentLimit, unimprovedSpentLimit, bestScoreLimit, moveThreadCount, localSearch);
+    }
+
+    public SolverOverrides withMoveThreadCount(String moveThreadCount) {
+        return new SolverOverrides(spentLimit, unimprovedSpentLimit, bestScoreLimit, moveThreadCount, localSearch);
+    }
+
+    /**
+     * @param defaultMoveThreadCount the move thread count of the configured solver
+     * @return these overrides with the move thread count of a job solving on {@code cores} CPU cores, unless they set
+     * one already; a count equal to {@code defaultMoveThreadCount} is left out, so such jobs use the configured solver
+     */
+    public SolverOverrides withMoveThreadCountFor(int cores, String defaultMoveThreadCount) {
+        if (moveThreadCount != null) {
+            return this;
+        }
+        String bucket = moveThreadCountFor(cores);
+        return bucket.equals(defaultMoveThreadCount) ? this : withMoveThreadCount(bucket);
+    }
+
+    /**
+     * All but one of the cores become move threads, rounded down to a power of two: jobs of every size then need at
+     * most {@code log2(cores) + 1} distinct solver factories instead of one per core count.
+     */
+    static String moveThreadCountFor(int cores) {
+        return cores <= 1 ? SolverConfig.MOVE_THREAD_COUNT_NONE : String.valueOf(Integer.highestOneBit(cores - 1));
+    }
+
+    public SolverOverrides withLocalSearch(LocalSearchAlgorithm localSearch) {
+        return new SolverOverrides(spentLimit, unimprovedSpentLimit, bestScoreLimit, moveThreadCount, localSearch);
+    }
+
+    /**
+     * @return a copy of {@code base} with these overrides applied, {@code base} is left untouched
+     */
+    public SolverConfig applyTo(SolverConfig base) {
+        SolverConfig solverConfig = base.copyConfig();
+        TerminationConfig terminationConfig = base.getTerminationConfig() == null
+                ? new TerminationConfig()
+                : base.getTerminationConfig().copyConfig();
+        if (spentLimit != null) {
+            // the unit specific limits cannot be combined with spentLimit
+            terminationConfig.setMillisecondsSpentLimit(null);
+            terminationConfig.setSecondsSpentLimit(null);
+            terminationConfig.setMinutesSpentLimit(null);
+            terminationConfig.setHoursSpentLimit(null);
+            terminationConfig.setDaysSpentLimit(null);
+            terminationConfig.setSpentLimit(spentLimit);
+        }
+        if (unimprovedSpentLimit != null) {
+            terminationConfig.setUnimprovedMillisecondsSpentLimit(null);
+            terminationConfig.setUnimprovedSecondsSpentLimit(null);
+            terminationConfig.setUnimprovedMinutesSpentLimit(null);
+            terminationConfig.setUnimprovedHoursSpentLimit(null);
+            terminationConfig.setUnimprovedDaysSpentLimit(null);
+            terminationConfig.setUnimprovedSpentLimit(unimprovedSpentLimit);
+        }
+        if (bestScoreLimit != null) {
+            terminationConfig.setBestScoreLimit(bestScoreLimit);
+        }
+        solverConfig.setTerminationConfig(terminationConfig);
+        if (moveThreadCount != null) {
+            solverConfig.setMoveThreadCount(moveThreadCount);
+        }
+        if (localSearch != null) {
+            // keep the construction heuristic, race only the local search
+            List<PhaseConfig> phaseConfigs = new ArrayList<>();
+            if (base.getPhaseConfigList() == null) {
+                phaseConfigs.add(new ConstructionHeuristicPhaseConfig());
+            } else {
+                base.getPhaseConfigList().stream()
+                        .filter(phaseConfig -> !(phaseConfig instanceof LocalSearchPhaseConfig))
+                        .forEach(phaseConfig -> phaseConfigs.add(phaseConfig.copyConfig()));
+            }
+            phaseConfigs.add(localSearch.toPhaseConfig());
+            solverConfig.setPhaseConfigList(phaseConfigs);
+        }
+        return solverConfig;
+    }
+}
@@ -137,6 +137,43 @@ public class TimetableConstraintConfiguration {
         });
     }
 
+    /**
+     * Copies every weight of {@code other}, used by {@link TimetableSolutionCloner} so a published solution keeps the
+     * weights its score was calculated with.
+     */
+    public TimetableConstraintConfiguration(TimetableConstraintConfiguration other) {
+        applyWeights(other);
+    }
+
+    /**
+     * Copies every weight of {@code other} into this configuration, e.g. to reweight a running solve in place.
+     */
+    public void applyWeights(TimetableConstraintConfiguration other) {
+        roomConflict = other.roomConflict;
+        teacherConflict = other.teacherConflict;
+        studentGroupConflict = other.studentGroupConflict;
+        studentGroupConflictWithGroupBy = other.studentGroupConflictWithGroupBy;
+        capacityRoomConflict = other.capacityRoomConflict;
+        courseStudentsGroupedInTheSameRoom = other.courseStudentsGroupedInTheSameRoom;
+        seminarStudentsGroupedInTheSameRoom = other.seminarStudentsGroupedInTheSameRoom;
+        labsStudentsGroupedInTheSameRoom = other.labsStudentsGroupedInTheSameRoom;
+        roomConflictUniversity = other.roomConflictUniversity;
+        teacherConflictUniversity = other.teacherConflictUniversity;
+        overlappingTimeslot = other.overlappingTimeslot;
+        lessonDurationConflict = other.lessonDurationConflict;
+        maximumCoursesForStudents = other.maximumCoursesForStudents;
+        coursesGroupedInTheSameTimeslot = other.coursesGroupedInTheSameTimeslot;
+        seminarsGroupedInTheSameTimeslot = other.seminarsGroupedInTheSameTimeslot;
+        maximmumCoursesTeached = other.maximmumCoursesTeached;
+        maximizePreferredTimeslotAssignments = other.maximizePreferredTimeslotAssignments;
+        teacherRoomStability = other.teacherRoomStability;
+        teacherTimeEfficiency = other.teacherTimeEfficiency;
+        studentGroupVariety = other.studentGroupVariety;
+        gapsLongerThan4Hours = other.gapsLongerThan4Hours;
+        labsGroupedInTheSameTimeslot = other.labsGroupedInTheSameTimeslot;
+        coursesInTheSameBuilding = other.coursesInTheSameBuilding;
+    }
+
     private HardMediumSoftScore mapStringToHardMediumSoftScore(String weight) {
         return switch (weight) {
             case "HARD" -> HardMediumSoftScore.ONE_HARD;
@@ -9,9 +9,9 @@ import com.patrick.timetableappbackend.model.LessonType;
 import com.patrick.timetableappbackend.model.Room;
 import com.patrick.timetableappbackend.model.StudentGroup;
 import com.patrick.timetableappbackend.model.Teacher;
-import com.patrick.timetableappbackend.model.TeacherTimeslot;
 import com.patrick.timetableappbackend.model.Timeslot;
 
+import com.patrick.timetableappbackend.solver.collectors.LessonGapCollector;
 import com.patrick.timetableappbackend.solver.justifications.RoomConflictJustification;
 import com.patrick.timetableappbackend.solver.justifications.StudentGroupSubjectVarietyJustification;
 import com.patrick.timetableappbackend.solver.justifications.StudentGroupConflictJustification;
@@ -23,10 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.DayOfWeek;
-import java.time.Duration;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.count;
 import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.countDistinct;
@@ -37,12 +33,13 @@ import static ai.timefold.solver.core.api.score.stream.ConstraintCollectors.toLi
 
 public class TimetableConstraintProvider implements ConstraintProvider {
 
-    private static final Map<Long, Set<TeacherTimeslot>> TEACHER_PREFERENCES_CACHE = new ConcurrentHashMap<>();
     final int MAX_HOURS_PER_DAY = 10;
     final int MAX_TEACHED_HOURS_PER_DAY = 12;
-    final Duration MAX_GAP = Duration.ofHours(3);
-    final Duration MAX_GAP_SAME_BUILDING = Duration.ofMinutes(30);
-    final Duration MAX_GAP_TEACHER_EFFICIENCY = Duration.ofMinutes(30);
+    // gaps are measured in minutes on the Timeslot timeline (see Timeslot#getStartMinuteOfWeek())
+    final int MAX_GAP_MINUTES = 3 * 60;
+    final int MAX_GAP_SAME_BUILDING_MINUTES = 30;
+    final int MAX_GAP_TEACHER_EFFICIENCY_MINUTES = 30;
+    final int MAX_GAP_CONSECUTIVE_MINUTES = 30;
 
     @Override
     public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
@@ -111,18 +108,18 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 //university filtering of lessons
                 .filter(((lesson1, lesson2) -> {
                     // Early return for most common case - different series
-                    if (!lesson1.getStudentGroup().getName().equals(lesson2.getStudentGroup().getName())) {
+                    if (lesson1.getStudentGroup().getSeriesId() != lesson2.getStudentGroup().getSeriesId()) {
                         return true; // Conflict - different series can't share room/timeslot
                     }
 
                     // Same series - check specific rules
                     if (lesson1.getLessonType() == LessonType.SEMINAR && lesson2.getLessonType() == LessonType.SEMINAR) {
-                        return !lesson1.getStudentGroup().getStudentGroup().equals(lesson2.getStudentGroup().getStudentGroup()) ||
-                                !lesson1.getSubject().equals(lesson2.getSubject());
+                        return lesson1.getStudentGroup().getGroupId() != lesson2.getStudentGroup().getGroupId() ||
+                                lesson1.getSubjectId() != lesson2.getSubjectId();
                     }
 
                     return !lesson1.getLessonType().equals(lesson2.getLessonType()) ||
-                            !lesson1.getSubject().equals(lesson2.getSubject());
+                            lesson1.getSubjectId() != lesson2.getSubjectId();
                 }))
                 //.penalize(HardSoftScore.ONE_HARD)
                 .penalizeConfigurable()
@@ -159,19 +156,19 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(((lesson1, lesson2) -> {
 
                     // Early return - different series always conflict
-                    if (!lesson1.getStudentGroup().getName().equals(lesson2.getStudentGroup().getName())) {
+                    if (lesson1.getStudentGroup().getSeriesId() != lesson2.getStudentGroup().getSeriesId()) {
                         return true;
                     }
 
                     // Different types, subjects, or rooms - conflict exists
                     if (!lesson1.getLessonType().equals(lesson2.getLessonType()) ||
-                            !lesson1.getSubject().equals(lesson2.getSubject()) ||
+                            lesson1.getSubjectId() != lesson2.getSubjectId() ||
                             !lesson1.getRoom().equals(lesson2.getRoom())) {
                         return true;
                     }
 
                     // Same series, type, subject, room - check group rules
-                    if (lesson1.getStudentGroup().getStudentGroup().equals(lesson2.getStudentGroup().getStudentGroup())) {
+                    if (lesson1.getStudentGroup().getGroupId() == lesson2.getStudentGroup().getGroupId()) {
                         return false; // Same group - no conflict
                     }
 
@@ -230,11 +227,11 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                         //with the same student group
                         Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
                         //in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()),
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayIndex()),
                         //with overlapping timeslots
                         Joiners.overlapping(
-                                lesson -> lesson.getTimeslot().getStartTime(),
-                                lesson -> lesson.getTimeslot().getEndTime()
+                                lesson -> lesson.getTimeslot().getStartMinuteOfWeek(),
+                                lesson -> lesson.getTimeslot().getEndMinuteOfWeek()
                         )
                 )
                 .penalizeConfigurable()
@@ -246,10 +243,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
         //for each lesson ensure that a lesson with duration x is assigned to a timeslot with duration x
         //in future, create a built-in constraint
         return constraintFactory.forEach(Lesson.class)
-                .filter((lesson -> {
-                    long timeslotHours = Duration.between(lesson.getTimeslot().getStartTime(), lesson.getTimeslot().getEndTime()).toHours();
-                    return lesson.getDuration() != timeslotHours;
-                }))
+                .filter((lesson -> lesson.getDuration() != lesson.getTimeslot().getDurationInHours()))
                 .penalizeConfigurable()
                 //.justifyWith()
                 .asConstraint("lessonDurationConflict");
@@ -271,25 +265,8 @@ public class TimetableConstraintProvider implements ConstraintProvider {
 
         //Check if every lesson is assigned according to teacher's availability
         return constraintFactory.forEach(Lesson.class)
-                .filter(lesson -> {
-                    Set<TeacherTimeslot> preferredTimeslots = TEACHER_PREFERENCES_CACHE.computeIfAbsent(
-                            lesson.getTeacher().getId(),
-                            id -> lesson.getTeacher().getPreferredTimeslots()
-                    );
-                    if (preferredTimeslots == null || preferredTimeslots.isEmpty()) {
-                        return false; // No preferences - no penalty
-                    }
-
-                    for(TeacherTimeslot preferred : preferredTimeslots) {
-                        if (preferred.getDayOfWeek().equals(lesson.getTimeslot().getDayOfWeek()) &&
-                                lesson.getTimeslot().getStartTime().compareTo(preferred.getStartTime()) >= 0 &&
-                                lesson.getTimeslot().getEndTime().compareTo(preferred.getEndTime()) <= 0) {
-                            return false; // Found a matching preferred timeslot
-                        }
-                    }
-
-                    return true; // No matching preferred timeslot found
-                })
+                // single bit test against the per-problem TeacherAvailability
+                .filter(Lesson::isOutsidePreferredTimeslots)
 //                .penalize(HardSoftScore.ONE_HARD)
                 .penalizeConfigurable((lesson) -> {
                     return 1;
@@ -305,24 +282,16 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                         //with the sameStudentGroup
                         Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
                         //in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayIndex()))
                 .filter(((lesson1, lesson2) -> {
                     // Quick building check first
-                    if (!lesson1.getRoom().getBuilding().equals(lesson2.getRoom().getBuilding())) {
+                    if (lesson1.getRoom().getBuildingId() != lesson2.getRoom().getBuildingId()) {
                         return false;
                     }
 
-                    // Then check if consecutive
-                    Duration gap = Duration.between(lesson1.getTimeslot().getEndTime(), lesson2.getTimeslot().getStartTime());
-                    boolean isConsecutive = !gap.isNegative() && gap.compareTo(MAX_GAP_SAME_BUILDING) <= 0;
-
-                    if (!isConsecutive) {
-                        // Check reverse order
-                        gap = Duration.between(lesson2.getTimeslot().getEndTime(), lesson1.getTimeslot().getStartTime());
-                        isConsecutive = !gap.isNegative() && gap.compareTo(MAX_GAP_SAME_BUILDING) <= 0;
-                    }
-
-                    return isConsecutive;
+                    // Then check if consecutive, in either order
+                    return isWithinGap(lesson1.getTimeslot(), lesson2.getTimeslot(), MAX_GAP_SAME_BUILDING_MINUTES)
+                            || isWithinGap(lesson2.getTimeslot(), lesson1.getTimeslot(), MAX_GAP_SAME_BUILDING_MINUTES);
                 }))
 //                .reward(HardSoftScore.ONE_SOFT)
                 .rewardConfigurable()
@@ -339,18 +308,17 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                         //for the same student group
                         Joiners.equal(Lesson::getStudentGroup),
                         //in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayIndex()))
                 .filter(((lesson, lesson2) -> {
                     //Consecutive courses
-                    Duration between = Duration.between(lesson.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
+                    boolean consecutive = isWithinGap(lesson.getTimeslot(), lesson2.getTimeslot(), MAX_GAP_CONSECUTIVE_MINUTES);
 
                     if ((lesson.getLessonType().equals(LessonType.SEMINAR) && lesson2.getLessonType().equals(LessonType.LABORATORY))
-                            && (!between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0)) {
+                            && consecutive) {
                         return true;
                     } else
                         return (lesson2.getLessonType().equals(LessonType.SEMINAR) && lesson.getLessonType().equals(LessonType.LABORATORY))
-                                && (!between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0);
+                                && consecutive;
                 }))
 //                .reward(HardSoftScore.ONE_SOFT)
                 .rewardConfigurable()
@@ -376,9 +344,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                                 teacherDayTimeslot.teacher(),
                                 teacherDayTimeslot.dayOfWeek()
                         ),
-                        sum(teacherDayTimeslot -> (int) Duration.between(
-                                teacherDayTimeslot.timeslot().getStartTime(),
-                                teacherDayTimeslot.timeslot().getEndTime()).toHours())
+                        sum(teacherDayTimeslot -> teacherDayTimeslot.timeslot().getDurationInHours())
                 )
                 .filter((teacherDay, totalHours) -> {
                     return totalHours > MAX_TEACHED_HOURS_PER_DAY;
@@ -393,9 +359,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
         return constraintFactory.forEach(Lesson.class)
                 .groupBy(
                         lesson -> new StudentDayOfWeek(lesson.getStudentGroup(), lesson.getTimeslot().getDayOfWeek()),
-                        sum(lesson -> (int) Duration.between(
-                                lesson.getTimeslot().getStartTime(),
-                                lesson.getTimeslot().getEndTime()).toHours())
+                        sum(lesson -> lesson.getTimeslot().getDurationInHours())
                 )
                 .filter((studentDay, totalHours) -> {
                     return totalHours > MAX_HOURS_PER_DAY;
@@ -413,7 +377,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType().equals(LessonType.COURSE))
                 //group the lessons that are in the same timeslot, room
                 // and check the number of all the students in the groups (for those in the same series) that are taking this course
-                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getName(),
+                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getSeriesId(),
                         sum((lesson) -> lesson.getStudentGroup().getNumberOfStudents().intValue()))
                 // check if the total number of students exceeds the room capacity
                 .filter((timeslot, room, series, studentTotal) -> {
@@ -434,7 +398,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType().equals(LessonType.SEMINAR))
                 //group the lessons that are in the same timeslot, room
                 // and check the number of all the students in the groups (for those in the same series) that are taking this course
-                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getStudentGroup(), sum((lesson) -> lesson.getStudentGroup().getNumberOfStudents().intValue()))
+                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getGroupId(), sum((lesson) -> lesson.getStudentGroup().getNumberOfStudents().intValue()))
                 // check if the total number of students exceeds the room capacity
                 .filter((timeslot, room, group, studentTotal) -> {
                     return studentTotal > room.getCapacity();
@@ -454,7 +418,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType().equals(LessonType.LABORATORY))
                 //group the lessons that are in the same timeslot, room
                 // and check the number of all the students in the groups (for those in the same series) that are taking this course
-                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getStudentGroup(), sum((lesson) -> lesson.getStudentGroup().getNumberOfStudents().intValue()))
+                .groupBy(lesson -> lesson.getTimeslot().getId(), Lesson::getRoom, (lesson) -> lesson.getStudentGroup().getGroupId(), sum((lesson) -> lesson.getStudentGroup().getNumberOfStudents().intValue()))
                 // check if the total number of students exceeds the room capacity
                 .filter((timeslot, room, group, studentTotal) -> {
                     return studentTotal > room.getCapacity();
@@ -475,7 +439,7 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 // and check the number of all the students in the groups (for those in the same series) that are taking this course
                 .groupBy(lesson -> lesson.getTimeslot().getId(),
                         Lesson::getRoom,
-                        lesson -> lesson.getStudentGroup().getStudentGroup(),
+                        lesson -> lesson.getStudentGroup().getGroupId(),
                         sum(lesson -> lesson.getStudentGroup().getNumberOfStudents().intValue())
                 )
                 // check if the total number of students exceeds the room capacity
@@ -493,8 +457,8 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType() == LessonType.COURSE)
                 // check if a lesson breaks "courses by student series" constraint
                 .groupBy(
-                        (lesson) -> lesson.getStudentGroup().getName(),
-                        Lesson::getSubject,
+                        (lesson) -> lesson.getStudentGroup().getSeriesId(),
+                        Lesson::getSubjectId,
                         countDistinct(lesson -> TimeslotRoom.ofTR(lesson.getTimeslot(), lesson.getRoom())))
                 .filter((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount > 1)
                 .penalizeConfigurable((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount - 1)
@@ -511,8 +475,8 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType() == LessonType.SEMINAR)
                 // check if a lesson breaks "seminars by student groups" constraint
                 .groupBy(
-                        (lesson) -> lesson.getStudentGroup().getStudentGroup(),
-                        Lesson::getSubject,
+                        (lesson) -> lesson.getStudentGroup().getGroupId(),
+                        Lesson::getSubjectId,
                         countDistinct(lesson -> TimeslotRoom.ofTR(lesson.getTimeslot(), lesson.getRoom())))
                 .filter((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount > 1)
                 .penalizeConfigurable((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount - 1)
@@ -529,8 +493,8 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType() == LessonType.LABORATORY)
                 // check if a lesson breaks "laboratories by student groups where it is possible" constraint
                 .groupBy(
-                        (lesson) -> lesson.getStudentGroup().getStudentGroup(),
-                        Lesson::getSubject,
+                        (lesson) -> lesson.getStudentGroup().getGroupId(),
+                        Lesson::getSubjectId,
                         countDistinct(lesson -> TimeslotRoom.ofTR(lesson.getTimeslot(), lesson.getRoom())))
                 .filter((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount > 1)
                 .penalizeConfigurable((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount - 1)
@@ -546,8 +510,8 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 .filter(lesson -> lesson.getLessonType() != LessonType.COURSE)
                 // check if a lesson breaks "laboratories/seminars/projects by student groups where it is possible" constraint
                 .groupBy(
-                        (lesson) -> lesson.getStudentGroup().getStudentGroup(),
-                        Lesson::getSubject,
+                        (lesson) -> lesson.getStudentGroup().getGroupId(),
+                        Lesson::getSubjectId,
                         countDistinct(lesson -> TimeslotRoom.ofTR(lesson.getTimeslot(), lesson.getRoom())))
                 .filter((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount > 1)
                 .penalizeConfigurable((group, subject, timeslotAndRoomCount) -> timeslotAndRoomCount - 1)
@@ -559,32 +523,15 @@ public class TimetableConstraintProvider implements ConstraintProvider {
 
         // 4 hours gaps between lessons for students in the same day
         return constraintFactory
-                //select each 2 pair of different lessons
                 .forEach(Lesson.class)
-                .join(Lesson.class,
-                        //with the same student group
-                        Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
-                        //in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()),
-                        //the first lesson's timeslot is before the second lesson's timeslot
-                        Joiners.lessThan(lesson -> lesson.getTimeslot().getStartTime(),
-                                lesson -> lesson.getTimeslot().getStartTime()))
-                .ifNotExists(Lesson.class,
-                        //with the same student group
-                        Joiners.equal((a, b) -> a.getStudentGroup().getId(), lesson -> lesson.getStudentGroup().getId()),
-                        //in the same day
-                        Joiners.equal((a, b) -> a.getTimeslot().getDayOfWeek(), (lesson) -> lesson.getTimeslot().getDayOfWeek()),
-                        //is between the two timeslots
-                        Joiners.lessThan((a, b) -> a.getTimeslot().getEndTime(), (lesson) -> lesson.getTimeslot().getStartTime()),
-                        Joiners.greaterThan((a, b) -> b.getTimeslot().getStartTime(), (lesson) -> lesson.getTimeslot().getStartTime())
-                )
-                .filter((lesson1, lesson2) -> {
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    return !between.isNegative() && between.compareTo(MAX_GAP) > 0;
-                })
+                //for the same student group, in the same day
+                .groupBy(lesson -> lesson.getStudentGroup().getId(),
+                        lesson -> lesson.getTimeslot().getDayIndex(),
+                        //count the gaps between adjacent lessons (sorted by start time)
+                        new LessonGapCollector(MAX_GAP_MINUTES))
+                .filter((studentGroupId, dayIndex, gaps) -> gaps > 0)
 //                .penalize(HardSoftScore.ONE_SOFT)
-                .penalizeConfigurable()
+                .penalizeConfigurable((studentGroupId, dayIndex, gaps) -> gaps)
                 //.justifyWith()
                 .asConstraint("gapsLongerThan4Hours");
     }
@@ -595,13 +542,14 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                 //select each 2 pair of *different* lessons
                 .forEachUniquePair(Lesson.class,
                         // with the same teacher
-                        Joiners.equal(lesson -> lesson.getTeacher().getId())
+                        Joiners.equal(lesson -> lesson.getTeacher().getId()),
+                        // in the same timeslot (which also means the same day) ...
+                        Joiners.equal(lesson -> lesson.getTimeslot().getId()),
+                        // ... and the same room, so only candidate pairs reach the filter
+                        Joiners.equal(lesson -> lesson.getRoom().getId())
                 )
                 .filter((lesson1, lesson2) -> {
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    boolean consecutiveLessons = !between.isNegative()
-                            && between.compareTo(Duration.ofMinutes(30)) <= 0;
+                    boolean consecutiveLessons = isWithinGap(lesson1.getTimeslot(), lesson2.getTimeslot(), MAX_GAP_CONSECUTIVE_MINUTES);
                     return consecutiveLessons && lesson1.getRoom().equals(lesson2.getRoom())
                             && lesson1.getTimeslot().equals(lesson2.getTimeslot());
                 })
@@ -618,12 +566,9 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                         // with the same teacher
                         Joiners.equal(lesson -> lesson.getTeacher().getId()),
                         // in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
-                .filter((lesson1, lesson2) -> {
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    return !between.isNegative() && between.compareTo(MAX_GAP_TEACHER_EFFICIENCY) <= 0;
-                })
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayIndex()))
+                .filter((lesson1, lesson2) ->
+                        isWithinGap(lesson1.getTimeslot(), lesson2.getTimeslot(), MAX_GAP_TEACHER_EFFICIENCY_MINUTES))
 //                .reward(HardSoftScore.ONE_SOFT)
                 .rewardConfigurable()
                 .justifyWith((lesson1, lesson2, score) -> new TeacherTimeEfficiencyJustification(lesson1.getTeacher(), lesson1, lesson2))
@@ -639,21 +584,23 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                         //for the same student group
                         Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
                         //with the same subject
-                        Joiners.equal(Lesson::getSubject),
+                        Joiners.equal(Lesson::getSubjectId),
                         //in the same day
-                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
-                .filter((lesson1, lesson2) -> {
-                    //check if the lessons are consecutive
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    return !between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0;
-                })
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayIndex()))
+                //check if the lessons are consecutive
+                .filter((lesson1, lesson2) ->
+                        isWithinGap(lesson1.getTimeslot(), lesson2.getTimeslot(), MAX_GAP_CONSECUTIVE_MINUTES))
                 .penalizeConfigurable()
 //                .penalize(HardSoftScore.ONE_SOFT)
                 .justifyWith((lesson1, lesson2, score) -> new StudentGroupSubjectVarietyJustification(lesson1.getStudentGroup(), lesson1, lesson2))
                 .asConstraint("studentGroupVariety");
     }
 
+    // true if the second timeslot starts after the first one ends, with a gap of at most maxGapMinutes
+    private static boolean isWithinGap(Timeslot first, Timeslot second, int maxGapMinutes) {
+        int gap = second.getStartMinuteOfWeek() - first.getEndMinuteOfWeek();
+        return gap >= 0 && gap <= maxGapMinutes;
+    }
 
     public record TeacherDayOfWeek(Teacher teacher, DayOfWeek dayOfWeek) {
 
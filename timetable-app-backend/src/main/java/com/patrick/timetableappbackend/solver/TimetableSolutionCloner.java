@@ -0,0 +1,51 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.domain.solution.cloner.SolutionCloner;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written planning clone of a {@link Timetable}, replacing Timefold's reflection-based cloner.
+ * <p>
+ * Only the lessons (the planning entities) and the constraint configuration are copied. The configuration is a problem
+ * property that {@link com.patrick.timetableappbackend.solver.changes.UpdateConstraintWeightsProblemChange} reweights
+ * in place, a shared instance would change the weights of solutions already published with a score of the old ones.
+ * Timeslots, rooms, the key ids and the precomputed lookups are problem facts that are never mutated during solving, so the clone
+ * shares them with the original. Problem changes that alter facts must replace those lists instead of mutating them
+ * in place.
+ */
+public class TimetableSolutionCloner implements SolutionCloner<Timetable> {
+
+    @Override
+    public Timetable cloneSolution(Timetable original) {
+        Timetable clone = new Timetable();
+        clone.setTimeslots(original.getTimeslots());
+        clone.setRooms(original.getRooms());
+        TimetableConstraintConfiguration configuration = original.getTimetableConstraintConfiguration();
+        clone.setTimetableConstraintConfiguration(configuration == null ? null
+                : new TimetableConstraintConfiguration(configuration));
+        clone.setScore(original.getScore());
+        clone.setSolverStatus(original.getSolverStatus());
+        clone.setDuration(original.getDuration());
+        clone.setSolutionVersion(original.getSolutionVersion());
+        // share the lookups last, the fact setters above reset them
+        clone.setSportKeywords(original.getSportKeywords());
+        clone.setTimeslotsByDuration(original.getTimeslotsByDuration());
+        clone.setTeacherAvailability(original.getTeacherAvailability());
+        clone.setRoomEligibility(original.getRoomEligibility());
+        clone.setKeyInterner(original.getKeyInterner());
+
+        List<Lesson> originalLessons = original.getLessons();
+        if (originalLessons != null) {
+            List<Lesson> lessons = new ArrayList<>(originalLessons.size());
+            for (Lesson lesson : originalLessons) {
+                lessons.add(new Lesson(lesson, clone));
+            }
+            clone.setLessons(lessons);
+        }
+        return clone;
+    }
+}
@@ -0,0 +1,45 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a lesson to a running solve. Its timeslot and room, if any, are resolved to the working solution's
+ * instances; the construction heuristic places it otherwise.
+ *
+ * @param lesson a lesson that is not part of the job yet, it becomes a planning entity of the working solution
+ */
+public record AddLessonProblemChange(Lesson lesson) implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        if (WorkingObjects.lesson(workingSolution.getLessons(), lesson.getId()) != null) {
+            return;
+        }
+        lesson.setTimeslot(WorkingObjects.timeslot(workingSolution.getTimeslots(),
+                lesson.getTimeslot() == null ? null : lesson.getTimeslot().getId()));
+        lesson.setRoom(WorkingObjects.room(workingSolution.getRooms(),
+                lesson.getRoom() == null ? null : lesson.getRoom().getId()));
+        if (lesson.getTimeslot() == null || lesson.getRoom() == null) {
+            // only a fully assigned lesson can stay pinned
+            lesson.setPinned(false);
+        }
+        lesson.setTimetable(workingSolution);
+        // scored as soon as it is added, its keys need their ids in the working solution first
+        workingSolution.normalizeKeys(lesson);
+        problemChangeDirector.addEntity(lesson, added -> {
+            // the list may be shared with published best solutions, never add in place
+            List<Lesson> lessons = new ArrayList<>(workingSolution.getLessons());
+            lessons.add(added);
+            workingSolution.setLessons(lessons);
+        });
+        // the lesson may bring a new teacher, group size or sport classification
+        workingSolution.rebuildTeacherAvailability();
+        workingSolution.rebuildRoomEligibility();
+    }
+}
@@ -0,0 +1,30 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a timeslot to a running solve; lessons of the same duration may be moved into it.
+ */
+public record AddTimeslotProblemChange(Timeslot timeslot) implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        if (WorkingObjects.timeslot(workingSolution.getTimeslots(), timeslot.getId()) != null) {
+            return;
+        }
+        problemChangeDirector.addProblemFact(timeslot, added -> {
+            // the list is shared with published best solutions, never add in place
+            List<Timeslot> timeslots = new ArrayList<>(workingSolution.getTimeslots());
+            timeslots.add(added);
+            workingSolution.setTimeslots(timeslots);
+        });
+        // appended last: existing timeslots keep their index, the duration index and teacher bitsets are rebuilt
+        workingSolution.rebuildTimeslotIndex();
+    }
+}
@@ -0,0 +1,41 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+
+/**
+ * Pins a lesson of a running solve, optionally moving it to a given timeslot and room first, or unpins it.
+ *
+ * @param timeslotId the timeslot to pin the lesson to, null to keep its current one
+ * @param roomId the room to pin the lesson to, null to keep its current one
+ */
+public record PinLessonProblemChange(Long lessonId, boolean pinned, Long timeslotId, Long roomId)
+        implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Lesson lesson = WorkingObjects.lesson(workingSolution.getLessons(), lessonId);
+        if (lesson == null) {
+            return;
+        }
+        if (pinned) {
+            Timeslot timeslot = WorkingObjects.timeslot(workingSolution.getTimeslots(), timeslotId);
+            if (timeslot != null && timeslot != lesson.getTimeslot()) {
+                problemChangeDirector.changeVariable(lesson, "timeslot", working -> working.setTimeslot(timeslot));
+            }
+            Room room = WorkingObjects.room(workingSolution.getRooms(), roomId);
+            if (room != null && room != lesson.getRoom()) {
+                problemChangeDirector.changeVariable(lesson, "room", working -> working.setRoom(room));
+            }
+        }
+        // only a fully assigned lesson can be pinned
+        boolean pin = pinned && lesson.getTimeslot() != null && lesson.getRoom() != null;
+        if (pin != lesson.isPinned()) {
+            problemChangeDirector.changeProblemProperty(lesson, working -> working.setPinned(pin));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes a lesson from a running solve.
+ */
+public record RemoveLessonProblemChange(Long lessonId) implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Lesson lesson = WorkingObjects.lesson(workingSolution.getLessons(), lessonId);
+        if (lesson == null) {
+            return;
+        }
+        problemChangeDirector.removeEntity(lesson, removed -> {
+            List<Lesson> lessons = new ArrayList<>(workingSolution.getLessons());
+            lessons.remove(removed);
+            workingSolution.setLessons(lessons);
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timetable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes a room from a running solve. Lessons in that room are unassigned (and unpinned) and placed again.
+ */
+public record RemoveRoomProblemChange(Long roomId) implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Room room = WorkingObjects.room(workingSolution.getRooms(), roomId);
+        if (room == null) {
+            return;
+        }
+        for (Lesson lesson : workingSolution.getLessons()) {
+            if (lesson.getRoom() == room) {
+                if (lesson.isPinned()) {
+                    problemChangeDirector.changeProblemProperty(lesson, working -> working.setPinned(false));
+                }
+                problemChangeDirector.changeVariable(lesson, "room", working -> working.setRoom(null));
+            }
+        }
+        problemChangeDirector.removeProblemFact(room, removed -> {
+            // the list is shared with published best solutions, never remove in place
+            List<Room> rooms = new ArrayList<>(workingSolution.getRooms());
+            rooms.remove(removed);
+            workingSolution.setRooms(rooms);
+        });
+        workingSolution.rebuildRoomEligibility();
+    }
+}
@@ -0,0 +1,27 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+
+/**
+ * Reweights the constraints of a running solve. Changing the constraint configuration makes the score director
+ * rescore the whole working solution with the new weights; the solver then continues from there.
+ * <p>
+ * The configuration instance is updated in place, as the score director only rescores when the registered
+ * configuration itself changes. Published best solutions are safe, {@link
+ * com.patrick.timetableappbackend.solver.TimetableSolutionCloner} gives each of them its own copy of the configuration.
+ */
+public record UpdateConstraintWeightsProblemChange(TimetableConstraintConfiguration weights)
+        implements ProblemChange<Timetable> {
+
+    @Override
+    public void doChange(Timetable workingSolution, ProblemChangeDirector problemChangeDirector) {
+        TimetableConstraintConfiguration configuration = workingSolution.getTimetableConstraintConfiguration();
+        if (configuration == null) {
+            return;
+        }
+        problemChangeDirector.changeProblemProperty(configuration, working -> working.applyWeights(weights));
+    }
+}
@@ -0,0 +1,42 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Id lookups in the working solution. Problem changes are rare, a linear scan is cheaper than keeping indexes in sync.
+ */
+final class WorkingObjects {
+
+    private WorkingObjects() {
+    }
+
+    static Lesson lesson(List<Lesson> lessons, Long id) {
+        return find(lessons, Lesson::getId, id);
+    }
+
+    static Timeslot timeslot(List<Timeslot> timeslots, Long id) {
+        return find(timeslots, Timeslot::getId, id);
+    }
+
+    static Room room(List<Room> rooms, Long id) {
+        return find(rooms, Room::getId, id);
+    }
+
+    private static <T> T find(List<T> items, Function<T, Long> idFunction, Long id) {
+        if (items == null || id == null) {
+            return null;
+        }
+        for (T item : items) {
+            if (Objects.equals(idFunction.apply(item), id)) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
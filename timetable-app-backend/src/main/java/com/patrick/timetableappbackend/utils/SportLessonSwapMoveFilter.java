@@ -9,6 +9,12 @@ import com.patrick.timetableappbackend.model.Timetable;
 
 import java.time.Duration;
 
+/**
+ * @deprecated sport and non-sport rooms are now pruned from each lesson's value range
+ * ({@link com.patrick.timetableappbackend.model.Lesson#getPossibleRooms()}), so the solver never generates
+ * these moves in the first place.
+ */
+@Deprecated
 public class SportLessonSwapMoveFilter implements SelectionFilter<Timetable, SwapMove> {
 
     @Override
@@ -0,0 +1,307 @@
+package com.patrick.timetableappbackend.utils;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.LessonType;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.SemiGroup;
+import com.patrick.timetableappbackend.model.StudentGroup;
+import com.patrick.timetableappbackend.model.Teacher;
+import com.patrick.timetableappbackend.model.TeacherTimeslot;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.model.Year;
+import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates university timetable problems of any size for load and scaling tests, the same parameters and seed always
+ * generate the same problem.
+ * <p>
+ * Every subject of a series has a course, attended by all groups of the series together, and one seminar, laboratory
+ * or project per group. First year series have Physical Education twice a week instead of their last subject when
+ * there is a gym. All lessons are unassigned and last one timeslot.
+ */
+public final class SyntheticTimetableGenerator {
+
+    private static final List<String> SUBJECTS = List.of("Mathematical Analysis", "Linear Algebra", "Programming",
+            "Data Structures", "Algorithms", "Operating Systems", "Computer Networks", "Databases",
+            "Software Engineering", "Computer Architecture", "Physics", "Statistics", "Logic", "Formal Languages",
+            "Compilers", "Artificial Intelligence", "Machine Learning", "Computer Graphics", "Distributed Systems",
+            "Cryptography", "Numerical Methods", "Web Technologies", "Economics", "English");
+    private static final String SPORT_SUBJECT = "Physical Education";
+    private static final int ROOMS_PER_GYM = 20;
+    private static final double LECTURE_HALL_SHARE = 0.2;
+    private static final int MIN_GROUP_SIZE = 20;
+    private static final int MAX_GROUP_SIZE = 30;
+    // every teacher with preferred timeslots prefers each teaching day with this probability
+    private static final double PREFERRED_DAY_PROBABILITY = 0.6;
+
+    private SyntheticTimetableGenerator() {
+    }
+
+    /**
+     * @return an unassigned problem with the constraint weights of {@code import-examples/timetable_data.json}
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static Timetable generate(SyntheticDatasetRequest spec) {
+        validate(spec);
+        Random random = new Random(spec.getSeed());
+        List<Timeslot> timeslots = timeslots(spec);
+        List<Room> rooms = rooms(spec, random);
+        List<Teacher> teachers = teachers(spec, random);
+        boolean gym = spec.getRooms() >= ROOMS_PER_GYM;
+
+        List<Lesson> lessons = new ArrayList<>((int) lessonCount(spec));
+        long groupId = 1L;
+        long lessonId = 1L;
+        for (int series = 0; series < spec.getSeries(); series++) {
+            String seriesName = "Series " + (series + 1);
+            Year year = Year.values()[series % 4];
+            List<StudentGroup> groups = new ArrayList<>(spec.getGroupsPerSeries());
+            for (int group = 0; group < spec.getGroupsPerSeries(); group++) {
+                StudentGroup studentGroup = new StudentGroup(groupId++, year, seriesName, seriesName + "-" + (group + 1),
+                        (long) (MIN_GROUP_SIZE + random.nextInt(MAX_GROUP_SIZE - MIN_GROUP_SIZE + 1)));
+                studentGroup.setSemiGroup(SemiGroup.SEMI_GROUP0);
+                groups.add(studentGroup);
+            }
+            int subjects = (spec.getLessonsPerGroup() + 1) / 2;
+            // filled subject by subject, so every group of the series gets the same subjects
+            List<List<Lesson>> lessonsByGroup = new ArrayList<>(groups.size());
+            groups.forEach(group -> lessonsByGroup.add(new ArrayList<>(spec.getLessonsPerGroup())));
+            for (int subject = 0; subject < subjects; subject++) {
+                boolean sport = gym && year == Year.FIRST && subject == subjects - 1;
+                String subjectName = sport ? SPORT_SUBJECT : subjectName(series, subject);
+                Teacher courseTeacher = teachers.get(random.nextInt(teachers.size()));
+                LessonType practiceType = practiceType(random);
+                for (int group = 0; group < groups.size(); group++) {
+                    Teacher practiceTeacher = teachers.get(random.nextInt(teachers.size()));
+                    List<Lesson> groupLessons = lessonsByGroup.get(group);
+                    groupLessons.add(lesson(lessonId++, subjectName, sport ? LessonType.SEMINAR : LessonType.COURSE,
+                            sport ? practiceTeacher : courseTeacher, groups.get(group), spec));
+                    if (groupLessons.size() < spec.getLessonsPerGroup()) {
+                        groupLessons.add(lesson(lessonId++, subjectName, sport ? LessonType.SEMINAR : practiceType,
+                                practiceTeacher, groups.get(group), spec));
+                    }
+                }
+            }
+            lessonsByGroup.forEach(lessons::addAll);
+        }
+        return new Timetable(timeslots, rooms, lessons, defaultWeights());
+    }
+
+    /**
+     * @return a copy of {@code spec} with about {@code lessons} lessons: the number of series, teachers and rooms grows
+     * with the lessons, while the shape of a series, the buildings and the timeslot grid stay the same
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static SyntheticDatasetRequest scaledTo(SyntheticDatasetRequest spec, int lessons) {
+        validate(spec);
+        if (lessons < 1) {
+            throw new IllegalArgumentException("The lessons (" + lessons + ") must be at least 1.");
+        }
+        int series = Math.max(1, Math.round((float) lessons / (spec.getGroupsPerSeries() * spec.getLessonsPerGroup())));
+        double factor = (double) series / spec.getSeries();
+        return new SyntheticDatasetRequest(spec.getSeed(), series, spec.getGroupsPerSeries(), spec.getLessonsPerGroup(),
+                Math.max(1, (int) Math.ceil(spec.getTeachers() * factor)),
+                Math.max(spec.getBuildings(), (int) Math.ceil(spec.getRooms() * factor)),
+                spec.getBuildings(), spec.getDays(), spec.getTimeslotsPerDay(), spec.getTimeslotMinutes(),
+                spec.getDayStart(), spec.getPreferenceDensity());
+    }
+
+    public static long lessonCount(SyntheticDatasetRequest spec) {
+        return (long) spec.getSeries() * spec.getGroupsPerSeries() * spec.getLessonsPerGroup();
+    }
+
+    /**
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static void validate(SyntheticDatasetRequest spec) {
+        atLeastOne("series", spec.getSeries());
+        atLeastOne("groupsPerSeries", spec.getGroupsPerSeries());
+        atLeastOne("lessonsPerGroup", spec.getLessonsPerGroup());
+        atLeastOne("teachers", spec.getTeachers());
+        atLeastOne("rooms", spec.getRooms());
+        atLeastOne("buildings", spec.getBuildings());
+        atLeastOne("timeslotsPerDay", spec.getTimeslotsPerDay());
+        if (spec.getBuildings() > spec.getRooms()) {
+            throw new IllegalArgumentException("The buildings (" + spec.getBuildings() + ") must not outnumber the rooms ("
+                    + spec.getRooms() + ").");
+        }
+        if (spec.getDays() < 1 || spec.getDays() > 7) {
+            throw new IllegalArgumentException("The days (" + spec.getDays() + ") must be between 1 and 7.");
+        }
+        if (spec.getTimeslotMinutes() < 60 || spec.getTimeslotMinutes() % 60 != 0) {
+            throw new IllegalArgumentException("The timeslotMinutes (" + spec.getTimeslotMinutes()
+                    + ") must be a whole number of hours.");
+        }
+        if (spec.getDayStart() == null || spec.getDayStart().toSecondOfDay() / 60
+                + (long) spec.getTimeslotsPerDay() * spec.getTimeslotMinutes() >= 24 * 60) {
+            throw new IllegalArgumentException("The timeslots (" + spec.getTimeslotsPerDay() + " of "
+                    + spec.getTimeslotMinutes() + " minutes from " + spec.getDayStart() + ") must end before midnight.");
+        }
+        if (spec.getPreferenceDensity() < 0.0 || spec.getPreferenceDensity() > 1.0) {
+            throw new IllegalArgumentException("The preferenceDensity (" + spec.getPreferenceDensity()
+                    + ") must be between 0 and 1.");
+        }
+    }
+
+    /**
+     * Writes a generated problem as JSON, in the format of {@code import-examples/timetable_data.json}, e.g.
+     * {@code mvn exec:java -Dexec.mainClass=com.patrick.timetableappbackend.utils.SyntheticTimetableGenerator
+     * -Dexec.args="--lessons=5000 --seed=7 --out=timetable_5000.json"}.
+     * <p>
+     * Every field of {@link SyntheticDatasetRequest} is an option, {@code --lessons} scales the problem with
+     * {@link #scaledTo(SyntheticDatasetRequest, int)}. Without {@code --out} the JSON is written to standard output.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("The argument (" + arg + ") must look like --name=value.");
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        String out = options.remove("out");
+        String lessons = options.remove("lessons");
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SyntheticDatasetRequest spec = objectMapper.convertValue(options, SyntheticDatasetRequest.class);
+        if (lessons != null) {
+            spec = scaledTo(spec, Integer.parseInt(lessons));
+        }
+        ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
+        if (out == null) {
+            writer.writeValue(System.out, generate(spec));
+        } else {
+            writer.writeValue(new File(out), generate(spec));
+        }
+    }
+
+    private static List<Timeslot> timeslots(SyntheticDatasetRequest spec) {
+        List<Timeslot> timeslots = new ArrayList<>(spec.getDays() * spec.getTimeslotsPerDay());
+        for (int day = 0; day < spec.getDays(); day++) {
+            for (int slot = 0; slot < spec.getTimeslotsPerDay(); slot++) {
+                LocalTime start = spec.getDayStart().plusMinutes((long) slot * spec.getTimeslotMinutes());
+                timeslots.add(new Timeslot((long) timeslots.size() + 1, DayOfWeek.of(day + 1), start,
+                        start.plusMinutes(spec.getTimeslotMinutes())));
+            }
+        }
+        return timeslots;
+    }
+
+    /**
+     * Lecture halls fit a whole series, classrooms about one group; the rooms take turns over the buildings.
+     */
+    private static List<Room> rooms(SyntheticDatasetRequest spec, Random random) {
+        int gyms = spec.getRooms() / ROOMS_PER_GYM;
+        int lectureHalls = Math.max(1, (int) Math.round(spec.getRooms() * LECTURE_HALL_SHARE));
+        long seriesSize = (long) spec.getGroupsPerSeries() * MAX_GROUP_SIZE;
+        List<Room> rooms = new ArrayList<>(spec.getRooms());
+        for (int i = 0; i < spec.getRooms(); i++) {
+            long id = i + 1;
+            Room room;
+            if (i < gyms) {
+                room = new Room(id, "Gym " + (i + 1), 2L * MAX_GROUP_SIZE);
+            } else if (i < gyms + lectureHalls) {
+                room = new Room(id, "Hall " + (i - gyms + 1), seriesSize + 10L * random.nextInt(3));
+            } else {
+                room = new Room(id, "Room " + (i - gyms - lectureHalls + 1),
+                        (long) (MIN_GROUP_SIZE + 5 + random.nextInt(MAX_GROUP_SIZE - MIN_GROUP_SIZE + 11)));
+            }
+            room.setBuilding("Building " + (i % spec.getBuildings() + 1));
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    /**
+     * A teacher with preferred timeslots prefers whole teaching days, like "only Monday to Wednesday".
+     */
+    private static List<Teacher> teachers(SyntheticDatasetRequest spec, Random random) {
+        LocalTime dayEnd = spec.getDayStart().plusMinutes((long) spec.getTimeslotsPerDay() * spec.getTimeslotMinutes());
+        List<Teacher> teachers = new ArrayList<>(spec.getTeachers());
+        for (int i = 0; i < spec.getTeachers(); i++) {
+            Set<TeacherTimeslot> preferredTimeslots = new HashSet<>();
+            if (random.nextDouble() < spec.getPreferenceDensity()) {
+                for (int day = 0; day < spec.getDays(); day++) {
+                    if (random.nextDouble() < PREFERRED_DAY_PROBABILITY) {
+                        preferredTimeslots.add(new TeacherTimeslot(DayOfWeek.of(day + 1), spec.getDayStart(), dayEnd));
+                    }
+                }
+                if (preferredTimeslots.isEmpty()) {
+                    preferredTimeslots.add(new TeacherTimeslot(DayOfWeek.of(random.nextInt(spec.getDays()) + 1),
+                            spec.getDayStart(), dayEnd));
+                }
+            }
+            teachers.add(Teacher.builder()
+                    .id((long) i + 1)
+                    .name("Teacher " + (i + 1))
+                    .preferredTimeslots(preferredTimeslots)
+                    .build());
+        }
+        return teachers;
+    }
+
+    /**
+     * Seminars are the most common practical lessons, then laboratories, then projects.
+     */
+    private static LessonType practiceType(Random random) {
+        int draw = random.nextInt(10);
+        if (draw < 5) {
+            return LessonType.SEMINAR;
+        }
+        return draw < 9 ? LessonType.LABORATORY : LessonType.PROJECT;
+    }
+
+    private static String subjectName(int series, int subject) {
+        // neighbouring series share some subjects, as related specializations do
+        String name = SUBJECTS.get((series * 5 + subject) % SUBJECTS.size());
+        return subject < SUBJECTS.size() ? name : name + " " + (subject / SUBJECTS.size() + 1);
+    }
+
+    private static Lesson lesson(long id, String subject, LessonType lessonType, Teacher teacher, StudentGroup studentGroup,
+                                 SyntheticDatasetRequest spec) {
+        Lesson lesson = new Lesson(id, subject, lessonType, teacher, studentGroup, spec.getTimeslotMinutes() / 60,
+                null, null);
+        lesson.setYear(studentGroup.getYear());
+        return lesson;
+    }
+
+    private static TimetableConstraintConfiguration defaultWeights() {
+        TimetableConstraintConfiguration weights = new TimetableConstraintConfiguration();
+        weights.setRoomConflict(HardMediumSoftScore.ONE_HARD);
+        weights.setTeacherConflict(HardMediumSoftScore.ONE_HARD);
+        weights.setStudentGroupConflictWithGroupBy(HardMediumSoftScore.ONE_HARD);
+        weights.setLessonDurationConflict(HardMediumSoftScore.ONE_HARD);
+        weights.setTeacherRoomStability(HardMediumSoftScore.ONE_SOFT);
+        weights.setTeacherTimeEfficiency(HardMediumSoftScore.ONE_SOFT);
+        weights.setStudentGroupVariety(HardMediumSoftScore.ONE_SOFT);
+        return weights;
+    }
+
+    private static void atLeastOne(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The " + name + " (" + value + ") must be at least 1.");
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.patrick.timetableappbackend.utils;
 import com.patrick.timetableappbackend.model.Timeslot;
 import org.apache.commons.lang3.builder.CompareToBuilder;
 
-import java.time.Duration;
 import java.util.Comparator;
 
 public class TimeslotStrengthComparator implements Comparator<Timeslot> {
@@ -16,7 +15,6 @@ public class TimeslotStrengthComparator implements Comparator<Timeslot> {
     }
 
     private int calculateTimeslotDuration(Timeslot timeslot) {
-        Duration duration = Duration.between(timeslot.getStartTime(), timeslot.getEndTime());
-        return (int) duration.abs().toHours();
+        return Math.abs(timeslot.getDurationInMinutes()) / 60;
     }
 }
@@ -0,0 +1,176 @@
+package com.patrick.timetableappbackend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimetableTest {
+
+    private static final Timeslot ONE_HOUR = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0));
+    private static final Timeslot TWO_HOURS = new Timeslot(2L, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0));
+    private static final Timeslot TWO_HOURS_LATER = new Timeslot(3L, DayOfWeek.TUESDAY, LocalTime.of(12, 0), LocalTime.of(14, 0));
+
+    @Test
+    void possibleTimeslotsMatchLessonDuration() {
+        Lesson oneHourLesson = new Lesson(1, "Subject1", null, null, null, null, 1);
+        Lesson twoHourLesson = new Lesson(2, "Subject2", null, null, null, null, 2);
+        Lesson threeHourLesson = new Lesson(3, "Subject3", null, null, null, null, 3);
+
+        Timetable timetable = new Timetable(List.of(ONE_HOUR, TWO_HOURS, TWO_HOURS_LATER), List.of(),
+                List.of(oneHourLesson, twoHourLesson, threeHourLesson));
+        timetable.prepareForSolving();
+
+        assertEquals(List.of(ONE_HOUR), oneHourLesson.getPossibleTimeslots());
+        assertEquals(List.of(TWO_HOURS, TWO_HOURS_LATER), twoHourLesson.getPossibleTimeslots());
+        assertTrue(threeHourLesson.getPossibleTimeslots().isEmpty());
+    }
+
+    @Test
+    void possibleTimeslotsAreSharedBetweenLessonsWithTheSameDuration() {
+        Lesson firstLesson = new Lesson(1, "Subject1", null, null, null, null, 2);
+        Lesson secondLesson = new Lesson(2, "Subject2", null, null, null, null, 2);
+
+        Timetable timetable = new Timetable(List.of(ONE_HOUR, TWO_HOURS), List.of(), List.of(firstLesson, secondLesson));
+        timetable.prepareForSolving();
+
+        assertSame(firstLesson.getPossibleTimeslots(), secondLesson.getPossibleTimeslots());
+        assertSame(firstLesson.getPossibleTimeslots(), firstLesson.getPossibleTimeslots());
+    }
+
+    @Test
+    void timeslotIndexIsRebuiltWhenTimeslotsChange() {
+        Lesson lesson = new Lesson(1, "Subject1", null, null, null, null, 2);
+        List<Timeslot> timeslots = new ArrayList<>(List.of(ONE_HOUR, TWO_HOURS));
+
+        Timetable timetable = new Timetable(timeslots, List.of(), List.of(lesson));
+        timetable.prepareForSolving();
+        assertEquals(List.of(TWO_HOURS), lesson.getPossibleTimeslots());
+
+        timeslots.add(TWO_HOURS_LATER);
+        timetable.rebuildTimeslotIndex();
+        assertEquals(List.of(TWO_HOURS, TWO_HOURS_LATER), lesson.getPossibleTimeslots());
+
+        timetable.setTimeslots(List.of(ONE_HOUR));
+        assertTrue(lesson.getPossibleTimeslots().isEmpty());
+    }
+
+    @Test
+    void teacherAvailabilityIsScopedToTheTimetable() {
+        TeacherTimeslot mondayMorning = new TeacherTimeslot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        Teacher teacher = new Teacher(1L, "Teacher1", Set.of(mondayMorning));
+        Teacher teacherWithoutPreferences = new Teacher(2L, "Teacher2", Set.of());
+
+        Lesson preferredLesson = new Lesson(1, "Subject1", teacher, null, 2, TWO_HOURS, null);
+        Lesson notPreferredLesson = new Lesson(2, "Subject2", teacher, null, 2, TWO_HOURS_LATER, null);
+        Lesson lessonWithoutPreferences = new Lesson(3, "Subject3", teacherWithoutPreferences, null, 2, TWO_HOURS_LATER, null);
+
+        Timetable timetable = new Timetable(List.of(ONE_HOUR, TWO_HOURS, TWO_HOURS_LATER), List.of(),
+                List.of(preferredLesson, notPreferredLesson, lessonWithoutPreferences));
+
+        // not prepared yet: falls back to scanning the preferred windows
+        assertFalse(preferredLesson.isOutsidePreferredTimeslots());
+        assertTrue(notPreferredLesson.isOutsidePreferredTimeslots());
+
+        timetable.prepareForSolving();
+        assertFalse(preferredLesson.isOutsidePreferredTimeslots());
+        assertTrue(notPreferredLesson.isOutsidePreferredTimeslots());
+        assertFalse(lessonWithoutPreferences.isOutsidePreferredTimeslots());
+
+        // changing the preferences is only picked up by the next prepared problem
+        teacher.setPreferredTimeslots(Set.of(new TeacherTimeslot(DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(16, 0))));
+        assertTrue(notPreferredLesson.isOutsidePreferredTimeslots());
+        timetable.prepareForSolving();
+        assertFalse(notPreferredLesson.isOutsidePreferredTimeslots());
+        assertTrue(preferredLesson.isOutsidePreferredTimeslots());
+    }
+
+    @Test
+    void normalizedKeysAreEqualOnlyForEqualStrings() {
+        StudentGroup firstGroup = new StudentGroup(1L, Year.FIRST, "Series1", "1A", 30L);
+        StudentGroup sameSeries = new StudentGroup(2L, Year.FIRST, "Series1", "1B", 30L);
+        Lesson firstLesson = new Lesson(1, "Subject1", null, firstGroup);
+        Lesson secondLesson = new Lesson(2, "Subject1", null, sameSeries);
+        Lesson otherSubject = new Lesson(3, "Subject2", null, sameSeries);
+
+        Timetable timetable = new Timetable(List.of(), List.of(), List.of(firstLesson, secondLesson, otherSubject));
+        timetable.prepareForSolving();
+
+        assertEquals(firstGroup.getSeriesId(), sameSeries.getSeriesId());
+        assertNotEquals(firstGroup.getGroupId(), sameSeries.getGroupId());
+        assertEquals(firstLesson.getSubjectId(), secondLesson.getSubjectId());
+        assertNotEquals(firstLesson.getSubjectId(), otherSubject.getSubjectId());
+
+        // renaming drops the cached id until the keys are normalized again
+        otherSubject.setSubject("Subject1");
+        assertThrows(IllegalStateException.class, otherSubject::getSubjectId);
+        sameSeries.setStudentGroup("1A");
+        timetable.normalizeKeys();
+        assertEquals(firstLesson.getSubjectId(), otherSubject.getSubjectId());
+        assertEquals(firstGroup.getGroupId(), sameSeries.getGroupId());
+    }
+
+    @Test
+    void keyIdsAreScopedToTheTimetable() {
+        Lesson lesson = new Lesson(1, "Subject1", null, new StudentGroup(1L, Year.FIRST, "Series1", "1A", 30L));
+        Timetable timetable = new Timetable(List.of(), List.of(), List.of(lesson));
+        timetable.prepareForSolving();
+        int keyCount = timetable.getKeyInterner().size();
+
+        // another problem with other keys starts its own dense ids and does not grow this one
+        Lesson otherLesson = new Lesson(2, "Subject2", null, new StudentGroup(2L, Year.FIRST, "Series2", "2A", 30L));
+        Timetable otherTimetable = new Timetable(List.of(), List.of(), List.of(otherLesson));
+        otherTimetable.prepareForSolving();
+
+        assertEquals(lesson.getSubjectId(), otherLesson.getSubjectId());
+        assertEquals(keyCount, timetable.getKeyInterner().size());
+        assertNotSame(timetable.getKeyInterner(), otherTimetable.getKeyInterner());
+    }
+
+    @Test
+    void possibleRoomsArePrunedByCapacityAndSport() {
+        Room smallRoom = new Room(1L, "C101", 20L);
+        Room largeRoom = new Room(2L, "C102", 60L);
+        Room gym = new Room(3L, "Sports Hall", 200L);
+        StudentGroup smallGroup = new StudentGroup(1L, Year.FIRST, "Series1", "1A", 15L);
+        StudentGroup largeGroup = new StudentGroup(2L, Year.FIRST, "Series1", "1B", 40L);
+        StudentGroup hugeGroup = new StudentGroup(3L, Year.FIRST, "Series1", "1C", 90L);
+        Lesson smallLesson = new Lesson(1, "Operating Systems", null, smallGroup);
+        Lesson largeLesson = new Lesson(2, "Algebra", null, largeGroup);
+        Lesson hugeLesson = new Lesson(3, "Algebra", null, hugeGroup);
+        Lesson sportLesson = new Lesson(4, "PE", null, largeGroup);
+
+        Timetable timetable = new Timetable(List.of(), List.of(smallRoom, largeRoom, gym),
+                List.of(smallLesson, largeLesson, hugeLesson, sportLesson));
+        timetable.prepareForSolving();
+
+        assertEquals(List.of(smallRoom, largeRoom), smallLesson.getPossibleRooms());
+        assertEquals(List.of(largeRoom), largeLesson.getPossibleRooms());
+        // no non-sport room is large enough: fall back to every non-sport room
+        assertEquals(List.of(smallRoom, largeRoom), hugeLesson.getPossibleRooms());
+        assertEquals(List.of(gym), sportLesson.getPossibleRooms());
+    }
+
+    @Test
+    void sportKeywordsAreConfigurable() {
+        Room hall = new Room(1L, "Hall A", 100L);
+        Room gym = new Room(2L, "Gym", 100L);
+        Lesson swimming = new Lesson(1, "Swimming", null, null);
+
+        Timetable timetable = new Timetable(List.of(), List.of(hall, gym), List.of(swimming));
+        timetable.prepareForSolving(new SportKeywords(List.of("Swimming"), List.of("Hall")));
+
+        assertEquals(List.of(hall), swimming.getPossibleRooms());
+    }
+}
@@ -0,0 +1,65 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AssignmentHistoryTest {
+
+    private static final Timeslot TIMESLOT1 = new Timeslot(1, DayOfWeek.MONDAY, LocalTime.NOON);
+    private static final Timeslot TIMESLOT2 = new Timeslot(2, DayOfWeek.TUESDAY, LocalTime.NOON);
+    private static final Room ROOM1 = new Room(1, "Room1");
+    private static final Room ROOM2 = new Room(2, "Room2");
+
+    @Test
+    void diffContainsOnlyTheLessonsThatMoved() {
+        AssignmentHistory history = new AssignmentHistory(10);
+        history.record(0, solution(null, null, null, null));
+        List<LessonAssignmentDTO> firstChanges = history.record(1, solution(TIMESLOT1, ROOM1, TIMESLOT1, ROOM2));
+        List<LessonAssignmentDTO> secondChanges = history.record(2, solution(TIMESLOT2, ROOM1, TIMESLOT1, ROOM2));
+
+        assertEquals(2, firstChanges.size());
+        assertEquals(List.of(new LessonAssignmentDTO(1L, 2L, 1L)), secondChanges);
+
+        AssignmentHistory.Diff sinceFirst = history.since(1);
+        assertFalse(sinceFirst.fullSnapshot());
+        assertEquals(List.of(new LessonAssignmentDTO(1L, 2L, 1L)), sinceFirst.lessons());
+
+        AssignmentHistory.Diff sinceProblem = history.since(0);
+        assertFalse(sinceProblem.fullSnapshot());
+        assertEquals(List.of(new LessonAssignmentDTO(1L, 2L, 1L), new LessonAssignmentDTO(2L, 1L, 2L)), sinceProblem.lessons());
+
+        assertTrue(history.since(2).lessons().isEmpty());
+    }
+
+    @Test
+    void clientsTooFarBehindGetAFullSnapshot() {
+        AssignmentHistory history = new AssignmentHistory(1);
+        history.record(0, solution(null, null, null, null));
+        history.record(1, solution(TIMESLOT1, ROOM1, null, null));
+        history.record(2, solution(TIMESLOT1, ROOM1, TIMESLOT2, ROOM2));
+
+        AssignmentHistory.Diff diff = history.since(0);
+        assertTrue(diff.fullSnapshot());
+        assertEquals(2, diff.version());
+        assertEquals(List.of(new LessonAssignmentDTO(1L, 1L, 1L), new LessonAssignmentDTO(2L, 2L, 2L)), diff.lessons());
+        assertTrue(history.since(7).fullSnapshot());
+    }
+
+    private static Timetable solution(Timeslot firstTimeslot, Room firstRoom, Timeslot secondTimeslot, Room secondRoom) {
+        Lesson first = new Lesson(1, "Subject1", null, null, firstTimeslot, firstRoom);
+        Lesson second = new Lesson(2, "Subject2", null, null, secondTimeslot, secondRoom);
+        return new Timetable(List.of(TIMESLOT1, TIMESLOT2), List.of(ROOM1, ROOM2), List.of(first, second));
+    }
+}
@@ -0,0 +1,76 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.BenchmarkJobDTO;
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.BenchmarkStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BenchmarkJobsTest {
+
+    private final BenchmarkJobs benchmarkJobs = new BenchmarkJobs(1, 1, 10);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        benchmarkJobs.destroy();
+    }
+
+    @Test
+    void jobsQueueBehindTheRunningOneAndReportTheirUrl() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        BenchmarkJobDTO first = benchmarkJobs.submit("database", Duration.ofMinutes(1), () -> {
+            running.countDown();
+            await(release);
+            return "report/first/index.html";
+        });
+        BenchmarkJobDTO second = benchmarkJobs.submit("imported", null, () -> "report/second/index.html");
+        running.await(5, TimeUnit.SECONDS);
+
+        assertEquals(BenchmarkStatus.RUNNING, benchmarkJobs.get(first.getJobId()).getStatus());
+        assertEquals(1, benchmarkJobs.get(second.getJobId()).getQueuePosition());
+        // the queue holds one job
+        assertThrows(TimetableSolverException.class, () -> benchmarkJobs.submit("database", null, () -> "rejected"));
+
+        release.countDown();
+        BenchmarkJobDTO finished = benchmarkJobs.whenFinished(second.getJobId()).get(5, TimeUnit.SECONDS);
+        assertEquals(BenchmarkStatus.COMPLETED, finished.getStatus());
+        assertEquals("report/second/index.html", finished.getReportUrl());
+        assertEquals(1.0, finished.getProgress());
+    }
+
+    @Test
+    void queuedJobsCanBeCancelledAndFailuresAreReported() throws Exception {
+        BenchmarkJobDTO blocking = benchmarkJobs.submit("database", null, () -> {
+            await(release);
+            throw new IllegalStateException("No benchmark directories found");
+        });
+        BenchmarkJobDTO queued = benchmarkJobs.submit("database", null, () -> "never");
+
+        assertEquals(BenchmarkStatus.CANCELLED, benchmarkJobs.cancel(queued.getJobId()).getStatus());
+        assertThrows(TimetableSolverException.class, () -> benchmarkJobs.cancel(queued.getJobId()));
+
+        release.countDown();
+        BenchmarkJobDTO failed = benchmarkJobs.whenFinished(blocking.getJobId()).get(5, TimeUnit.SECONDS);
+        assertEquals(BenchmarkStatus.FAILED, failed.getStatus());
+        assertEquals("No benchmark directories found", failed.getError());
+        assertNull(failed.getReportUrl());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BestSolutionPublisherTest {
+
+    private BestSolutionPublisher publisher;
+
+    @AfterEach
+    void shutdown() {
+        publisher.destroy();
+    }
+
+    @Test
+    void burstIsCoalescedAndFinalSolutionIsAlwaysPublished() {
+        publisher = new BestSolutionPublisher(0.1);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        List<Timetable> published = new CopyOnWriteArrayList<>();
+        BestSolutionPublisher.Channel channel = publisher.open("job", (solution, version) -> {
+            published.add(solution);
+            versions.add(version);
+        });
+
+        Timetable first = solution(-3);
+        channel.offer(first);
+        channel.offer(solution(-2));
+        channel.offer(solution(-1));
+        Timetable last = solution(0);
+        channel.complete(last);
+        channel.offer(solution(0));
+
+        assertEquals(List.of(first, last), published);
+        assertEquals(List.of(1L, 2L), versions);
+        assertEquals(2L, channel.getVersion());
+    }
+
+    @Test
+    void waitingSolutionIsFlushedAfterTheInterval() throws InterruptedException {
+        publisher = new BestSolutionPublisher(20);
+        CountDownLatch secondPublish = new CountDownLatch(2);
+        List<Timetable> published = new CopyOnWriteArrayList<>();
+        BestSolutionPublisher.Channel channel = publisher.open("job", (solution, version) -> {
+            published.add(solution);
+            secondPublish.countDown();
+        });
+
+        channel.offer(solution(-2));
+        channel.offer(solution(-1));
+        Timetable latest = solution(0);
+        channel.offer(latest);
+
+        assertTrue(secondPublish.await(5, TimeUnit.SECONDS));
+        assertEquals(2, published.size());
+        assertSame(latest, published.get(1));
+    }
+
+    @Test
+    void cancelDropsTheWaitingSolution() throws InterruptedException {
+        publisher = new BestSolutionPublisher(20);
+        List<Timetable> published = new CopyOnWriteArrayList<>();
+        BestSolutionPublisher.Channel channel = publisher.open("job", (solution, version) -> published.add(solution));
+
+        channel.offer(solution(-1));
+        channel.offer(solution(0));
+        channel.cancel();
+        Thread.sleep(200);
+
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    void slowSinkDoesNotHoldUpOffers() throws InterruptedException {
+        publisher = new BestSolutionPublisher(0);
+        CountDownLatch inSink = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        List<Timetable> published = new CopyOnWriteArrayList<>();
+        BestSolutionPublisher.Channel channel = publisher.open("job", (solution, version) -> {
+            if (version == 1L) {
+                inSink.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            versions.add(version);
+            published.add(solution);
+        });
+        Thread solverThread = new Thread(() -> channel.offer(solution(-2)));
+        solverThread.start();
+        assertTrue(inSink.await(5, TimeUnit.SECONDS));
+
+        // the first solution is still in the sink, the channel is not locked meanwhile
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            channel.offer(solution(-1));
+            assertEquals(1L, channel.getVersion());
+        });
+        release.countDown();
+        Timetable last = solution(0);
+        channel.complete(last);
+        solverThread.join(5000);
+
+        // the solution offered meanwhile may be replaced by the final one, the versions stay in order
+        assertSame(last, published.get(published.size() - 1));
+        assertEquals(LongStream.rangeClosed(1L, versions.size()).boxed().toList(), versions);
+        assertEquals(versions.size(), channel.getVersion());
+    }
+
+    private static Timetable solution(int hardScore) {
+        return new Timetable(HardMediumSoftScore.ofHard(hardScore));
+    }
+}
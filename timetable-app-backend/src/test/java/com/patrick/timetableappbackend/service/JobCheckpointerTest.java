@@ -0,0 +1,84 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.patrick.timetableappbackend.model.JobCheckpoint;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.SolvePriority;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.LocalSearchAlgorithm;
+import com.patrick.timetableappbackend.solver.SolverOverrides;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class JobCheckpointerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    // checkpoints disabled: no repository access, only the encoding is exercised
+    private final JobCheckpointer checkpointer = new JobCheckpointer(null, OBJECT_MAPPER, Duration.ZERO);
+
+    @AfterEach
+    void shutdown() {
+        checkpointer.destroy();
+    }
+
+    @Test
+    void checkpointRoundTripKeepsAssignmentsAndProgress() {
+        Timeslot firstTimeslot = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Timeslot secondTimeslot = new Timeslot(2L, DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0));
+        Room room = new Room(1, "Room1");
+        Lesson assigned = new Lesson(1, "Subject1", null, null, secondTimeslot, room);
+        Lesson unassigned = new Lesson(2, "Subject2", null, null, null, null);
+        Timetable solution = new Timetable(List.of(firstTimeslot, secondTimeslot), List.of(room), List.of(assigned, unassigned));
+        solution.setScore(HardMediumSoftScore.of(-1, -2, -3));
+
+        JobCheckpointer.Settings settings = new JobCheckpointer.Settings(
+                new SolverOverrides(null, Duration.ofMinutes(2), "0hard/0medium/-10soft", "2"), SolvePriority.HIGH,
+                List.of(LocalSearchAlgorithm.LATE_ACCEPTANCE, LocalSearchAlgorithm.TABU_SEARCH));
+        JobCheckpoint jobCheckpoint = checkpointer.encode("job",
+                new JobCheckpointer.Checkpoint(solution, 7L, 60_000L, 600_000L, settings));
+        assertEquals("job", jobCheckpoint.getJobId());
+        assertEquals("-1hard/-2medium/-3soft", jobCheckpoint.getScore());
+
+        JobCheckpointer.Checkpoint restored = checkpointer.decode(jobCheckpoint);
+        assertEquals(7L, restored.version());
+        assertEquals(60_000L, restored.elapsedMillis());
+        assertEquals(600_000L, restored.spentLimitMillis());
+        assertEquals(settings, restored.settings());
+        Timetable restoredSolution = restored.solution();
+        assertEquals(solution.getScore(), restoredSolution.getScore());
+        Lesson restoredAssigned = restoredSolution.getLessons().get(0);
+        assertSame(restoredSolution.getTimeslots().get(1), restoredAssigned.getTimeslot());
+        assertSame(restoredSolution.getRooms().get(0), restoredAssigned.getRoom());
+        assertNull(restoredSolution.getLessons().get(1).getTimeslot());
+    }
+
+    @Test
+    void checkpointWithoutSettingsResumesWithTheDefaults() {
+        Timetable solution = new Timetable(List.of(), List.of(), List.of());
+        JobCheckpoint jobCheckpoint = checkpointer.encode("job", new JobCheckpointer.Checkpoint(solution, 1L, 0L, 600_000L,
+                new JobCheckpointer.Settings(SolverOverrides.NONE, SolvePriority.NORMAL, null)));
+        assertNull(jobCheckpoint.getOverrides());
+        assertNull(jobCheckpoint.getPortfolio());
+        // e.g. written before the settings were checkpointed
+        jobCheckpoint.setPriority(null);
+
+        JobCheckpointer.Settings settings = checkpointer.decode(jobCheckpoint).settings();
+        assertEquals(SolverOverrides.NONE, settings.overrides());
+        assertEquals(SolvePriority.NORMAL, settings.priority());
+        assertNull(settings.portfolio());
+    }
+}
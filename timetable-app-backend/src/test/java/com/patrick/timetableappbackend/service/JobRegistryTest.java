@@ -0,0 +1,135 @@
+package com.patrick.timetableappbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class JobRegistryTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path spillDirectory;
+
+    private JobRegistry registry;
+
+    @AfterEach
+    void shutdown() {
+        registry.destroy();
+    }
+
+    @Test
+    void leastRecentlyUsedFinishedJobsAreSpilledAndReloaded() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        registry = new JobRegistry(OBJECT_MAPPER, meterRegistry, 1, Duration.ofHours(1), spillDirectory, 10);
+
+        registry.put("first", job(3L));
+        registry.put("second", job(5L));
+        registry.put("solving", job(1L));
+        registry.finish("first");
+        registry.finish("second");
+
+        // "first" is the least recently used finished job, the solving job is never spilled
+        assertEquals(2, registry.getResidentCount());
+        assertEquals(1, registry.getSpilledCount());
+        assertEquals(2.0, meterRegistry.get("timetable.jobs.resident").gauge().value());
+        assertEquals(1.0, meterRegistry.get("timetable.jobs.spilled").gauge().value());
+
+        Job reloaded = registry.get("first");
+        assertEquals(3L, reloaded.version());
+        assertEquals(2, reloaded.timetable().getLessons().size());
+        Lesson lesson = reloaded.timetable().getLessons().get(0);
+        assertSame(reloaded.timetable().getTimeslots().get(0), lesson.getTimeslot());
+        assertSame(reloaded.timetable().getRooms().get(1), lesson.getRoom());
+        assertEquals(1, registry.getSpilledCount());
+        assertEquals(List.of("solving", "first", "second"), List.copyOf(registry.getJobIds()));
+    }
+
+    @Test
+    void spilledJobsOfTheSameProblemShareOneProblemFile() throws IOException {
+        registry = new JobRegistry(OBJECT_MAPPER, new SimpleMeterRegistry(), 0, Duration.ofHours(1), spillDirectory, 10);
+
+        registry.put("first", job(3L));
+        Job swapped = job(4L);
+        Timetable timetable = swapped.timetable();
+        Room firstRoom = timetable.getLessons().get(0).getRoom();
+        timetable.getLessons().get(0).setRoom(timetable.getLessons().get(1).getRoom());
+        timetable.getLessons().get(1).setRoom(firstRoom);
+        timetable.getLessons().get(1).setTimeslot(null);
+        swapped.history().record(4L, timetable);
+        registry.put("second", swapped);
+        registry.finish("first");
+        registry.finish("second");
+
+        assertEquals(2, registry.getSpilledCount());
+        assertEquals(1, problemFileCount());
+
+        Job second = registry.get("second");
+        assertEquals(4L, second.version());
+        assertEquals(1L, second.timetable().getLessons().get(0).getRoom().getId());
+        assertEquals(2L, second.timetable().getLessons().get(1).getRoom().getId());
+        assertNull(second.timetable().getLessons().get(1).getTimeslot());
+        // the reload spilled "second" again, "first" still refers to the problem
+        assertEquals(1, problemFileCount());
+
+        registry.remove("first");
+        registry.remove("second");
+        assertEquals(0, problemFileCount());
+    }
+
+    @Test
+    void expiredFinishedJobsAreRemoved() throws InterruptedException {
+        registry = new JobRegistry(OBJECT_MAPPER, new SimpleMeterRegistry(), 0, Duration.ofMillis(10), spillDirectory, 10);
+
+        registry.put("finished", job(1L));
+        registry.put("solving", job(1L));
+        registry.finish("finished");
+        Thread.sleep(50);
+        registry.removeExpired();
+
+        assertNull(registry.get("finished"));
+        assertEquals(1L, registry.get("solving").version());
+    }
+
+    private long problemFileCount() throws IOException {
+        Path problems = spillDirectory.resolve("problems");
+        if (!Files.isDirectory(problems)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(problems)) {
+            return files.count();
+        }
+    }
+
+    private static Job job(long version) {
+        Timeslot timeslot = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Room firstRoom = new Room(1, "Room1");
+        Room secondRoom = new Room(2, "Room2");
+        Lesson first = new Lesson(1, "Subject1", null, null, timeslot, secondRoom);
+        Lesson second = new Lesson(2, "Subject2", null, null, timeslot, firstRoom);
+        Timetable timetable = new Timetable(List.of(timeslot), List.of(firstRoom, secondRoom), List.of(first, second));
+        AssignmentHistory history = new AssignmentHistory(10);
+        history.record(version, timetable);
+        return Job.ofTimetable(timetable, version, history);
+    }
+}
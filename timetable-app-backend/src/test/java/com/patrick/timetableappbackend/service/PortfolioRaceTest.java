@@ -0,0 +1,53 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.patrick.timetableappbackend.solver.LocalSearchAlgorithm.LATE_ACCEPTANCE;
+import static com.patrick.timetableappbackend.solver.LocalSearchAlgorithm.SIMULATED_ANNEALING;
+import static com.patrick.timetableappbackend.solver.LocalSearchAlgorithm.TABU_SEARCH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PortfolioRaceTest {
+
+    @Test
+    void bestOfAnyMemberLeadsAndTrailingMembersAreGivenUpOnAfterTheGracePeriod() {
+        PortfolioRace race = new PortfolioRace(List.of(TABU_SEARCH, SIMULATED_ANNEALING, LATE_ACCEPTANCE),
+                HardMediumSoftScore.ofSoft(100), 1_000L);
+
+        assertTrue(race.offer(TABU_SEARCH, solution(0, -500)));
+        Timetable leading = solution(0, -300);
+        assertTrue(race.offer(LATE_ACCEPTANCE, leading));
+        assertFalse(race.offer(SIMULATED_ANNEALING, solution(0, -350)));
+        assertSame(leading, race.getBest());
+        assertSame(LATE_ACCEPTANCE, race.getLeader());
+
+        assertEquals(List.of(), race.fallenBehind(999L));
+        // 200 soft behind with a margin of 100, simulated annealing is within it
+        assertEquals(List.of(TABU_SEARCH), race.fallenBehind(1_000L));
+        assertEquals(List.of(), race.fallenBehind(2_000L));
+    }
+
+    @Test
+    void jobEndsWithTheLastMemberAndKeepsTheBestFinalSolution() {
+        PortfolioRace race = new PortfolioRace(List.of(TABU_SEARCH, LATE_ACCEPTANCE), HardMediumSoftScore.ZERO, 0L);
+        race.offer(TABU_SEARCH, solution(-1, 0));
+
+        assertFalse(race.finish(LATE_ACCEPTANCE, null));
+        Timetable finalSolution = solution(0, -10);
+        assertTrue(race.finish(TABU_SEARCH, finalSolution));
+        assertSame(finalSolution, race.getBest());
+    }
+
+    private static Timetable solution(int hard, int soft) {
+        Timetable solution = new Timetable();
+        solution.setScore(HardMediumSoftScore.of(hard, 0, soft));
+        return solution;
+    }
+}
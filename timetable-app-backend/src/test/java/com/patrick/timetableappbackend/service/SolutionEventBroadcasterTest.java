@@ -0,0 +1,42 @@
+package com.patrick.timetableappbackend.service;
+
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import com.patrick.timetableappbackend.dto.SolutionUpdateDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolutionEventBroadcasterTest {
+
+    private final SolutionEventBroadcaster broadcaster = new SolutionEventBroadcaster(60_000L);
+
+    @Test
+    void subscriberOfAJobThatFinishedAfterItsStatusWasReadIsCompleted() {
+        broadcaster.complete("job", update(2L, SolverStatus.NOT_SOLVING));
+
+        // the caller still saw the job solving
+        SseEmitter emitter = broadcaster.subscribe("job", update(1L, SolverStatus.SOLVING_ACTIVE), false, true);
+
+        assertFalse(broadcaster.hasSubscribers("job"));
+        assertThrows(IllegalStateException.class, () -> emitter.send("after completion"));
+    }
+
+    @Test
+    void resumedJobKeepsItsSubscribersOpen() {
+        broadcaster.complete("job", update(2L, SolverStatus.NOT_SOLVING));
+        broadcaster.open("job");
+
+        SseEmitter emitter = broadcaster.subscribe("job", update(2L, SolverStatus.SOLVING_ACTIVE), false, true);
+
+        assertTrue(broadcaster.hasSubscribers("job"));
+        assertDoesNotThrow(() -> emitter.send("still solving"));
+    }
+
+    private static SolutionUpdateDTO update(long version, SolverStatus solverStatus) {
+        return new SolutionUpdateDTO("job", version, null, solverStatus, null);
+    }
+}
@@ -0,0 +1,95 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.exception.TimetableSolverException;
+import com.patrick.timetableappbackend.model.SolvePriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolveQueueTest {
+
+    // job id -> cores it was started with
+    private final Map<String, Integer> started = new LinkedHashMap<>();
+
+    @Test
+    void coresFollowProblemSizeWithinAFairShare() {
+        SolveQueue queue = new SolveQueue(new SimpleMeterRegistry(), 4, 10, 16, 100);
+
+        assertEquals(0, queue.submit("small", SolvePriority.NORMAL, 50, 1, cores -> started.put("small", cores)));
+        assertEquals(0, queue.submit("large", SolvePriority.NORMAL, 5000, 1, cores -> started.put("large", cores)));
+
+        assertEquals(1, started.get("small"));
+        // wants 50 cores, gets all 15 free ones: no other job is waiting
+        assertEquals(15, started.get("large"));
+        assertEquals(16, queue.getCoresInUse());
+    }
+
+    @Test
+    void waitingJobsStartByPriorityOnceCoresAreReleased() {
+        SolveQueue queue = new SolveQueue(new SimpleMeterRegistry(), 1, 10, 8, 100);
+        queue.submit("running", SolvePriority.NORMAL, 100, 1, cores -> started.put("running", cores));
+        assertEquals(1, queue.submit("first", SolvePriority.NORMAL, 100, 1, cores -> started.put("first", cores)));
+        assertEquals(2, queue.submit("second", SolvePriority.NORMAL, 100, 1, cores -> started.put("second", cores)));
+        assertEquals(1, queue.submit("urgent", SolvePriority.HIGH, 100, 1, cores -> started.put("urgent", cores)));
+        assertEquals(4, queue.submit("later", SolvePriority.LOW, 100, 1, cores -> started.put("later", cores)));
+
+        assertTrue(queue.isWaiting("first"));
+        assertEquals(2, queue.getPosition("first"));
+        assertTrue(queue.remove("second"));
+        assertFalse(queue.remove("running"));
+
+        queue.release("running");
+        queue.release("urgent");
+        queue.release("first");
+        assertEquals(List.of("running", "urgent", "first", "later"), List.copyOf(started.keySet()));
+        assertEquals(0, queue.getWaitingCount());
+    }
+
+    @Test
+    void jobWaitsUntilItsMinimumCoresAreFree() {
+        SolveQueue queue = new SolveQueue(new SimpleMeterRegistry(), 4, 10, 4, 100);
+        queue.submit("running", SolvePriority.NORMAL, 200, 1, cores -> started.put("running", cores));
+        assertEquals(2, started.get("running"));
+
+        // a portfolio of three algorithms, only 2 cores are free
+        assertEquals(1, queue.submit("portfolio", SolvePriority.NORMAL, 50, 3, cores -> started.put("portfolio", cores)));
+        // a smaller job does not overtake it
+        assertEquals(2, queue.submit("small", SolvePriority.NORMAL, 50, 1, cores -> started.put("small", cores)));
+        assertFalse(started.containsKey("portfolio"));
+        assertFalse(started.containsKey("small"));
+        assertEquals(2, queue.getCoresInUse());
+
+        queue.release("running");
+        assertEquals(3, started.get("portfolio"));
+        assertEquals(1, started.get("small"));
+        assertEquals(4, queue.getCoresInUse());
+    }
+
+    @Test
+    void jobNeedingMoreCoresThanTheQueueHasIsRejected() {
+        SolveQueue queue = new SolveQueue(new SimpleMeterRegistry(), 4, 10, 2, 100);
+
+        assertThrows(TimetableSolverException.class,
+                () -> queue.submit("portfolio", SolvePriority.NORMAL, 50, 3, cores -> started.put("portfolio", cores)));
+        assertEquals(0, queue.getWaitingCount());
+    }
+
+    @Test
+    void fullQueueRejectsNewJobs() {
+        SolveQueue queue = new SolveQueue(new SimpleMeterRegistry(), 1, 1, 4, 100);
+        queue.submit("running", SolvePriority.NORMAL, 100, 1, cores -> started.put("running", cores));
+        queue.submit("waiting", SolvePriority.NORMAL, 100, 1, cores -> started.put("waiting", cores));
+
+        assertThrows(TimetableSolverException.class,
+                () -> queue.submit("rejected", SolvePriority.HIGH, 100, 1, cores -> started.put("rejected", cores)));
+        assertEquals(List.of("running"), List.copyOf(started.keySet()));
+    }
+}
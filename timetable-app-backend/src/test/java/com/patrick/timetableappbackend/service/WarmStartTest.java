@@ -0,0 +1,81 @@
+package com.patrick.timetableappbackend.service;
+
+import com.patrick.timetableappbackend.dto.LessonAssignmentDTO;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class WarmStartTest {
+
+    @Test
+    void previousAssignmentsAreResolvedAgainstTheProblem() {
+        Timeslot oneHour = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0));
+        Timeslot twoHours = new Timeslot(2L, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        Room room = new Room(1L, "C101");
+        Room gym = new Room(2L, "Gym");
+
+        Lesson unchanged = new Lesson(1, "Algebra", null, null, 2, null, null);
+        // its duration changed since the previous solution: the old timeslot no longer fits
+        Lesson durationChanged = new Lesson(2, "Physics", null, null, 1, null, null);
+        // not allowed in the gym any more
+        Lesson roomNoLongerFits = new Lesson(3, "Chemistry", null, null, 2, null, null);
+        Lesson added = new Lesson(4, "Biology", null, null, 2, null, null);
+        Lesson pinned = new Lesson(5, "History", null, null, 1, oneHour, room);
+        pinned.setPinned(true);
+
+        Timetable problem = new Timetable(List.of(oneHour, twoHours), List.of(room, gym),
+                List.of(unchanged, durationChanged, roomNoLongerFits, added, pinned));
+        problem.prepareForSolving();
+
+        int warmStarted = WarmStart.apply(problem, List.of(
+                new LessonAssignmentDTO(1L, 2L, 1L),
+                new LessonAssignmentDTO(2L, 2L, 1L),
+                new LessonAssignmentDTO(3L, 2L, 2L),
+                new LessonAssignmentDTO(5L, 2L, 1L),
+                new LessonAssignmentDTO(99L, 1L, 1L)));
+
+        assertEquals(1, warmStarted);
+        assertSame(twoHours, unchanged.getTimeslot());
+        assertSame(room, unchanged.getRoom());
+        assertNull(durationChanged.getTimeslot());
+        assertSame(room, durationChanged.getRoom());
+        assertSame(twoHours, roomNoLongerFits.getTimeslot());
+        assertNull(roomNoLongerFits.getRoom());
+        assertNull(added.getTimeslot());
+        assertSame(oneHour, pinned.getTimeslot());
+    }
+
+    @Test
+    void coldStartIgnoresExistingAssignments() {
+        Timeslot timeslot = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Room room = new Room(1L, "C101");
+
+        // e.g. applied to the lesson table by an earlier job
+        Lesson assigned = new Lesson(1, "Algebra", null, null, timeslot, room);
+        Lesson partlyAssigned = new Lesson(2, "Physics", null, null, timeslot, null);
+        Lesson unassigned = new Lesson(3, "Chemistry", null, null, null, null);
+        Lesson pinned = new Lesson(4, "History", null, null, timeslot, room);
+        pinned.setPinned(true);
+
+        Timetable problem = new Timetable(List.of(timeslot), List.of(room),
+                List.of(assigned, partlyAssigned, unassigned, pinned));
+
+        assertEquals(2, WarmStart.clear(problem));
+        assertNull(assigned.getTimeslot());
+        assertNull(assigned.getRoom());
+        assertNull(partlyAssigned.getTimeslot());
+        assertNull(unassigned.getTimeslot());
+        assertSame(timeslot, pinned.getTimeslot());
+        assertSame(room, pinned.getRoom());
+    }
+}
@@ -0,0 +1,87 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolverOverridesTest {
+
+    @Test
+    void overridesReplaceTheConfiguredTerminationWithoutTouchingTheBase() {
+        SolverConfig base = new SolverConfig()
+                .withTerminationConfig(new TerminationConfig().withMinutesSpentLimit(600L))
+                .withMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_AUTO);
+
+        SolverConfig overridden = new SolverOverrides(Duration.ofSeconds(30), Duration.ofSeconds(5),
+                "0hard/0medium/-10soft", "2").applyTo(base);
+
+        TerminationConfig termination = overridden.getTerminationConfig();
+        assertNull(termination.getMinutesSpentLimit());
+        assertEquals(Duration.ofSeconds(30), termination.getSpentLimit());
+        assertEquals(Duration.ofSeconds(5), termination.getUnimprovedSpentLimit());
+        assertEquals("0hard/0medium/-10soft", termination.getBestScoreLimit());
+        assertEquals("2", overridden.getMoveThreadCount());
+        assertEquals(600L, base.getTerminationConfig().getMinutesSpentLimit());
+        assertEquals(SolverConfig.MOVE_THREAD_COUNT_AUTO, base.getMoveThreadCount());
+    }
+
+    @Test
+    void localSearchReplacesTheConfiguredLocalSearchPhases() {
+        SolverConfig base = new SolverConfig().withPhases(new ConstructionHeuristicPhaseConfig(),
+                new LocalSearchPhaseConfig(), new LocalSearchPhaseConfig());
+
+        SolverConfig overridden = SolverOverrides.NONE.withLocalSearch(LocalSearchAlgorithm.LATE_ACCEPTANCE).applyTo(base);
+
+        assertEquals(2, overridden.getPhaseConfigList().size());
+        assertInstanceOf(ConstructionHeuristicPhaseConfig.class, overridden.getPhaseConfigList().get(0));
+        LocalSearchPhaseConfig localSearch = (LocalSearchPhaseConfig) overridden.getPhaseConfigList().get(1);
+        assertEquals(1000, localSearch.getAcceptorConfig().getLateAcceptanceSize());
+        assertEquals(3, base.getPhaseConfigList().size());
+    }
+
+    @Test
+    void defaultSpentLimitIsNotAnOverride() {
+        SolverOverrides overrides = new SolverOverrides(Duration.ofMinutes(600), null, null, null);
+        assertTrue(overrides.withoutDefaultSpentLimit(Duration.ofMinutes(600)).isEmpty());
+        assertEquals(overrides, overrides.withoutDefaultSpentLimit(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void moveThreadCountsOfJobsOfEverySizeFallInFewBuckets() {
+        Set<String> buckets = new HashSet<>();
+        for (int cores = 1; cores <= 64; cores++) {
+            buckets.add(SolverOverrides.moveThreadCountFor(cores));
+        }
+        assertEquals(Set.of("NONE", "1", "2", "4", "8", "16", "32"), buckets);
+        assertEquals("4", SolverOverrides.moveThreadCountFor(8));
+        assertEquals("8", SolverOverrides.moveThreadCountFor(9));
+    }
+
+    @Test
+    void moveThreadCountOfTheConfiguredSolverIsNotAnOverride() {
+        assertTrue(SolverOverrides.NONE.withMoveThreadCountFor(1, "NONE").isEmpty());
+        assertEquals("2", SolverOverrides.NONE.withMoveThreadCountFor(4, "NONE").moveThreadCount());
+        SolverOverrides explicit = new SolverOverrides(null, null, null, "AUTO");
+        assertEquals(explicit, explicit.withMoveThreadCountFor(4, "NONE"));
+    }
+
+    @Test
+    void malformedOverridesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SolverOverrides(Duration.ZERO, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SolverOverrides(null, null, "not a score", null));
+        assertThrows(IllegalArgumentException.class, () -> new SolverOverrides(null, null, null, "0"));
+        assertThrows(IllegalArgumentException.class, () -> new SolverOverrides(null, null, null, "many"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.patrick.timetableappbackend.solver;
 
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.Joiners;
 import ai.timefold.solver.test.api.score.stream.ConstraintVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.patrick.timetableappbackend.model.Lesson;
 import com.patrick.timetableappbackend.model.LessonType;
 import com.patrick.timetableappbackend.model.Room;
@@ -14,10 +18,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SpringBootTest
 public class TimetableConstraintProviderTest {
 
@@ -30,10 +41,15 @@ public class TimetableConstraintProviderTest {
     private static final Timeslot TIMESLOT5 = new Timeslot(5, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(5));
     private static final Timeslot TIMESLOT6 = new Timeslot(6, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(7));
     private static final Timeslot TIMESLOT7 = new Timeslot(7, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(9));
+    // TimetableConstraintProvider#MAX_GAP_MINUTES
+    private static final int MAX_GAP_MINUTES = 3 * 60;
 
     @Autowired
     ConstraintVerifier<TimetableConstraintProvider, Timetable> constraintVerifier;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     @Test
     void roomConflict() {
 
@@ -42,7 +58,7 @@ public class TimetableConstraintProviderTest {
         Lesson nonConflictingLesson = new Lesson(3, "Subject3", new Teacher(3L, "Teacher3", null), new StudentGroup(3L, "Group3", 30L), TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::roomConflict)
-                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .given(withKeys(firstLesson, conflictingLesson, nonConflictingLesson))
                 .penalizesBy(1);
     }
 
@@ -56,7 +72,7 @@ public class TimetableConstraintProviderTest {
         Lesson conflictingLesson2 = new Lesson(4, "Subject4", LessonType.SEMINAR, new Teacher(4L, "Teacher4", null), new StudentGroup(4L, Year.FIRST, "Group1", "1", 30L), TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::roomConflictUniversity)
-                .given(firstLesson, conflictingLesson, nonConflictingLesson, conflictingLesson2)
+                .given(withKeys(firstLesson, conflictingLesson, nonConflictingLesson, conflictingLesson2))
                 .penalizesBy(2);
     }
 
@@ -70,7 +86,7 @@ public class TimetableConstraintProviderTest {
         Lesson nonConflictingLesson = new Lesson(3, "Subject3", new Teacher(2L, "Teacher2", null), new StudentGroup(3L, "Group3", 30L), TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::teacherConflict)
-                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .given(withKeys(firstLesson, conflictingLesson, nonConflictingLesson))
                 .penalizesBy(1);
     }
 
@@ -85,7 +101,7 @@ public class TimetableConstraintProviderTest {
         Lesson nonConflictingLesson = new Lesson(3, "Subject3", LessonType.COURSE, new Teacher(2L, "Teacher2", null), new StudentGroup(3L, "Group3", 30L), TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::teacherConflictUniversity)
-                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .given(withKeys(firstLesson, conflictingLesson, nonConflictingLesson))
                 .penalizesBy(0);
     }
 
@@ -99,7 +115,7 @@ public class TimetableConstraintProviderTest {
         Lesson nonConflictingLesson = new Lesson(3, "Subject3", new Teacher(3L, "Teacher3", null), new StudentGroup(3L, "Group3", 30L), TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::studentGroupConflictWithGroupBy)
-                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .given(withKeys(firstLesson, conflictingLesson, nonConflictingLesson))
                 .penalizesBy(1);
     }
 
@@ -114,10 +130,53 @@ public class TimetableConstraintProviderTest {
         Lesson lesson2InDifferentRoom = new Lesson(4, "Subject3", teacher, new StudentGroup(4L, "Group3", 30L), TIMESLOT2, ROOM2);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::teacherRoomStability)
-                .given(lessonInFirstRoom, lessonInDifferentRoom, lessonInSameRoom, lesson2InDifferentRoom)
+                .given(withKeys(lessonInFirstRoom, lessonInDifferentRoom, lessonInSameRoom, lesson2InDifferentRoom))
                 .rewardsWith(0);
     }
 
+    @Test
+    void teacherRoomStabilityMatchesAllPairsReferenceOnSampleData() throws IOException {
+
+        Timetable sample = objectMapper.readValue(new File("../import-examples/timetable_data.json"), Timetable.class);
+        List<Lesson> lessons = sample.getLessons();
+
+        // the sample is mostly unassigned: assign every lesson to a few timeslots and rooms so that teachers collide.
+        // The rule requires the same timeslot and no more than 30 minutes from its end to its start, which only a
+        // zero-length timeslot satisfies, so add one to compare matches and not only zeros
+        Random random = new Random(37);
+        List<Timeslot> timeslots = new ArrayList<>(sample.getTimeslots().subList(0, 4));
+        timeslots.add(new Timeslot(-1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 0)));
+        List<Room> rooms = sample.getRooms().subList(0, 2);
+        lessons.forEach(lesson -> {
+            lesson.setTimeslot(timeslots.get(random.nextInt(timeslots.size())));
+            lesson.setRoom(rooms.get(random.nextInt(rooms.size())));
+        });
+
+        // reference count with the original all-pairs filter
+        int expectedReward = 0;
+        for (int i = 0; i < lessons.size(); i++) {
+            for (int j = i + 1; j < lessons.size(); j++) {
+                Lesson lesson1 = lessons.get(i);
+                Lesson lesson2 = lessons.get(j);
+                int gap = lesson2.getTimeslot().getStartMinuteOfWeek() - lesson1.getTimeslot().getEndMinuteOfWeek();
+                if (lesson1.getTeacher().getId().equals(lesson2.getTeacher().getId())
+                        && gap >= 0 && gap <= 30
+                        && lesson1.getRoom().equals(lesson2.getRoom())
+                        && lesson1.getTimeslot().equals(lesson2.getTimeslot())) {
+                    expectedReward++;
+                }
+            }
+        }
+        assertTrue(expectedReward > 0);
+
+        constraintVerifier.verifyThat((provider, constraintFactory) -> teacherRoomStabilityAllPairs(constraintFactory))
+                .given(withKeys(lessons.toArray()))
+                .rewardsWith(expectedReward);
+        constraintVerifier.verifyThat(TimetableConstraintProvider::teacherRoomStability)
+                .given(withKeys(lessons.toArray()))
+                .rewardsWith(expectedReward);
+    }
+
     @Test
     void teacherTimeEfficiency() {
 
@@ -129,7 +188,7 @@ public class TimetableConstraintProviderTest {
         Lesson thirdTuesdayLessonWithGap = new Lesson(4, "Subject4", teacher, new StudentGroup(4L, "Group4", 30L), TIMESLOT4, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::teacherTimeEfficiency)
-                .given(singleLessonOnMonday, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLessonWithGap)
+                .given(withKeys(singleLessonOnMonday, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLessonWithGap))
                 .rewardsWith(1);
     }
 
@@ -146,8 +205,8 @@ public class TimetableConstraintProviderTest {
         Lesson lessonInAnotherGroup = new Lesson(5, repeatedSubject, new Teacher(5L, "Teacher5", null), new StudentGroup(2L, "Group2", 30L), TIMESLOT1, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::studentGroupSubjectVariety)
-                .given(mondayLesson, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLessonWithDifferentSubject,
-                        lessonInAnotherGroup)
+                .given(withKeys(mondayLesson, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLessonWithDifferentSubject,
+                        lessonInAnotherGroup))
                 .penalizesBy(1);
     }
 
@@ -170,7 +229,7 @@ public class TimetableConstraintProviderTest {
         Lesson fourthTuesdayLesson = new Lesson(5, repeatedSubject, new Teacher(3L, "Teacher3", Set.of(teacherPreferredTimeslot2)), studentGroup2, TIMESLOT2, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::maximizePreferredTimeslotAssignments)
-                .given(mondayLesson, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson)
+                .given(withKeys(mondayLesson, firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson))
                 .penalizesBy(1);
     }
 
@@ -197,8 +256,8 @@ public class TimetableConstraintProviderTest {
         Lesson sixthTuesdayLesson = new Lesson(10, "subject4", new Teacher(3L, "Teacher3", null), studentGroup, 2, TIMESLOT7, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::maximumCoursesForStudents)
-                .given(mondayLesson, secondLesson, firstTuesdayLesson, tuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson,
-                        tuesdayLesson1, fourthTuesdayLesson, tuesdayLesson2, fifthTuesdayLesson, sixthTuesdayLesson)
+                .given(withKeys(mondayLesson, secondLesson, firstTuesdayLesson, tuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson,
+                        tuesdayLesson1, fourthTuesdayLesson, tuesdayLesson2, fifthTuesdayLesson, sixthTuesdayLesson))
                 .penalizesBy(2);
     }
 
@@ -214,10 +273,39 @@ public class TimetableConstraintProviderTest {
         Lesson sixthTuesdayLesson = new Lesson(6, "subject4", new Teacher(3L, "Teacher3", null), studentGroup, TIMESLOT7, ROOM1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::gapsLongerThan4Hours)
-                .given(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, sixthTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, sixthTuesdayLesson))
                 .penalizesBy(2);
     }
 
+    @Test
+    void tooMuchGapMatchesJoinBasedConstraint() {
+
+        StudentGroup studentGroup = new StudentGroup(1L, "Group1", 30L);
+        StudentGroup otherGroup = new StudentGroup(2L, "Group2", 30L);
+        Timeslot earlyTimeslot = new Timeslot(8L, DayOfWeek.TUESDAY, LocalTime.of(8, 0));
+        Timeslot longTimeslot = new Timeslot(9L, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(13, 0));
+
+        Lesson[] lessons = {
+                new Lesson(1, "subject1", new Teacher(1L, "Teacher1", null), studentGroup, earlyTimeslot, ROOM1),
+                new Lesson(2, "subject2", new Teacher(2L, "Teacher2", null), studentGroup, longTimeslot, ROOM1),
+                new Lesson(3, "subject3", new Teacher(3L, "Teacher3", null), studentGroup, TIMESLOT5, ROOM1),
+                new Lesson(4, "subject4", new Teacher(3L, "Teacher3", null), studentGroup, TIMESLOT7, ROOM1),
+                new Lesson(5, "subject4", new Teacher(4L, "Teacher4", null), studentGroup, TIMESLOT7, ROOM2),
+                new Lesson(6, "subject1", new Teacher(1L, "Teacher1", null), studentGroup, TIMESLOT1, ROOM1),
+                new Lesson(7, "subject1", new Teacher(1L, "Teacher1", null), otherGroup, earlyTimeslot, ROOM1),
+                new Lesson(8, "subject1", new Teacher(1L, "Teacher1", null), otherGroup, TIMESLOT6, ROOM1)
+        };
+
+        // 8-10 & 8-13 -> 17-19 (one gap each from 10:00 and 13:00), 17-19 -> 21-23 (none), 21-23 twice,
+        // other group 8-10 -> 19-21 (one)
+        constraintVerifier.verifyThat((provider, constraintFactory) -> gapsLongerThan4HoursWithJoins(constraintFactory))
+                .given(withKeys((Object[]) lessons))
+                .penalizesBy(3);
+        constraintVerifier.verifyThat(TimetableConstraintProvider::gapsLongerThan4Hours)
+                .given(withKeys((Object[]) lessons))
+                .penalizesBy(3);
+    }
+
     @Test
     void capacityRoomConflict() {
 
@@ -230,7 +318,7 @@ public class TimetableConstraintProviderTest {
         Lesson secondTuesdayLesson = new Lesson(2, "subject1", new Teacher(1L, "Teacher1", null), studentGroup2, TIMESLOT2, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::capacityRoomConflict)
-                .given(firstTuesdayLesson, secondTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson))
                 .penalizesBy(0);
     }
 
@@ -248,7 +336,7 @@ public class TimetableConstraintProviderTest {
         Lesson thirdTuesdayLesson = new Lesson(3, "subject1", LessonType.LABORATORY, new Teacher(1L, "Teacher1", null), studentGroup3, TIMESLOT3, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::courseStudentsGroupedInTheSameRoom)
-                .given(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson))
                 .penalizesBy(0);
     }
 
@@ -266,7 +354,7 @@ public class TimetableConstraintProviderTest {
         Lesson thirdTuesdayLesson = new Lesson(3, "subject1", LessonType.LABORATORY, new Teacher(1L, "Teacher1", null), studentGroup3, TIMESLOT3, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::seminarStudentsGroupedInTheSameRoom)
-                .given(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson))
                 .penalizesBy(0);
     }
 
@@ -287,7 +375,7 @@ public class TimetableConstraintProviderTest {
         Lesson thirdTuesdayLesson = new Lesson(3, "subject1", LessonType.LABORATORY, new Teacher(1L, "Teacher1", null), studentGroup3, TIMESLOT3, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::labsStudentsGroupedInTheSameRoom)
-                .given(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson))
                 .penalizesBy(0);
     }
 
@@ -306,7 +394,7 @@ public class TimetableConstraintProviderTest {
         Lesson secondTuesdayLesson = new Lesson(2, "subject1", LessonType.COURSE, new Teacher(1L, "Teacher1", null), studentGroup2, TIMESLOT2, room1);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::coursesGroupedInTheSameTimeslot)
-                .given(firstTuesdayLesson, secondTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson))
                 .penalizesBy(1);
     }
 
@@ -328,7 +416,7 @@ public class TimetableConstraintProviderTest {
         Lesson fifthTuesdayLesson = new Lesson(5, "subject1", LessonType.SEMINAR, new Teacher(1L, "Teacher1", null), studentGroup2, TIMESLOT3, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::seminarsGroupedInTheSameTimeslot)
-                .given(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson, fifthTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson, fifthTuesdayLesson))
                 .penalizesBy(1);
     }
 
@@ -347,7 +435,7 @@ public class TimetableConstraintProviderTest {
         Lesson secondTuesdayLesson = new Lesson(2, "subject1", LessonType.LABORATORY, new Teacher(1L, "Teacher1", null), studentGroup2, TIMESLOT3, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::labsGroupedInTheSameTimeslot)
-                .given(firstTuesdayLesson, secondTuesdayLesson)
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson))
                 .penalizesBy(1);
     }
 
@@ -385,10 +473,10 @@ public class TimetableConstraintProviderTest {
         Lesson tuesday15Lesson = new Lesson(17, "subject1", LessonType.SEMINAR, new Teacher(2L, "Teacher1", null), studentGroup3, timeslot5, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::maximmumCoursesTeached)
-                .given(firstTuesdayLesson, secondTuesdayLesson, tuesdayLesson, thirdTuesdayLesson, anotherTuesdayLesson,
+                .given(withKeys(firstTuesdayLesson, secondTuesdayLesson, tuesdayLesson, thirdTuesdayLesson, anotherTuesdayLesson,
                         fourthTuesdayLesson, fifthTuesdayLesson, sixthTuesdayLesson, seventhTuesdayLesson,
                         eightTuesdayLesson, ninethTuesdayLesson, tenthTuesdayLesson, eleventhTuesdayLesson,
-                        twelvethTuesdayLesson, tuesday13Lesson, tuesday14Lesson, tuesday15Lesson)
+                        twelvethTuesdayLesson, tuesday13Lesson, tuesday14Lesson, tuesday15Lesson))
                 .penalizesBy(0);
     }
 
@@ -414,8 +502,8 @@ public class TimetableConstraintProviderTest {
         Lesson nextLesson = new Lesson(6, "subject1", LessonType.SEMINAR, new Teacher(1L, "Teacher1", null), studentGroup3, timeslot6, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::overlappingTimeslot)
-                .given(eightTuesdayLesson, ninethTuesdayLesson, tenthTuesdayLesson, eleventhTuesdayLesson,
-                        twelvethTuesdayLesson, nextLesson)
+                .given(withKeys(eightTuesdayLesson, ninethTuesdayLesson, tenthTuesdayLesson, eleventhTuesdayLesson,
+                        twelvethTuesdayLesson, nextLesson))
                 .penalizesBy(3);
     }
 
@@ -432,7 +520,7 @@ public class TimetableConstraintProviderTest {
                 new Teacher(1L, "Teacher1", null), studentGroup3, 3, timeslot, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::lessonDurationConflict)
-                .given(conflictLesson)
+                .given(withKeys(conflictLesson))
                 .penalizesBy(1);
 
 
@@ -456,9 +544,62 @@ public class TimetableConstraintProviderTest {
         Lesson fourthTuesdayLesson = new Lesson(3, "subject1", LessonType.COURSE, new Teacher(1L, "Teacher1", null), studentGroup, timeslot2, room);
 
         constraintVerifier.verifyThat(TimetableConstraintProvider::coursesInTheSameBuilding)
-                .given(tuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson)
+                .given(withKeys(tuesdayLesson, thirdTuesdayLesson, fourthTuesdayLesson))
                 .rewardsWith(1);
 
     }
 
+    /**
+     * Gives the keys of the lessons their ids as {@link Timetable#prepareForSolving()} does, the constraints compare ids.
+     */
+    private static Object[] withKeys(Object... facts) {
+        Timetable timetable = new Timetable();
+        for (Object fact : facts) {
+            if (fact instanceof Lesson lesson) {
+                timetable.normalizeKeys(lesson);
+            }
+        }
+        return facts;
+    }
+
+    /**
+     * gapsLongerThan4Hours as a join and ifNotExists over every pair of a group's lessons on a day, before the
+     * collector replaced it.
+     */
+    private static Constraint gapsLongerThan4HoursWithJoins(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(Lesson.class)
+                .join(Lesson.class,
+                        Joiners.equal(lesson -> lesson.getStudentGroup().getId()),
+                        Joiners.equal(lesson -> lesson.getTimeslot().getDayIndex()),
+                        Joiners.lessThan(lesson -> lesson.getTimeslot().getStartMinuteOfWeek(),
+                                lesson -> lesson.getTimeslot().getStartMinuteOfWeek()))
+                // no lesson of the group starts in between
+                .ifNotExists(Lesson.class,
+                        Joiners.equal((a, b) -> a.getStudentGroup().getId(), lesson -> lesson.getStudentGroup().getId()),
+                        Joiners.equal((a, b) -> a.getTimeslot().getDayIndex(), lesson -> lesson.getTimeslot().getDayIndex()),
+                        Joiners.lessThan((a, b) -> a.getTimeslot().getEndMinuteOfWeek(), lesson -> lesson.getTimeslot().getStartMinuteOfWeek()),
+                        Joiners.greaterThan((a, b) -> b.getTimeslot().getStartMinuteOfWeek(), lesson -> lesson.getTimeslot().getStartMinuteOfWeek()))
+                .filter((lesson1, lesson2) ->
+                        lesson2.getTimeslot().getStartMinuteOfWeek() - lesson1.getTimeslot().getEndMinuteOfWeek() > MAX_GAP_MINUTES)
+                .penalizeConfigurable()
+                .asConstraint("gapsLongerThan4Hours");
+    }
+
+    /**
+     * teacherRoomStability before the timeslot and room joiners: every pair of a teacher's lessons in the week reaches
+     * the filter.
+     */
+    private static Constraint teacherRoomStabilityAllPairs(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEachUniquePair(Lesson.class,
+                        Joiners.equal(lesson -> lesson.getTeacher().getId()))
+                .filter((lesson1, lesson2) -> {
+                    int gap = lesson2.getTimeslot().getStartMinuteOfWeek() - lesson1.getTimeslot().getEndMinuteOfWeek();
+                    return gap >= 0 && gap <= 30 && lesson1.getRoom().equals(lesson2.getRoom())
+                            && lesson1.getTimeslot().equals(lesson2.getTimeslot());
+                })
+                .rewardConfigurable()
+                .asConstraint("teacherRoomStability");
+    }
 }
@@ -0,0 +1,123 @@
+package com.patrick.timetableappbackend.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.LessonType;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.StudentGroup;
+import com.patrick.timetableappbackend.model.Teacher;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.model.Year;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimetableSolutionClonerTest {
+
+    @Test
+    void cloneCopiesLessonsAndSharesProblemFacts() {
+        Timetable original = createProblem();
+        original.prepareForSolving();
+        original.getLessons().get(0).setTimeslot(original.getTimeslots().get(0));
+        original.getLessons().get(0).setRoom(original.getRooms().get(0));
+        original.setScore(HardMediumSoftScore.of(-1, 0, 0));
+
+        Timetable clone = new TimetableSolutionCloner().cloneSolution(original);
+
+        assertSame(original.getTimeslots(), clone.getTimeslots());
+        assertSame(original.getRooms(), clone.getRooms());
+        assertNotSame(original.getTimetableConstraintConfiguration(), clone.getTimetableConstraintConfiguration());
+        assertEquals(original.getTimetableConstraintConfiguration(), clone.getTimetableConstraintConfiguration());
+        assertSame(original.getTimeslotsByDuration(), clone.getTimeslotsByDuration());
+        assertSame(original.getRoomEligibility(), clone.getRoomEligibility());
+        assertEquals(original.getScore(), clone.getScore());
+
+        assertNotSame(original.getLessons(), clone.getLessons());
+        assertEquals(original.getLessons().size(), clone.getLessons().size());
+        for (int i = 0; i < original.getLessons().size(); i++) {
+            Lesson originalLesson = original.getLessons().get(i);
+            Lesson clonedLesson = clone.getLessons().get(i);
+            assertNotSame(originalLesson, clonedLesson);
+            assertEquals(originalLesson.getId(), clonedLesson.getId());
+            assertSame(originalLesson.getTimeslot(), clonedLesson.getTimeslot());
+            assertSame(originalLesson.getRoom(), clonedLesson.getRoom());
+            assertSame(originalLesson.getStudentGroup(), clonedLesson.getStudentGroup());
+            assertSame(clone, clonedLesson.getTimetable());
+            assertSame(originalLesson.getPossibleTimeslots(), clonedLesson.getPossibleTimeslots());
+        }
+
+        // changing the clone leaves the original untouched
+        clone.getLessons().get(0).setTimeslot(original.getTimeslots().get(1));
+        assertSame(original.getTimeslots().get(0), original.getLessons().get(0).getTimeslot());
+    }
+
+    @Test
+    void reweightingTheWorkingSolutionLeavesClonesUnchanged() {
+        Timetable workingSolution = createProblem();
+        workingSolution.prepareForSolving();
+        Timetable bestSolution = new TimetableSolutionCloner().cloneSolution(workingSolution);
+
+        TimetableConstraintConfiguration weights = new TimetableConstraintConfiguration();
+        weights.setRoomConflict(HardMediumSoftScore.ONE_MEDIUM);
+        weights.setTeacherRoomStability(HardMediumSoftScore.ONE_SOFT);
+        workingSolution.getTimetableConstraintConfiguration().applyWeights(weights);
+
+        assertEquals(HardMediumSoftScore.ONE_MEDIUM, workingSolution.getTimetableConstraintConfiguration().getRoomConflict());
+        assertEquals(HardMediumSoftScore.ONE_HARD, bestSolution.getTimetableConstraintConfiguration().getRoomConflict());
+        assertEquals(HardMediumSoftScore.ONE_HARD, bestSolution.getTimetableConstraintConfiguration().getTeacherConflict());
+        assertEquals(HardMediumSoftScore.ZERO, bestSolution.getTimetableConstraintConfiguration().getTeacherRoomStability());
+    }
+
+    @Test
+    void solvesWithFullAssert() {
+        Timetable problem = createProblem();
+        problem.prepareForSolving();
+
+        SolverConfig solverConfig = SolverConfig.createFromXmlResource("timetableSolverConfig.xml")
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withTerminationSpentLimit(Duration.ofSeconds(3));
+        Solver<Timetable> solver = SolverFactory.<Timetable>create(solverConfig).buildSolver();
+        Timetable solution = solver.solve(problem);
+
+        assertNotNull(solution.getScore());
+        assertTrue(solution.getLessons().stream().allMatch(lesson -> lesson.getTimeslot() != null && lesson.getRoom() != null));
+    }
+
+    private static Timetable createProblem() {
+        List<Timeslot> timeslots = new ArrayList<>();
+        long timeslotId = 1;
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)) {
+            for (int hour = 8; hour < 14; hour += 2) {
+                timeslots.add(new Timeslot(timeslotId++, day, LocalTime.of(hour, 0), LocalTime.of(hour + 2, 0)));
+            }
+        }
+        List<Room> rooms = List.of(new Room(1L, "C101", 40L), new Room(2L, "C102", 100L));
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            StudentGroup group = new StudentGroup((long) i % 4, Year.FIRST, "Series1", "1" + (char) ('A' + i % 4), 30L);
+            Teacher teacher = new Teacher((long) i % 3, "Teacher" + i % 3, null);
+            LessonType type = i % 2 == 0 ? LessonType.SEMINAR : LessonType.LABORATORY;
+            lessons.add(new Lesson(i, "Subject" + i % 2, teacher, group, type, Year.FIRST, 2));
+        }
+        TimetableConstraintConfiguration constraintConfiguration = new TimetableConstraintConfiguration();
+        constraintConfiguration.setRoomConflict(HardMediumSoftScore.ONE_HARD);
+        constraintConfiguration.setTeacherConflict(HardMediumSoftScore.ONE_HARD);
+        constraintConfiguration.setStudentGroupConflictWithGroupBy(HardMediumSoftScore.ONE_HARD);
+        return new Timetable(timeslots, rooms, lessons, constraintConfiguration);
+    }
+}
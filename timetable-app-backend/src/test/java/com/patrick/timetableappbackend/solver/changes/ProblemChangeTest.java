@@ -0,0 +1,120 @@
+package com.patrick.timetableappbackend.solver.changes;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.test.api.solver.change.MockProblemChangeDirector;
+import com.patrick.timetableappbackend.model.ConstraintModel;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.Room;
+import com.patrick.timetableappbackend.model.Timeslot;
+import com.patrick.timetableappbackend.model.Timetable;
+import com.patrick.timetableappbackend.solver.TimetableConstraintConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProblemChangeTest {
+
+    private final Timeslot monday = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+    private final Timeslot tuesday = new Timeslot(2L, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+    private final Room firstRoom = new Room(1L, "C101");
+    private final Room secondRoom = new Room(2L, "C102");
+    private final Lesson algebra = new Lesson(1, "Algebra", null, null, 2, monday, firstRoom);
+    private final Lesson physics = new Lesson(2, "Physics", null, null, 2, tuesday, secondRoom);
+
+    private final List<Timeslot> timeslots = List.of(monday, tuesday);
+    private final List<Room> rooms = List.of(firstRoom, secondRoom);
+    private final List<Lesson> lessons = List.of(algebra, physics);
+    private final Timetable workingSolution = new Timetable(timeslots, rooms, lessons);
+
+    @Test
+    void addedLessonIsResolvedAgainstTheWorkingSolution() {
+        workingSolution.prepareForSolving();
+        Lesson chemistry = new Lesson(3, "Chemistry", null, null, 2,
+                new Timeslot(2L, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(10, 0)), null);
+        chemistry.setPinned(true);
+
+        new AddLessonProblemChange(chemistry).doChange(workingSolution, new MockProblemChangeDirector());
+
+        assertEquals(3, workingSolution.getLessons().size());
+        assertEquals(2, lessons.size());
+        assertSame(tuesday, chemistry.getTimeslot());
+        assertNull(chemistry.getRoom());
+        assertFalse(chemistry.isPinned());
+        assertSame(workingSolution, chemistry.getTimetable());
+        assertEquals(rooms, chemistry.getPossibleRooms());
+    }
+
+    @Test
+    void removedLessonLeavesTheOriginalListUntouched() {
+        new RemoveLessonProblemChange(1L).doChange(workingSolution, new MockProblemChangeDirector());
+
+        assertEquals(List.of(physics), workingSolution.getLessons());
+        assertEquals(2, lessons.size());
+    }
+
+    @Test
+    void lessonIsMovedBeforeItIsPinned() {
+        workingSolution.prepareForSolving();
+
+        new PinLessonProblemChange(1L, true, 2L, 2L).doChange(workingSolution, new MockProblemChangeDirector());
+        assertSame(tuesday, algebra.getTimeslot());
+        assertSame(secondRoom, algebra.getRoom());
+        assertTrue(algebra.isPinned());
+
+        new PinLessonProblemChange(1L, false, null, null).doChange(workingSolution, new MockProblemChangeDirector());
+        assertFalse(algebra.isPinned());
+    }
+
+    @Test
+    void removedRoomUnassignsAndUnpinsItsLessons() {
+        algebra.setPinned(true);
+        workingSolution.prepareForSolving();
+
+        new RemoveRoomProblemChange(1L).doChange(workingSolution, new MockProblemChangeDirector());
+
+        assertEquals(List.of(secondRoom), workingSolution.getRooms());
+        assertEquals(2, rooms.size());
+        assertNull(algebra.getRoom());
+        assertFalse(algebra.isPinned());
+        assertEquals(List.of(secondRoom), algebra.getPossibleRooms());
+        assertSame(secondRoom, physics.getRoom());
+    }
+
+    @Test
+    void addedTimeslotIsIndexedAndOffered() {
+        workingSolution.prepareForSolving();
+        Timeslot wednesday = new Timeslot(3L, DayOfWeek.WEDNESDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+
+        new AddTimeslotProblemChange(wednesday).doChange(workingSolution, new MockProblemChangeDirector());
+
+        assertEquals(List.of(monday, tuesday, wednesday), workingSolution.getTimeslots());
+        assertEquals(2, timeslots.size());
+        assertEquals(2, wednesday.getIndex());
+        assertEquals(List.of(monday, tuesday, wednesday), algebra.getPossibleTimeslots());
+    }
+
+    @Test
+    void constraintWeightsAreUpdatedInPlace() {
+        TimetableConstraintConfiguration configuration = new TimetableConstraintConfiguration(List.of(
+                new ConstraintModel(1L, "roomConflict", "HARD"),
+                new ConstraintModel(2L, "teacherRoomStability", "SOFT")));
+        workingSolution.setTimetableConstraintConfiguration(configuration);
+        TimetableConstraintConfiguration weights = new TimetableConstraintConfiguration(List.of(
+                new ConstraintModel(1L, "roomConflict", "HARD"),
+                new ConstraintModel(2L, "teacherRoomStability", "MEDIUM")));
+
+        new UpdateConstraintWeightsProblemChange(weights).doChange(workingSolution, new MockProblemChangeDirector());
+
+        assertSame(configuration, workingSolution.getTimetableConstraintConfiguration());
+        assertEquals(HardMediumSoftScore.ONE_HARD, configuration.getRoomConflict());
+        assertEquals(HardMediumSoftScore.ONE_MEDIUM, configuration.getTeacherRoomStability());
+    }
+}
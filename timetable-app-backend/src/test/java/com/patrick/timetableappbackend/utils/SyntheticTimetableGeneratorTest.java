@@ -0,0 +1,99 @@
+package com.patrick.timetableappbackend.utils;
+
+import com.patrick.timetableappbackend.dto.SyntheticDatasetRequest;
+import com.patrick.timetableappbackend.model.Lesson;
+import com.patrick.timetableappbackend.model.LessonType;
+import com.patrick.timetableappbackend.model.Timetable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticTimetableGeneratorTest {
+
+    @Test
+    void sameSeedGeneratesTheSameProblem() {
+        SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+        spec.setRooms(25);
+
+        Timetable first = SyntheticTimetableGenerator.generate(spec);
+        Timetable second = SyntheticTimetableGenerator.generate(spec);
+        spec.setSeed(spec.getSeed() + 1);
+        Timetable otherSeed = SyntheticTimetableGenerator.generate(spec);
+
+        assertEquals(describe(first), describe(second));
+        assertNotEquals(describe(first), describe(otherSeed));
+    }
+
+    @Test
+    void generatesTheRequestedShape() {
+        SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+        spec.setSeries(3);
+        spec.setGroupsPerSeries(2);
+        spec.setLessonsPerGroup(5);
+        spec.setTeachers(7);
+        spec.setRooms(20);
+        spec.setDays(4);
+        spec.setTimeslotsPerDay(5);
+
+        Timetable timetable = SyntheticTimetableGenerator.generate(spec);
+
+        assertEquals(20, timetable.getTimeslots().size());
+        assertEquals(20, timetable.getRooms().size());
+        assertEquals(3 * 2 * 5, timetable.getLessons().size());
+        assertEquals(timetable.getLessons().size(),
+                timetable.getLessons().stream().map(Lesson::getId).distinct().count());
+        assertTrue(timetable.getLessons().stream().allMatch(lesson -> lesson.getTimeslot() == null && lesson.getDuration() == 2));
+        assertTrue(timetable.getLessons().stream().map(Lesson::getTeacher).distinct().count() <= 7);
+        // every group of a series takes the same subjects, the first year one has sport in the gym
+        Map<String, List<String>> subjectsByGroup = timetable.getLessons().stream()
+                .collect(Collectors.groupingBy(lesson -> lesson.getStudentGroup().getStudentGroup(),
+                        Collectors.mapping(Lesson::getSubject, Collectors.toList())));
+        assertEquals(subjectsByGroup.get("Series 1-1"), subjectsByGroup.get("Series 1-2"));
+        assertTrue(subjectsByGroup.get("Series 1-1").contains("Physical Education"));
+        assertFalse(subjectsByGroup.get("Series 2-1").contains("Physical Education"));
+        assertTrue(timetable.getRooms().stream().anyMatch(room -> room.getName().startsWith("Gym")));
+        Map<LessonType, Long> types = timetable.getLessons().stream()
+                .collect(Collectors.groupingBy(Lesson::getLessonType, Collectors.counting()));
+        assertTrue(types.get(LessonType.COURSE) >= 3 * 2 * 2);
+    }
+
+    @Test
+    void scalesToALessonCount() {
+        SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+
+        SyntheticDatasetRequest scaled = SyntheticTimetableGenerator.scaledTo(spec, 50_000);
+
+        long lessons = SyntheticTimetableGenerator.lessonCount(scaled);
+        assertTrue(Math.abs(lessons - 50_000) <= spec.getGroupsPerSeries() * spec.getLessonsPerGroup(), () -> lessons + " lessons");
+        double factor = (double) scaled.getSeries() / spec.getSeries();
+        assertEquals((int) Math.ceil(spec.getTeachers() * factor), scaled.getTeachers());
+        assertEquals((int) Math.ceil(spec.getRooms() * factor), scaled.getRooms());
+        assertEquals(spec.getTimeslotsPerDay(), scaled.getTimeslotsPerDay());
+    }
+
+    @Test
+    void rejectsOutOfRangeParameters() {
+        SyntheticDatasetRequest spec = new SyntheticDatasetRequest();
+        spec.setTimeslotMinutes(90);
+        assertThrows(IllegalArgumentException.class, () -> SyntheticTimetableGenerator.generate(spec));
+
+        spec.setTimeslotMinutes(120);
+        spec.setTimeslotsPerDay(8);
+        assertThrows(IllegalArgumentException.class, () -> SyntheticTimetableGenerator.generate(spec));
+    }
+
+    private static Map<Long, String> describe(Timetable timetable) {
+        return timetable.getLessons().stream().collect(Collectors.toMap(Lesson::getId,
+                lesson -> lesson.getSubject() + "/" + lesson.getLessonType() + "/" + lesson.getTeacher().getName()
+                        + "/" + lesson.getStudentGroup().getNumberOfStudents()
+                        + "/" + lesson.getTeacher().getPreferredTimeslots().size()));
+    }
+}